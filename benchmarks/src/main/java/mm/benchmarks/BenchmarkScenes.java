@@ -0,0 +1,138 @@
+package mm.benchmarks;
+
+import javafx.geometry.Point2D;
+import javafx.geometry.Rectangle2D;
+import mm.model.level.Level;
+import mm.model.level.RestrictionZone;
+import mm.model.level.WinCondition;
+import mm.model.objects.GameObject;
+import mm.model.objects.impl.Ball;
+import mm.model.objects.impl.Balloon;
+import mm.model.objects.impl.Box;
+import mm.model.objects.impl.Log;
+import mm.model.objects.impl.Plank;
+import mm.model.physics.PhysicsWorld;
+
+/**
+ * Builds the levels and worlds used by the benchmarks.
+ * All scenes are generated with fixed layouts, so every run measures the same work.
+ */
+final class BenchmarkScenes {
+    private static final double SPACING = 40;
+    private static final double MACHINE_GAP = 2000;
+
+    /**
+     * This class only has static methods.
+     */
+    private BenchmarkScenes() {
+    }
+
+    /**
+     * Creates a level with the given number of objects.
+     * The objects are placed on a grid of shelves, every fifth object being a static plank or log
+     * and the others balls, boxes and balloons.
+     *
+     * @param objectCount The number of objects
+     * @param winConditionCount The number of win conditions
+     * @param restrictionZoneCount The number of restriction zones
+     * @return The level
+     */
+    static Level createLevel(int objectCount, int winConditionCount, int restrictionZoneCount) {
+        Level level = new Level("Benchmark", "Generated level with " + objectCount + " objects");
+        int columns = addObjects(level, objectCount, 0);
+
+        double size = columns * SPACING;
+        for (int i = 0; i < winConditionCount; i++) {
+            String objectType = i % 2 == 0 ? "Ball" : "Box";
+            level.addWinCondition(new WinCondition(objectType, cell(i, winConditionCount, size)));
+        }
+        for (int i = 0; i < restrictionZoneCount; i++) {
+            level.addRestrictionZone(new RestrictionZone(cell(i, restrictionZoneCount, size)));
+        }
+        level.addInventoryItem("Ball", 10);
+        level.addInventoryItem("Box", 10);
+        return level;
+    }
+
+    /**
+     * Creates a wide level made of machines that are far apart and never touch each other.
+     * Each machine is a grid of shelves like the levels of {@link #createLevel(int, int, int)}.
+     *
+     * @param machineCount The number of machines
+     * @param objectsPerMachine The number of objects of each machine
+     * @return The level
+     */
+    static Level createWideLevel(int machineCount, int objectsPerMachine) {
+        Level level = new Level("Benchmark", "Generated level with " + machineCount + " machines");
+        double width = Math.ceil(Math.sqrt(objectsPerMachine)) * SPACING + MACHINE_GAP;
+        for (int i = 0; i < machineCount; i++) {
+            addObjects(level, objectsPerMachine, i * width);
+        }
+        return level;
+    }
+
+    /**
+     * Adds objects on a grid of shelves to a level.
+     * Every fifth object is a static plank or log and the others are balls, boxes and balloons.
+     *
+     * @param level The level
+     * @param objectCount The number of objects
+     * @param offsetX The x coordinate of the left column
+     * @return The number of columns of the grid
+     */
+    private static int addObjects(Level level, int objectCount, double offsetX) {
+        int columns = (int) Math.ceil(Math.sqrt(objectCount));
+        for (int i = 0; i < objectCount; i++) {
+            Point2D position = new Point2D(offsetX + (i % columns) * SPACING, (i / columns) * SPACING);
+            switch (i % 5) {
+                case 0:
+                    level.addStaticObject(i % 10 == 0
+                            ? new Plank(position.add(0, SPACING / 2), 0, 30, 5)
+                            : new Log(position.add(0, SPACING / 2), 0, 30, 5));
+                    break;
+                case 1:
+                    level.addDynamicObject(new Ball(position, 8));
+                    break;
+                case 2:
+                    level.addDynamicObject(new Box(position, 14, 14));
+                    break;
+                case 3:
+                    level.addDynamicObject(Ball.createHeavyBall(position, 8));
+                    break;
+                default:
+                    level.addDynamicObject(new Balloon(position, 8));
+                    break;
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Creates a physics world containing all objects of a level.
+     *
+     * @param level The level
+     * @return The physics world
+     */
+    static PhysicsWorld createWorld(Level level) {
+        PhysicsWorld physicsWorld = new PhysicsWorld();
+        for (GameObject gameObject : level.getAllGameObjects()) {
+            physicsWorld.addGameObject(gameObject);
+        }
+        return physicsWorld;
+    }
+
+    /**
+     * Gets one of several equally sized, non-overlapping areas covering a square.
+     *
+     * @param index The index of the area
+     * @param count The number of areas
+     * @param size The width and height of the square
+     * @return The area
+     */
+    private static Rectangle2D cell(int index, int count, double size) {
+        int columns = (int) Math.ceil(Math.sqrt(count));
+        double cellSize = size / columns;
+        return new Rectangle2D((index % columns) * cellSize, (index / columns) * cellSize,
+                cellSize * 0.8, cellSize * 0.8);
+    }
+}
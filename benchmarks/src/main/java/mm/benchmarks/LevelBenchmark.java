@@ -0,0 +1,166 @@
+package mm.benchmarks;
+
+import javafx.geometry.Point2D;
+import mm.model.level.BinaryLevelFormat;
+import mm.model.level.Level;
+import mm.model.level.LevelLoader;
+import mm.model.physics.PhysicsWorld;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the level operations: checking win conditions, validating placements and loading level files.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LevelBenchmark {
+    private static final int OBJECTS = 1000;
+
+    @Param({"10", "100", "1000"})
+    private int conditions;
+
+    private Level level;
+    private PhysicsWorld physicsWorld;
+    private Point2D[] placements;
+    private Path directory;
+    private String jsonFile;
+    private String binaryFile;
+
+    /**
+     * Creates the level, its physics world and the level files.
+     *
+     * @throws IOException If the level files cannot be written
+     */
+    @Setup
+    public void setUp() throws IOException {
+        level = BenchmarkScenes.createLevel(OBJECTS, conditions, conditions);
+        physicsWorld = BenchmarkScenes.createWorld(level);
+        for (int i = 0; i < 60; i++) {
+            physicsWorld.step();
+        }
+
+        placements = new Point2D[256];
+        for (int i = 0; i < placements.length; i++) {
+            placements[i] = new Point2D((i * 37) % 1300, (i * 53) % 1300);
+        }
+
+        directory = Files.createTempDirectory("mm-benchmark");
+        jsonFile = directory.resolve("level.json").toString();
+        binaryFile = directory.resolve("level" + BinaryLevelFormat.FILE_EXTENSION).toString();
+        LevelLoader.saveLevel(BenchmarkScenes.createLevel(OBJECTS, conditions, conditions), jsonFile);
+        BinaryLevelFormat.convert(jsonFile, binaryFile);
+    }
+
+    /**
+     * Deletes the level files.
+     *
+     * @throws IOException If the level files cannot be deleted
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(Path.of(jsonFile));
+        Files.deleteIfExists(Path.of(binaryFile));
+        Files.deleteIfExists(directory);
+        LevelLoader.clearCache();
+    }
+
+    /**
+     * Checks all win conditions against all objects of the world.
+     *
+     * @return Whether all win conditions are satisfied
+     */
+    @Benchmark
+    public boolean checkWinConditionsAllObjects() {
+        return level.checkWinConditions(physicsWorld.getGameObjects());
+    }
+
+    /**
+     * Checks all win conditions against the objects of their kinds only.
+     *
+     * @return Whether all win conditions are satisfied
+     */
+    @Benchmark
+    public boolean checkWinConditionsByKind() {
+        return level.checkWinConditions(physicsWorld);
+    }
+
+    /**
+     * Validates placements at many positions against the restriction zones.
+     *
+     * @return The number of rejected placements
+     */
+    @Benchmark
+    public int validatePlacements() {
+        int rejected = 0;
+        for (Point2D placement : placements) {
+            if (level.isInRestrictionZone(placement)) {
+                rejected++;
+            }
+        }
+        return rejected;
+    }
+
+    /**
+     * Loads the level from its cached template, as when a level is restarted.
+     *
+     * @return The level
+     * @throws IOException If the level cannot be loaded
+     */
+    @Benchmark
+    public Level loadLevelCached() throws IOException {
+        return LevelLoader.loadLevel(jsonFile);
+    }
+
+    /**
+     * Loads the level by parsing its JSON file.
+     *
+     * @return The level
+     * @throws IOException If the level cannot be loaded
+     */
+    @Benchmark
+    public Level loadLevelJson() throws IOException {
+        LevelLoader.invalidate(jsonFile);
+        return LevelLoader.loadLevel(jsonFile);
+    }
+
+    /**
+     * Loads the level by reading its JSON file with the streaming reader.
+     *
+     * @return The level
+     * @throws IOException If the level cannot be loaded
+     */
+    @Benchmark
+    public Level streamLevelJson() throws IOException {
+        return LevelLoader.streamLevel(jsonFile);
+    }
+
+    /**
+     * Loads the level by parsing its binary file.
+     *
+     * @return The level
+     * @throws IOException If the level cannot be loaded
+     */
+    @Benchmark
+    public Level loadLevelBinary() throws IOException {
+        LevelLoader.invalidate(binaryFile);
+        return LevelLoader.loadLevel(binaryFile);
+    }
+}
@@ -0,0 +1,63 @@
+package mm.benchmarks;
+
+import mm.model.physics.PhysicsWorld;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time of a single frame of the physics simulation.
+ * The world is rebuilt for every iteration, so each iteration starts with the objects falling.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PhysicsStepBenchmark {
+    @Param({"100", "1000", "10000"})
+    private int bodies;
+
+    private PhysicsWorld physicsWorld;
+
+    /**
+     * Creates a new world with the configured number of bodies.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        physicsWorld = BenchmarkScenes.createWorld(BenchmarkScenes.createLevel(bodies, 0, 0));
+    }
+
+    /**
+     * Advances the world by one fixed time step.
+     *
+     * @return The physics world, so the work cannot be eliminated
+     */
+    @Benchmark
+    public PhysicsWorld step() {
+        physicsWorld.step();
+        return physicsWorld;
+    }
+
+    /**
+     * Updates the world by one frame at 60 frames per second, as the game loop does.
+     *
+     * @return The physics world, so the work cannot be eliminated
+     */
+    @Benchmark
+    public PhysicsWorld update() {
+        physicsWorld.update(1.0f / 60.0f);
+        return physicsWorld;
+    }
+}
@@ -0,0 +1,84 @@
+package mm.benchmarks;
+
+import mm.model.objects.GameObject;
+import mm.model.physics.PhysicsWorld;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a physics step of a wide level made of separate machines, with the world simulated
+ * as a whole and split into regions that are stepped in parallel.
+ * The world is rebuilt for every iteration, so each iteration starts with the objects falling.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegionStepBenchmark {
+    private static final int OBJECTS_PER_MACHINE = 2000;
+
+    @Param({"1", "4", "8"})
+    private int machines;
+
+    @Param({"false", "true"})
+    private boolean regions;
+
+    private ForkJoinPool regionPool;
+    private PhysicsWorld physicsWorld;
+
+    /**
+     * Creates the pool the regions are stepped on, with a thread for each core.
+     */
+    @Setup(Level.Trial)
+    public void createPool() {
+        regionPool = new ForkJoinPool();
+    }
+
+    /**
+     * Creates a new world with the configured number of machines.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        physicsWorld = new PhysicsWorld();
+        if (regions) {
+            physicsWorld.setRegionPool(regionPool);
+        }
+        for (GameObject gameObject : BenchmarkScenes.createWideLevel(machines, OBJECTS_PER_MACHINE).getAllGameObjects()) {
+            physicsWorld.addGameObject(gameObject);
+        }
+    }
+
+    /**
+     * Advances the world by one fixed time step.
+     *
+     * @return The physics world, so the work cannot be eliminated
+     */
+    @Benchmark
+    public PhysicsWorld step() {
+        physicsWorld.step();
+        return physicsWorld;
+    }
+
+    /**
+     * Shuts down the region pool.
+     */
+    @TearDown(Level.Trial)
+    public void shutdownPool() {
+        regionPool.shutdown();
+    }
+}
@@ -1,17 +1,44 @@
 package mm;
 
 import mm.controller.GameController;
+import mm.controller.HeadlessSimulator;
+import mm.controller.ReplayLog;
+import mm.controller.SimulationResult;
 import mm.gui.Gui;
+import mm.model.level.BinaryLevelFormat;
+import mm.model.level.Level;
+import mm.model.level.LevelLoader;
+import mm.model.physics.SimulationProfile;
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * The common starting point of the GUI.
  */
 public class Main {
+    private static final String HEADLESS_OPTION = "--headless";
+    private static final String CONVERT_OPTION = "--convert";
+    private static final String REPLAY_OPTION = "--replay";
+    private static final long DEFAULT_MAX_STEPS = 60 * 60;
+
     /**
      * The external entry point of the application.
      * @param args The command line arguments passed to the application.
      */
     public static void main(String[] args) {
+        if (args.length > 0 && HEADLESS_OPTION.equals(args[0])) {
+            runHeadless(args);
+            return;
+        }
+        if (args.length > 0 && CONVERT_OPTION.equals(args[0])) {
+            convertLevels(args);
+            return;
+        }
+        if (args.length > 0 && REPLAY_OPTION.equals(args[0])) {
+            playReplays(args);
+            return;
+        }
+
         System.out.println("Starting Crazy Machines...");
         
         // Create the game controller
@@ -23,4 +50,88 @@ public class Main {
         
         System.out.println("Exiting Crazy Machines...");
     }
+
+    /**
+     * Simulates the given level files without starting the GUI.
+     * Usage: --headless [--steps N] [--quality profile] [--regions threads] level1.json level2.json ...
+     * Without a quality option, each level is simulated with its own simulation profile.
+     * With a regions option, the levels are split into regions that are stepped on a pool of the given number of threads.
+     *
+     * @param args The command line arguments, starting with the headless option
+     */
+    private static void runHeadless(String[] args) {
+        long maxSteps = DEFAULT_MAX_STEPS;
+        SimulationProfile profile = null;
+        ForkJoinPool regionPool = null;
+        for (int i = 1; i < args.length; i++) {
+            if ("--steps".equals(args[i]) && i + 1 < args.length) {
+                maxSteps = Long.parseLong(args[++i]);
+                continue;
+            }
+            if ("--quality".equals(args[i]) && i + 1 < args.length) {
+                profile = SimulationProfile.forName(args[++i]);
+                continue;
+            }
+            if ("--regions".equals(args[i]) && i + 1 < args.length) {
+                if (regionPool != null) {
+                    regionPool.shutdown();
+                }
+                regionPool = new ForkJoinPool(Integer.parseInt(args[++i]));
+                continue;
+            }
+            try {
+                Level level = LevelLoader.loadLevel(args[i]);
+                SimulationProfile levelProfile = profile != null ? profile
+                        : level.getSimulationProfile() != null ? level.getSimulationProfile() : SimulationProfile.INTERACTIVE;
+                HeadlessSimulator simulator = new HeadlessSimulator(level, levelProfile, regionPool);
+                SimulationResult result = simulator.run(maxSteps);
+                System.out.println(args[i] + ": " + (result.isCompleted() ? "completed" : "not completed")
+                        + " after " + result.getSteps() + " steps");
+            } catch (IOException e) {
+                System.err.println("Failed to load level: " + e.getMessage());
+            }
+        }
+        if (regionPool != null) {
+            regionPool.shutdown();
+        }
+    }
+
+    /**
+     * Converts the given JSON level files into binary level files next to them.
+     * Usage: --convert level1.json level2.json ...
+     *
+     * @param args The command line arguments, starting with the convert option
+     */
+    private static void convertLevels(String[] args) {
+        for (int i = 1; i < args.length; i++) {
+            String binaryFile = BinaryLevelFormat.toBinaryPath(args[i]);
+            try {
+                BinaryLevelFormat.convert(args[i], binaryFile);
+                System.out.println(args[i] + " -> " + binaryFile);
+            } catch (IOException e) {
+                System.err.println("Failed to convert level: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Plays back the given replay files without starting the GUI and checks that they reach the recorded state.
+     * Usage: --replay attempt1.replay attempt2.replay ...
+     *
+     * @param args The command line arguments, starting with the replay option
+     */
+    private static void playReplays(String[] args) {
+        for (int i = 1; i < args.length; i++) {
+            try {
+                ReplayLog replay = ReplayLog.read(args[i]);
+                HeadlessSimulator simulator = HeadlessSimulator.replay(replay);
+                boolean identical = ReplayLog.hashState(simulator.getPhysicsWorld()) == replay.getStateHash();
+                System.out.println(args[i] + ": " + replay.getLevelFile() + " after " + replay.getSteps() + " steps, "
+                        + (simulator.getLevel().areWinConditionsSatisfied() ? "completed" : "not completed") + ", "
+                        + (identical ? "identical to the recording" : "DIFFERENT from the recording"));
+            } catch (IOException e) {
+                System.err.println("Failed to play replay: " + e.getMessage());
+            }
+        }
+    }
 }
@@ -2,12 +2,20 @@ package mm.controller;
 
 import javafx.geometry.Point2D;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import mm.model.level.BinaryLevelFormat;
 import mm.model.level.Level;
 import mm.model.level.LevelLoader;
+import mm.model.level.LevelTemplate;
 import mm.model.objects.GameObject;
+import mm.model.objects.ObjectKind;
+import mm.model.physics.Camera;
 import mm.model.physics.PhysicsWorld;
+import mm.model.physics.WorldSnapshot;
 
 /**
  * Controls the game state and logic.
@@ -16,10 +24,16 @@ public class GameController {
     private PhysicsWorld physicsWorld;
     private List<String> levelFiles;
     private int currentLevelIndex;
+    private LevelTemplate currentTemplate;
     private Level currentLevel;
+    private WorldSnapshot initialState;
     private boolean isSimulating;
     private boolean levelCompleted;
     private String completionMessage;
+    private ReplayLog replay;
+    private ReplayLog completedReplay;
+    private final List<Runnable> stateListeners;
+    private ForkJoinPool regionPool;
 
     /**
      * Creates a new game controller.
@@ -29,21 +43,34 @@ public class GameController {
         isSimulating = false;
         levelCompleted = false;
         completionMessage = "";
+        stateListeners = new ArrayList<>();
         // List of level files (add your actual level file paths here)
         levelFiles = new ArrayList<>();
         for (int i = 1; i <= 10; i++) {
-            levelFiles.add("level" + i + ".json");
+            levelFiles.add(resolveLevelFile("level" + i + ".json"));
         }
         currentLevelIndex = 0;
     }
 
+    /**
+     * Gets the file to load for a level.
+     * A converted binary level file is preferred over the JSON file, because it loads faster.
+     *
+     * @param jsonFile The path to the JSON level file
+     * @return The path to the binary level file if it exists, otherwise the path to the JSON level file
+     */
+    private static String resolveLevelFile(String jsonFile) {
+        String binaryFile = BinaryLevelFormat.toBinaryPath(jsonFile);
+        return Files.exists(Paths.get(binaryFile)) ? binaryFile : jsonFile;
+    }
+
     /**
      * Loads the current level.
      */
     public void loadCurrentLevel() throws IOException {
         if (currentLevelIndex >= 0 && currentLevelIndex < levelFiles.size()) {
-            currentLevel = LevelLoader.loadLevel(levelFiles.get(currentLevelIndex));
-            resetLevel();
+            currentTemplate = LevelLoader.loadTemplate(levelFiles.get(currentLevelIndex));
+            startLevel();
         }
     }
 
@@ -82,27 +109,63 @@ public class GameController {
     }
 
     /**
-     * Resets the current level.
+     * Builds the current level from its cached template in a new physics world.
+     * The state after setting up the level is captured, so resetting does not have to build it again.
      */
-    public void resetLevel() {
-        physicsWorld.clear();
-
+    private void startLevel() {
         if (currentLevel != null) {
-            currentLevel.resetInventory();
-            // Add static objects
-            for (GameObject gameObject : currentLevel.getStaticObjects()) {
-                physicsWorld.addGameObject(gameObject);
-            }
+            currentLevel.detachWinSensors();
+        }
+        // Keep showing the new world through the same camera
+        Camera camera = physicsWorld.getCamera();
+        physicsWorld = new PhysicsWorld();
+        physicsWorld.setRegionPool(regionPool);
+        physicsWorld.setCamera(camera);
+        currentLevel = null;
+        initialState = null;
+        replay = null;
 
-            // Add dynamic objects
-            for (GameObject gameObject : currentLevel.getDynamicObjects()) {
-                physicsWorld.addGameObject(gameObject);
+        if (currentTemplate != null) {
+            currentLevel = currentTemplate.createLevel();
+            if (currentLevel.getSimulationProfile() != null) {
+                physicsWorld.setProfile(currentLevel.getSimulationProfile());
             }
+            // Add the static and the dynamic objects, making room for all of them at once
+            List<GameObject> staticObjects = currentLevel.getStaticObjects();
+            List<GameObject> dynamicObjects = currentLevel.getDynamicObjects();
+            physicsWorld.ensureCapacity(staticObjects.size() + dynamicObjects.size());
+            physicsWorld.addGameObjects(staticObjects);
+            physicsWorld.addGameObjects(dynamicObjects);
+
+            currentLevel.attachWinSensors(physicsWorld);
+            initialState = physicsWorld.createSnapshot();
+            replay = new ReplayLog(levelFiles.get(currentLevelIndex));
+        }
+
+        isSimulating = false;
+        levelCompleted = false;
+        completionMessage = "";
+        fireStateChanged();
+    }
+
+    /**
+     * Resets the current level.
+     * The physics world is restored in place from the state captured when the level was loaded,
+     * so only the bodies that moved and the objects placed or removed by the player are touched.
+     */
+    public void resetLevel() {
+        if (initialState == null) {
+            startLevel();
+            return;
         }
+        replay.recordReset(physicsWorld.getStepCount());
+        physicsWorld.restoreSnapshot(initialState);
+        currentLevel.resetInventory();
 
         isSimulating = false;
         levelCompleted = false;
         completionMessage = "";
+        fireStateChanged();
     }
 
     /**
@@ -110,6 +173,7 @@ public class GameController {
      */
     public void startSimulation() {
         isSimulating = true;
+        fireStateChanged();
     }
 
     /**
@@ -117,6 +181,35 @@ public class GameController {
      */
     public void stopSimulation() {
         isSimulating = false;
+        fireStateChanged();
+    }
+
+    /**
+     * Adds a listener that is notified whenever the loaded level, the simulation state or the
+     * completion message change.
+     *
+     * @param listener The listener to add
+     */
+    public void addStateListener(Runnable listener) {
+        stateListeners.add(listener);
+    }
+
+    /**
+     * Removes a state listener.
+     *
+     * @param listener The listener to remove
+     */
+    public void removeStateListener(Runnable listener) {
+        stateListeners.remove(listener);
+    }
+
+    /**
+     * Notifies all state listeners that the game state changed.
+     */
+    private void fireStateChanged() {
+        for (int i = 0; i < stateListeners.size(); i++) {
+            stateListeners.get(i).run();
+        }
     }
 
     /**
@@ -128,10 +221,12 @@ public class GameController {
         if (isSimulating && currentLevel != null) {
             physicsWorld.update(deltaTime);
 
-            // Check win conditions
-            if (currentLevel.checkWinConditions(physicsWorld.getGameObjects())) {
+            // Check win conditions, which are kept up to date by the win area sensors.
+            // Objects can only enter a win area if something moved in this update.
+            if (!physicsWorld.getMovedObjects().isEmpty() && currentLevel.areWinConditionsSatisfied()) {
                 // Level completed
                 isSimulating = false;
+                completedReplay = replay.finish(physicsWorld);
                 levelCompleted = true;
                 completionMessage = "Level " + getCurrentLevelNumber() + " completed! Moving to next level...";
                 try {
@@ -139,6 +234,7 @@ public class GameController {
                 } catch (IOException e) {
                     completionMessage = "Congratulations! All levels completed.";
                 }
+                fireStateChanged();
             }
         }
     }
@@ -168,12 +264,13 @@ public class GameController {
         // Create and add the object
         GameObject gameObject = createGameObject(objectType, position);
         if (gameObject != null) {
+            replay.recordPlace(physicsWorld.getStepCount(), objectType, position);
             physicsWorld.addGameObject(gameObject);
             return true;
         }
         
         // If we get here, something went wrong, so add the item back to the inventory
-        currentLevel.addInventoryItem(objectType, 1);
+        currentLevel.returnInventoryItem(objectType, 1);
         return false;
     }
     
@@ -188,21 +285,15 @@ public class GameController {
             return false;
         }
         
-        // Find the object at the position
-        GameObject objectToRemove = null;
-        for (GameObject gameObject : physicsWorld.getGameObjects()) {
-            if (isNear(gameObject.getPosition(), position, 10)) {
-                objectToRemove = gameObject;
-                break;
-            }
-        }
+        // Find the object whose shape contains the position
+        GameObject objectToRemove = physicsWorld.getGameObjectAt(position);
         
         if (objectToRemove != null) {
             // Add the item back to the inventory
-            String objectType = objectToRemove.getClass().getSimpleName();
-            currentLevel.addInventoryItem(objectType, 1);
+            currentLevel.returnInventoryItem(objectToRemove.getKind().getName(), 1);
             
             // Remove the object
+            replay.recordRemove(physicsWorld.getStepCount(), position);
             physicsWorld.removeGameObject(objectToRemove);
             return true;
         }
@@ -211,48 +302,33 @@ public class GameController {
     }
     
     /**
-     * Checks if two points are near each other.
+     * Creates a game object of the specified type at the specified position.
      *
-     * @param p1 The first point
-     * @param p2 The second point
-     * @param threshold The distance threshold
-     * @return True if the points are within the threshold distance, false otherwise
+     * @param objectType The type of object to create
+     * @param position The position to create the object at
+     * @return The created game object, or null if the object type is not supported
      */
-    private boolean isNear(Point2D p1, Point2D p2, double threshold) {
-        return p1.distance(p2) <= threshold;
+    static GameObject createGameObject(String objectType, Point2D position) {
+        ObjectKind kind = ObjectKind.forName(objectType);
+        return kind != null ? kind.create(position) : null;
     }
     
     /**
-     * Creates a game object of the specified type at the specified position.
+     * Gets a replay of the attempts at the current level, from loading it up to now.
      *
-     * @param objectType The type of object to create
-     * @param position The position to create the object at
-     * @return The created game object, or null if the object type is not supported
+     * @return The replay log, or null if no level is loaded
      */
-    private GameObject createGameObject(String objectType, Point2D position) {
-        // This is a simple implementation. In a real game, you would use a factory pattern.
-        switch (objectType) {
-            case "Ball":
-                return new mm.model.objects.impl.Ball(position, 10);
-            case "BouncyBall":
-                return mm.model.objects.impl.Ball.createBouncyBall(position, 10);
-            case "HeavyBall":
-                return mm.model.objects.impl.Ball.createHeavyBall(position, 15);
-            case "Box":
-                return new mm.model.objects.impl.Box(position, 30, 30);
-            case "LightBox":
-                return mm.model.objects.impl.Box.createLightBox(position, 30, 30);
-            case "HeavyBox":
-                return mm.model.objects.impl.Box.createHeavyBox(position, 30, 30);
-            case "Plank":
-                return new mm.model.objects.impl.Plank(position, 0, 50, 10);
-            case "Log":
-                return new mm.model.objects.impl.Log(position, 0, 100, 20);
-            case "Balloon":
-                return new mm.model.objects.impl.Balloon(position, 15);
-            default:
-                return null;
-        }
+    public ReplayLog getReplay() {
+        return replay != null ? replay.finish(physicsWorld) : null;
+    }
+    
+    /**
+     * Gets the replay of the attempt that completed the last level.
+     *
+     * @return The replay log, or null if no level was completed yet
+     */
+    public ReplayLog getCompletedReplay() {
+        return completedReplay;
     }
     
     /**
@@ -272,6 +348,27 @@ public class GameController {
     public PhysicsWorld getPhysicsWorld() {
         return physicsWorld;
     }
+
+    /**
+     * Sets the pool the physics worlds of the levels are split into regions on, see {@link PhysicsWorld#setRegionPool(ForkJoinPool)}.
+     * Levels are simulated in a single jBox2D world by default. The pool is used from the next level that is started.
+     * The headless simulator plays replays back in a single jBox2D world, so attempts recorded with regions
+     * do not end in exactly the recorded state there.
+     *
+     * @param regionPool The pool to step the regions on, or null to simulate levels in a single jBox2D world
+     */
+    public void setRegionPool(ForkJoinPool regionPool) {
+        this.regionPool = regionPool;
+    }
+
+    /**
+     * Gets the pool the physics worlds of the levels are split into regions on.
+     *
+     * @return The region pool, or null if levels are simulated in a single jBox2D world
+     */
+    public ForkJoinPool getRegionPool() {
+        return regionPool;
+    }
     
     /**
      * Checks if the game is currently simulating.
@@ -306,5 +403,6 @@ public class GameController {
     public void resetLevelCompletion() {
         levelCompleted = false;
         completionMessage = "";
+        fireStateChanged();
     }
 }
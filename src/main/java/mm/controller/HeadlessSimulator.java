@@ -0,0 +1,204 @@
+package mm.controller;
+
+import javafx.geometry.Point2D;
+import mm.model.level.Level;
+import mm.model.level.LevelLoader;
+import mm.model.objects.GameObject;
+import mm.model.physics.PhysicsWorld;
+import mm.model.physics.SimulationProfile;
+import mm.model.physics.WorldSnapshot;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Simulates a level without any graphical user interface.
+ * The simulation is stepped with the fixed physics time step as fast as possible,
+ * so it never renders and never needs the JavaFX toolkit to be started.
+ * This is used to validate player solutions, e.g. on a server.
+ */
+public class HeadlessSimulator {
+    private final Level level;
+    private final PhysicsWorld physicsWorld;
+    private final WorldSnapshot initialState;
+
+    /**
+     * Creates a new headless simulator for the given level.
+     * The static and dynamic objects of the level are added to a new physics world,
+     * which uses the simulation profile of the level.
+     *
+     * @param level The level to simulate
+     */
+    public HeadlessSimulator(Level level) {
+        this(level, level.getSimulationProfile() != null ? level.getSimulationProfile() : SimulationProfile.INTERACTIVE);
+    }
+
+    /**
+     * Creates a new headless simulator for the given level with a different simulation profile,
+     * e.g. to validate many solutions quickly.
+     *
+     * @param level The level to simulate
+     * @param profile The simulation profile
+     */
+    public HeadlessSimulator(Level level, SimulationProfile profile) {
+        this(level, profile, null);
+    }
+
+    /**
+     * Creates a new headless simulator whose physics world is split into regions that are stepped in parallel,
+     * e.g. to simulate a wide level made of machines that are far apart.
+     * The pool should not be one that runs the simulations themselves, such as the pool of a
+     * {@link SolutionVerifier}, since the regions of each simulation would then compete with the other simulations.
+     *
+     * @param level The level to simulate
+     * @param profile The simulation profile
+     * @param regionPool The pool to step the regions on, or null to simulate the level in a single jBox2D world
+     */
+    public HeadlessSimulator(Level level, SimulationProfile profile, ForkJoinPool regionPool) {
+        this.level = level;
+        this.physicsWorld = new PhysicsWorld(profile);
+        physicsWorld.setRegionPool(regionPool);
+
+        level.resetInventory();
+        List<GameObject> staticObjects = level.getStaticObjects();
+        List<GameObject> dynamicObjects = level.getDynamicObjects();
+        physicsWorld.ensureCapacity(staticObjects.size() + dynamicObjects.size());
+        physicsWorld.addGameObjects(staticObjects);
+        physicsWorld.addGameObjects(dynamicObjects);
+        level.attachWinSensors(physicsWorld);
+        initialState = physicsWorld.createSnapshot();
+    }
+    
+    /**
+     * Resets the level to its initial state, removing all placed objects.
+     * This restores the physics world in place in the same way as the game does.
+     */
+    public void reset() {
+        physicsWorld.restoreSnapshot(initialState);
+        level.resetInventory();
+    }
+
+    /**
+     * Places an object in the level, following the same rules as in the editor.
+     *
+     * @param objectType The type of object to place
+     * @param position The position to place the object
+     * @return True if the object was placed, false otherwise
+     */
+    public boolean placeObject(String objectType, Point2D position) {
+        if (level.isInRestrictionZone(position)) {
+            return false;
+        }
+        if (!level.removeInventoryItem(objectType, 1)) {
+            return false;
+        }
+
+        GameObject gameObject = GameController.createGameObject(objectType, position);
+        if (gameObject != null) {
+            physicsWorld.addGameObject(gameObject);
+            return true;
+        }
+
+        level.returnInventoryItem(objectType, 1);
+        return false;
+    }
+
+    /**
+     * Removes the object at a position and puts it back into the inventory, following the same rules as in the editor.
+     *
+     * @param position The position to remove the object from
+     * @return True if an object was removed, false otherwise
+     */
+    public boolean removeObject(Point2D position) {
+        GameObject gameObject = physicsWorld.getGameObjectAt(position);
+        if (gameObject == null) {
+            return false;
+        }
+        level.returnInventoryItem(gameObject.getKind().getName(), 1);
+        physicsWorld.removeGameObject(gameObject);
+        return true;
+    }
+
+    /**
+     * Plays back recorded attempts as fast as possible.
+     * The level is loaded again and every recorded action, including resets, is applied after the
+     * same number of fixed time steps as in the recording, so the simulation ends in exactly the recorded state.
+     *
+     * @param replay The replay log
+     * @return The simulator in the final state of the replay
+     * @throws IOException If the level of the replay cannot be loaded
+     */
+    public static HeadlessSimulator replay(ReplayLog replay) throws IOException {
+        HeadlessSimulator simulator = new HeadlessSimulator(LevelLoader.loadLevel(replay.getLevelFile()));
+        for (ReplayLog.Action action : replay.getActions()) {
+            simulator.advanceTo(action.getStep());
+            switch (action.getType()) {
+                case PLACE:
+                    simulator.placeObject(action.getObjectType(), action.getPosition());
+                    break;
+                case REMOVE:
+                    simulator.removeObject(action.getPosition());
+                    break;
+                default:
+                    simulator.reset();
+                    break;
+            }
+        }
+        simulator.advanceTo(replay.getSteps());
+        return simulator;
+    }
+
+    /**
+     * Steps the simulation until the given number of steps has been simulated, ignoring the win conditions.
+     *
+     * @param steps The number of steps
+     */
+    private void advanceTo(long steps) {
+        while (physicsWorld.getStepCount() < steps) {
+            physicsWorld.step();
+        }
+    }
+
+    /**
+     * Advances the simulation by one fixed time step.
+     *
+     * @return True if all win conditions are satisfied after the step, false otherwise
+     */
+    public boolean step() {
+        physicsWorld.step();
+        return level.areWinConditionsSatisfied();
+    }
+
+    /**
+     * Runs the simulation until all win conditions are satisfied or the step budget is used up.
+     *
+     * @param maxSteps The maximum number of fixed time steps to simulate
+     * @return The result of the simulation
+     */
+    public SimulationResult run(long maxSteps) {
+        boolean completed = false;
+        while (!completed && physicsWorld.getStepCount() < maxSteps) {
+            completed = step();
+        }
+        long steps = physicsWorld.getStepCount();
+        return new SimulationResult(completed, steps, steps * physicsWorld.getTimeStep());
+    }
+
+    /**
+     * Gets the simulated level.
+     *
+     * @return The level
+     */
+    public Level getLevel() {
+        return level;
+    }
+
+    /**
+     * Gets the physics world of the simulation.
+     *
+     * @return The physics world
+     */
+    public PhysicsWorld getPhysicsWorld() {
+        return physicsWorld;
+    }
+}
@@ -0,0 +1,48 @@
+package mm.controller;
+
+import javafx.geometry.Point2D;
+
+/**
+ * An object placed by the player from the inventory.
+ */
+public class Placement {
+    private final String objectType;
+    private final Point2D position;
+
+    /**
+     * Creates a new placement.
+     *
+     * @param objectType The type of object to place
+     * @param position The position to place the object
+     */
+    public Placement(String objectType, Point2D position) {
+        this.objectType = objectType;
+        this.position = position;
+    }
+
+    /**
+     * Gets the type of object to place.
+     *
+     * @return The object type
+     */
+    public String getObjectType() {
+        return objectType;
+    }
+
+    /**
+     * Gets the position to place the object.
+     *
+     * @return The position
+     */
+    public Point2D getPosition() {
+        return position;
+    }
+
+    @Override
+    public String toString() {
+        return "Placement{" +
+                "objectType='" + objectType + '\'' +
+                ", position=" + position +
+                '}';
+    }
+}
@@ -0,0 +1,346 @@
+package mm.controller;
+
+import javafx.geometry.Point2D;
+import mm.model.objects.GameObject;
+import mm.model.physics.PhysicsWorld;
+import org.jbox2d.common.Vec2;
+import org.jbox2d.dynamics.Body;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A recording of the attempts at a level since it was loaded, which can be played back to reproduce them.
+ *
+ * The physics world always advances in fixed time steps, so the attempts are fully described by
+ * the level, the objects placed and removed by the player, the resets and the number of steps
+ * after which each of these actions happened. Resets are part of the log because the world is
+ * restored in place, which leaves the physics engine in a slightly different internal order than
+ * a new world. The log also stores a hash of the final physics state, so a playback can check
+ * that it reached exactly the same state.
+ *
+ * Replay files are text files with one entry per line:
+ * <pre>
+ * mm-replay 1
+ * level level1.json
+ * place 0 Ball 400.0 300.0
+ * remove 240 400.0 300.0
+ * reset 600
+ * place 0 Ball 410.0 300.0
+ * end 320 6f2a0c1d93b4e5f7
+ * </pre>
+ */
+public final class ReplayLog {
+    private static final String HEADER = "mm-replay";
+    private static final int VERSION = 1;
+
+    private final String levelFile;
+    private final List<Action> actions;
+    private long steps;
+    private long stateHash;
+
+    /**
+     * Creates a new, empty replay log.
+     *
+     * @param levelFile The path to the level file of the attempt
+     */
+    public ReplayLog(String levelFile) {
+        this.levelFile = levelFile;
+        this.actions = new ArrayList<>();
+    }
+
+    /**
+     * Records that an object was placed.
+     *
+     * @param step The number of physics steps simulated before the object was placed
+     * @param objectType The type of the placed object
+     * @param position The position of the placed object
+     */
+    void recordPlace(long step, String objectType, Point2D position) {
+        actions.add(new Action(ActionType.PLACE, step, objectType, position.getX(), position.getY()));
+    }
+
+    /**
+     * Records that an object was removed.
+     *
+     * @param step The number of physics steps simulated before the object was removed
+     * @param position The position at which the object was removed
+     */
+    void recordRemove(long step, Point2D position) {
+        actions.add(new Action(ActionType.REMOVE, step, null, position.getX(), position.getY()));
+    }
+
+    /**
+     * Records that the level was reset.
+     *
+     * @param step The number of physics steps simulated before the reset
+     */
+    void recordReset(long step) {
+        actions.add(new Action(ActionType.RESET, step, null, 0, 0));
+    }
+
+    /**
+     * Creates a copy of the log that ends at the current state of a physics world.
+     *
+     * @param physicsWorld The physics world of the attempt
+     * @return The finished copy of the log
+     */
+    ReplayLog finish(PhysicsWorld physicsWorld) {
+        ReplayLog log = new ReplayLog(levelFile);
+        log.actions.addAll(actions);
+        log.steps = physicsWorld.getStepCount();
+        log.stateHash = hashState(physicsWorld);
+        return log;
+    }
+
+    /**
+     * Computes a hash of the exact positions, rotations and velocities of all bodies in a physics world.
+     * Two worlds only have the same hash if they agree bit for bit, up to hash collisions.
+     *
+     * @param physicsWorld The physics world
+     * @return The hash of the physics state
+     */
+    public static long hashState(PhysicsWorld physicsWorld) {
+        long hash = 17;
+        List<GameObject> gameObjects = physicsWorld.getGameObjects();
+        for (int i = 0; i < gameObjects.size(); i++) {
+            Body body = gameObjects.get(i).getPhysicsBody();
+            if (body == null) {
+                continue;
+            }
+            Vec2 position = body.getPosition();
+            Vec2 velocity = body.getLinearVelocity();
+            hash = 31 * hash + Float.floatToIntBits(position.x);
+            hash = 31 * hash + Float.floatToIntBits(position.y);
+            hash = 31 * hash + Float.floatToIntBits(body.getAngle());
+            hash = 31 * hash + Float.floatToIntBits(velocity.x);
+            hash = 31 * hash + Float.floatToIntBits(velocity.y);
+            hash = 31 * hash + Float.floatToIntBits(body.getAngularVelocity());
+        }
+        return hash;
+    }
+
+    /**
+     * Writes the log to a replay file.
+     *
+     * @param filePath The path to the replay file
+     * @throws IOException If the file cannot be written
+     */
+    public void write(String filePath) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(filePath), StandardCharsets.UTF_8)) {
+            writer.write(HEADER + " " + VERSION);
+            writer.newLine();
+            writer.write("level " + levelFile);
+            writer.newLine();
+            for (Action action : actions) {
+                writer.write(action.toLine());
+                writer.newLine();
+            }
+            writer.write("end " + steps + " " + Long.toHexString(stateHash));
+            writer.newLine();
+        }
+    }
+
+    /**
+     * Reads a log from a replay file.
+     *
+     * @param filePath The path to the replay file
+     * @return The replay log
+     * @throws IOException If the file cannot be read or is not a valid replay file
+     */
+    public static ReplayLog read(String filePath) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(filePath), StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null || !header.equals(HEADER + " " + VERSION)) {
+                throw new IOException("Not a replay file of version " + VERSION + ": " + filePath);
+            }
+            String level = reader.readLine();
+            if (level == null || !level.startsWith("level ")) {
+                throw new IOException("Missing level in replay file: " + filePath);
+            }
+            ReplayLog log = new ReplayLog(level.substring("level ".length()));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.trim().split(" ");
+                if (parts[0].equals("end") && parts.length == 3) {
+                    log.steps = Long.parseLong(parts[1]);
+                    log.stateHash = Long.parseUnsignedLong(parts[2], 16);
+                    return log;
+                }
+                log.actions.add(Action.fromLine(parts, line));
+            }
+            throw new IOException("Missing end in replay file: " + filePath);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid replay file: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Gets the path to the level file of the attempt.
+     *
+     * @return The path to the level file
+     */
+    public String getLevelFile() {
+        return levelFile;
+    }
+
+    /**
+     * Gets the recorded actions in the order in which they happened.
+     *
+     * @return An unmodifiable list of the actions
+     */
+    public List<Action> getActions() {
+        return Collections.unmodifiableList(actions);
+    }
+
+    /**
+     * Gets the number of physics steps simulated in the last attempt.
+     *
+     * @return The number of steps
+     */
+    public long getSteps() {
+        return steps;
+    }
+
+    /**
+     * Gets the hash of the physics state at the end of the last attempt.
+     *
+     * @return The state hash
+     */
+    public long getStateHash() {
+        return stateHash;
+    }
+
+    @Override
+    public String toString() {
+        return "ReplayLog{" +
+                "levelFile='" + levelFile + '\'' +
+                ", actions=" + actions.size() +
+                ", steps=" + steps +
+                ", stateHash=" + Long.toHexString(stateHash) +
+                '}';
+    }
+
+    /**
+     * The kinds of recorded actions.
+     */
+    public enum ActionType {
+        PLACE,
+        REMOVE,
+        RESET
+    }
+
+    /**
+     * An action of the player in a replay.
+     */
+    public static final class Action {
+        private final ActionType type;
+        private final long step;
+        private final String objectType;
+        private final double x;
+        private final double y;
+
+        /**
+         * Creates a new action.
+         *
+         * @param type The kind of action
+         * @param step The number of physics steps simulated before the action
+         * @param objectType The type of the placed object, or null for other actions
+         * @param x The x coordinate of the action
+         * @param y The y coordinate of the action
+         */
+        Action(ActionType type, long step, String objectType, double x, double y) {
+            this.type = type;
+            this.step = step;
+            this.objectType = objectType;
+            this.x = x;
+            this.y = y;
+        }
+
+        /**
+         * Parses an action from a line of a replay file.
+         *
+         * @param parts The words of the line
+         * @param line The whole line, for error messages
+         * @return The action
+         */
+        private static Action fromLine(String[] parts, String line) {
+            if (parts[0].equals("place") && parts.length == 5) {
+                return new Action(ActionType.PLACE, Long.parseLong(parts[1]), parts[2],
+                        Double.parseDouble(parts[3]), Double.parseDouble(parts[4]));
+            }
+            if (parts[0].equals("remove") && parts.length == 4) {
+                return new Action(ActionType.REMOVE, Long.parseLong(parts[1]), null,
+                        Double.parseDouble(parts[2]), Double.parseDouble(parts[3]));
+            }
+            if (parts[0].equals("reset") && parts.length == 2) {
+                return new Action(ActionType.RESET, Long.parseLong(parts[1]), null, 0, 0);
+            }
+            throw new IllegalArgumentException("Unknown replay entry: " + line);
+        }
+
+        /**
+         * Formats the action as a line of a replay file.
+         * Doubles are written with Double.toString, which reads back to exactly the same value.
+         *
+         * @return The line
+         */
+        private String toLine() {
+            switch (type) {
+                case PLACE:
+                    return "place " + step + " " + objectType + " " + x + " " + y;
+                case REMOVE:
+                    return "remove " + step + " " + x + " " + y;
+                default:
+                    return "reset " + step;
+            }
+        }
+
+        /**
+         * Gets the kind of action.
+         *
+         * @return The action type
+         */
+        public ActionType getType() {
+            return type;
+        }
+
+        /**
+         * Gets the number of physics steps simulated before the action.
+         *
+         * @return The step of the action
+         */
+        public long getStep() {
+            return step;
+        }
+
+        /**
+         * Gets the type of the placed object.
+         *
+         * @return The object type, or null for other actions
+         */
+        public String getObjectType() {
+            return objectType;
+        }
+
+        /**
+         * Gets the position of the action.
+         *
+         * @return The position
+         */
+        public Point2D getPosition() {
+            return new Point2D(x, y);
+        }
+
+        @Override
+        public String toString() {
+            return toLine();
+        }
+    }
+}
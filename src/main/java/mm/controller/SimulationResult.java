@@ -0,0 +1,84 @@
+package mm.controller;
+
+/**
+ * The outcome of a headless simulation run.
+ */
+public class SimulationResult {
+    private final boolean valid;
+    private final boolean completed;
+    private final long steps;
+    private final float simulatedTime;
+
+    /**
+     * Creates a new simulation result.
+     *
+     * @param completed Whether all win conditions were satisfied
+     * @param steps The number of fixed physics steps that were simulated
+     * @param simulatedTime The simulated time in seconds
+     */
+    public SimulationResult(boolean completed, long steps, float simulatedTime) {
+        this(true, completed, steps, simulatedTime);
+    }
+
+    /**
+     * Creates a new simulation result.
+     *
+     * @param valid Whether all placements of the solution were allowed
+     * @param completed Whether all win conditions were satisfied
+     * @param steps The number of fixed physics steps that were simulated
+     * @param simulatedTime The simulated time in seconds
+     */
+    public SimulationResult(boolean valid, boolean completed, long steps, float simulatedTime) {
+        this.valid = valid;
+        this.completed = completed;
+        this.steps = steps;
+        this.simulatedTime = simulatedTime;
+    }
+
+    /**
+     * Checks if all placements of the solution were allowed.
+     * Invalid solutions are not simulated.
+     *
+     * @return True if the solution was valid, false otherwise
+     */
+    public boolean isValid() {
+        return valid;
+    }
+
+    /**
+     * Checks if the level was completed.
+     *
+     * @return True if all win conditions were satisfied, false otherwise
+     */
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    /**
+     * Gets the number of fixed physics steps that were simulated.
+     *
+     * @return The number of steps
+     */
+    public long getSteps() {
+        return steps;
+    }
+
+    /**
+     * Gets the simulated time.
+     *
+     * @return The simulated time in seconds
+     */
+    public float getSimulatedTime() {
+        return simulatedTime;
+    }
+
+    @Override
+    public String toString() {
+        return "SimulationResult{" +
+                "valid=" + valid +
+                ", completed=" + completed +
+                ", steps=" + steps +
+                ", simulatedTime=" + simulatedTime +
+                '}';
+    }
+}
@@ -0,0 +1,168 @@
+package mm.controller;
+
+import mm.model.physics.PhysicsWorld;
+import mm.model.physics.RenderSnapshot;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the simulation of a game controller on a dedicated thread at a fixed rate.
+ *
+ * The thread updates the game controller with the real time elapsed since its last tick, so the
+ * physics keeps its rate independent of how fast the game is drawn. After every tick in which
+ * something changed, it publishes a {@link RenderSnapshot} of the moving objects. The drawing thread
+ * draws the latest snapshot, so it never reads the objects while the simulation moves them.
+ * Snapshots are buffers that the drawing thread gives back when it takes a newer one, so the
+ * simulation refills the same few snapshots instead of creating a new one every tick.
+ *
+ * All other code that changes the game, e.g. placing objects or moving the camera, must synchronize
+ * on the game controller, because the simulation thread holds its lock during each tick.
+ */
+public class SimulationThread {
+    private final GameController gameController;
+    private final long periodNanos;
+    private ScheduledExecutorService executor;
+    private final Object snapshotLock;
+    private RenderSnapshot publishedSnapshot;
+    private boolean snapshotTaken;
+    private RenderSnapshot backSnapshot;
+    private PhysicsWorld snapshotWorld;
+    private long snapshotChangeCount;
+    private long snapshotCameraChangeCount;
+    private long lastTickNanos;
+
+    /**
+     * Creates a new simulation thread that ticks once per physics time step.
+     *
+     * @param gameController The game controller to simulate
+     */
+    public SimulationThread(GameController gameController) {
+        this(gameController, (long) (gameController.getPhysicsWorld().getTimeStep() * 1_000_000_000L));
+    }
+
+    /**
+     * Creates a new simulation thread.
+     *
+     * @param gameController The game controller to simulate
+     * @param periodNanos The time between two ticks in nanoseconds
+     */
+    public SimulationThread(GameController gameController, long periodNanos) {
+        this.gameController = gameController;
+        this.periodNanos = periodNanos;
+        this.snapshotLock = new Object();
+        this.snapshotTaken = true;
+    }
+
+    /**
+     * Starts the simulation thread. It is a daemon thread, so it does not keep the application running.
+     */
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "simulation");
+            thread.setDaemon(true);
+            return thread;
+        });
+        lastTickNanos = System.nanoTime();
+        executor.scheduleAtFixedRate(this::tick, 0, periodNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stops the simulation thread and waits for the current tick to finish.
+     */
+    public synchronized void stop() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executor = null;
+    }
+
+    /**
+     * Advances the simulation by the time elapsed since the last tick and publishes a new snapshot if anything changed.
+     */
+    void tick() {
+        long now = System.nanoTime();
+        float deltaTime = (now - lastTickNanos) / 1_000_000_000f;
+        lastTickNanos = now;
+        try {
+            synchronized (gameController) {
+                gameController.update(deltaTime);
+                PhysicsWorld physicsWorld = gameController.getPhysicsWorld();
+                // The snapshot only holds what the camera shows, so it is also taken again when the camera moved
+                long cameraChangeCount = physicsWorld.getCamera().getChangeCount();
+                if (physicsWorld != snapshotWorld || physicsWorld.getChangeCount() != snapshotChangeCount
+                        || cameraChangeCount != snapshotCameraChangeCount) {
+                    snapshotWorld = physicsWorld;
+                    snapshotChangeCount = physicsWorld.getChangeCount();
+                    snapshotCameraChangeCount = cameraChangeCount;
+                    backSnapshot = physicsWorld.createRenderSnapshot(now, backSnapshot);
+                    publishSnapshot();
+                }
+            }
+        } catch (RuntimeException e) {
+            // An exception would silently cancel all further ticks, so at least report it
+            System.err.println("Simulation failed: " + e);
+            throw e;
+        }
+    }
+
+    /**
+     * Publishes the snapshot filled last. The snapshot published before is filled next, because
+     * it was either never taken or replaced by a snapshot the drawing thread gave back.
+     */
+    private void publishSnapshot() {
+        synchronized (snapshotLock) {
+            RenderSnapshot filled = backSnapshot;
+            backSnapshot = publishedSnapshot;
+            publishedSnapshot = filled;
+            snapshotTaken = false;
+        }
+    }
+
+    /**
+     * Takes the latest snapshot published by the simulation thread, if it has not been taken yet.
+     * The caller owns the returned snapshot until it gives it back through this method. The given
+     * snapshot is only taken back if a newer one is returned, and must no longer be read afterwards.
+     *
+     * @param released A snapshot the caller no longer needs, or null
+     * @return The latest snapshot, or null if no snapshot was published since the last call
+     */
+    public RenderSnapshot takeSnapshot(RenderSnapshot released) {
+        synchronized (snapshotLock) {
+            if (snapshotTaken) {
+                return null;
+            }
+            RenderSnapshot latest = publishedSnapshot;
+            publishedSnapshot = released;
+            snapshotTaken = true;
+            return latest;
+        }
+    }
+
+    /**
+     * Gets the time between two ticks.
+     *
+     * @return The period in nanoseconds
+     */
+    public long getPeriodNanos() {
+        return periodNanos;
+    }
+
+    /**
+     * Checks whether the simulation thread is running.
+     *
+     * @return True if the thread was started and not stopped
+     */
+    public synchronized boolean isRunning() {
+        return executor != null;
+    }
+}
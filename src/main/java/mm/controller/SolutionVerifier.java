@@ -0,0 +1,127 @@
+package mm.controller;
+
+import mm.model.level.LevelLoader;
+import mm.model.level.LevelTemplate;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Verifies many candidate solutions for a level concurrently.
+ * Every candidate is simulated headlessly in its own physics world,
+ * so the candidates can be distributed over all cores of a fork-join pool.
+ * The level file is read once before the candidates are forked, so the tasks never do any I/O.
+ */
+public class SolutionVerifier {
+    private final String levelPath;
+    private final long maxSteps;
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a new solution verifier using the common fork-join pool.
+     *
+     * @param levelPath The path to the level file
+     * @param maxSteps The maximum number of fixed time steps to simulate per candidate
+     */
+    public SolutionVerifier(String levelPath, long maxSteps) {
+        this(levelPath, maxSteps, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a new solution verifier.
+     *
+     * @param levelPath The path to the level file
+     * @param maxSteps The maximum number of fixed time steps to simulate per candidate
+     * @param pool The fork-join pool to run the simulations in
+     */
+    public SolutionVerifier(String levelPath, long maxSteps, ForkJoinPool pool) {
+        this.levelPath = levelPath;
+        this.maxSteps = maxSteps;
+        this.pool = pool;
+    }
+
+    /**
+     * Verifies the given candidate solutions.
+     *
+     * @param candidates The candidate solutions, each a list of placements
+     * @return The simulation results in the same order as the candidates
+     * @throws IOException If the level file cannot be read
+     */
+    public List<SimulationResult> verify(List<List<Placement>> candidates) throws IOException {
+        LevelTemplate template = LevelLoader.loadTemplate(levelPath);
+        SimulationResult[] results = new SimulationResult[candidates.size()];
+        pool.invoke(new VerifyTask(template, candidates, results, 0, candidates.size()));
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Verifies a single candidate solution in the calling thread.
+     *
+     * @param placements The placements of the candidate solution
+     * @return The simulation result
+     * @throws IOException If the level file cannot be read
+     */
+    public SimulationResult verifyCandidate(List<Placement> placements) throws IOException {
+        return verifyCandidate(LevelLoader.loadTemplate(levelPath), placements);
+    }
+
+    /**
+     * Verifies a single candidate solution in a new level created from a template.
+     *
+     * @param template The template of the level
+     * @param placements The placements of the candidate solution
+     * @return The simulation result
+     */
+    private SimulationResult verifyCandidate(LevelTemplate template, List<Placement> placements) {
+        HeadlessSimulator simulator = new HeadlessSimulator(template.createLevel());
+        for (Placement placement : placements) {
+            if (!simulator.placeObject(placement.getObjectType(), placement.getPosition())) {
+                return new SimulationResult(false, false, 0, 0);
+            }
+        }
+        return simulator.run(maxSteps);
+    }
+
+    /**
+     * Splits a range of candidates until each task verifies a single candidate.
+     */
+    private class VerifyTask extends RecursiveAction {
+        private final LevelTemplate template;
+        private final List<List<Placement>> candidates;
+        private final SimulationResult[] results;
+        private final int from;
+        private final int to;
+
+        /**
+         * Creates a new task for the candidates in the range [from, to).
+         *
+         * @param template The template of the level
+         * @param candidates All candidate solutions
+         * @param results The array to store the results in
+         * @param from The first candidate index (inclusive)
+         * @param to The last candidate index (exclusive)
+         */
+        VerifyTask(LevelTemplate template, List<List<Placement>> candidates, SimulationResult[] results, int from, int to) {
+            this.template = template;
+            this.candidates = candidates;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                if (from < to) {
+                    results[from] = verifyCandidate(template, candidates.get(from));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new VerifyTask(template, candidates, results, from, middle),
+                    new VerifyTask(template, candidates, results, middle, to));
+        }
+    }
+}
@@ -4,6 +4,7 @@ import javafx.animation.AnimationTimer;
 import javafx.application.Application;
 import javafx.geometry.Insets;
 import javafx.geometry.Point2D;
+import javafx.geometry.Rectangle2D;
 import javafx.scene.Scene;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
@@ -11,13 +12,19 @@ import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
 import javafx.stage.Stage;
 import mm.controller.GameController;
+import mm.controller.SimulationThread;
 import mm.model.objects.GameObject;
+import mm.model.physics.Camera;
+import mm.model.physics.PhysicsWorld;
+import mm.model.physics.RenderSnapshot;
 import java.io.IOException;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * The main GUI for the Crazy Machines game.
@@ -25,10 +32,23 @@ import java.util.Map;
 public class Gui extends Application {
     private static GameController gameController;
     
+    private Canvas staticCanvas;
+    private GraphicsContext staticGc;
     private Canvas gameCanvas;
     private GraphicsContext gc;
+    private Hud hud;
+    private SimulationThread simulationThread;
+    private RenderSnapshot currentSnapshot;
     private boolean isEditorMode = true;
     private String selectedObjectType = "Ball";
+    private boolean renderRequested = true;
+    private PhysicsWorld renderedWorld;
+    private long renderedStaticChangeCount;
+    private Camera camera;
+    private long renderedCameraChangeCount = -1;
+    private final List<GameObject> visibleObjects = new ArrayList<>();
+    private double dragX;
+    private double dragY;
     
     /**
      * Sets the game controller.
@@ -46,9 +66,17 @@ public class Gui extends Application {
         // Create the main layout
         BorderPane root = new BorderPane();
         
-        // Create the game canvas
+        // Create the game canvas as two layers: the static geometry below, which is only drawn
+        // when it changes, and a transparent layer above for everything that can move
+        staticCanvas = new Canvas(800, 600);
+        staticGc = staticCanvas.getGraphicsContext2D();
         gameCanvas = new Canvas(800, 600);
         gc = gameCanvas.getGraphicsContext2D();
+        hud = new Hud(gameController, 800, 600);
+        // The camera is passed on to the physics world of every level, so it converts mouse positions as well
+        camera = gameController.getPhysicsWorld().getCamera();
+        camera.setViewportSize(gameCanvas.getWidth(), gameCanvas.getHeight());
+        StackPane canvasLayers = new StackPane(staticCanvas, gameCanvas, hud.getCanvas());
         
         // Create the toolbar
         HBox toolbar = createToolbar();
@@ -58,7 +86,7 @@ public class Gui extends Application {
         
         // Add components to the layout
         root.setTop(toolbar);
-        root.setCenter(gameCanvas);
+        root.setCenter(canvasLayers);
         root.setRight(inventoryPanel);
         
         // Create the scene
@@ -76,10 +104,19 @@ public class Gui extends Application {
         // Set up mouse handlers
         setupMouseHandlers();
         
-        // Start the game loop
+        // Start the simulation on its own thread and the game loop on the JavaFX thread
+        simulationThread = new SimulationThread(gameController);
+        simulationThread.start();
         startGameLoop();
     }
     
+    @Override
+    public void stop() {
+        if (simulationThread != null) {
+            simulationThread.stop();
+        }
+    }
+    
     /**
      * Creates the toolbar with play/reset buttons.
      *
@@ -91,16 +128,22 @@ public class Gui extends Application {
         
         Button playButton = new Button("Play");
         playButton.setOnAction(event -> {
-            if (isEditorMode) {
-                gameController.startSimulation();
-                isEditorMode = false;
-                playButton.setText("Reset");
-            } else {
-                gameController.stopSimulation();
-                gameController.resetLevel();
-                isEditorMode = true;
-                playButton.setText("Play");
+            // The simulation thread holds the lock of the game controller while it updates the game
+            synchronized (gameController) {
+                if (isEditorMode) {
+                    gameController.startSimulation();
+                    isEditorMode = false;
+                    playButton.setText("Reset");
+                    hud.setEditorMode(false);
+                } else {
+                    gameController.stopSimulation();
+                    gameController.resetLevel();
+                    isEditorMode = true;
+                    playButton.setText("Play");
+                    hud.setEditorMode(true);
+                }
             }
+            renderRequested = true;
         });
         
         Label titleLabel = new Label("Crazy Machines");
@@ -189,115 +232,172 @@ public class Gui extends Application {
     
     /**
      * Sets up mouse handlers for the game canvas.
+     * Dragging pans the camera and scrolling zooms it around the mouse cursor.
      */
     private void setupMouseHandlers() {
+        gameCanvas.setOnMousePressed(event -> {
+            dragX = event.getX();
+            dragY = event.getY();
+        });
+        // The simulation thread reads the camera to capture the visible objects, so it is moved under the lock
+        gameCanvas.setOnMouseDragged(event -> {
+            synchronized (gameController) {
+                camera.pan(event.getX() - dragX, event.getY() - dragY);
+            }
+            dragX = event.getX();
+            dragY = event.getY();
+        });
+        gameCanvas.setOnScroll(event -> {
+            if (event.getDeltaY() != 0) {
+                synchronized (gameController) {
+                    camera.zoomAt(event.getX(), event.getY(), event.getDeltaY() > 0 ? 1.1 : 1 / 1.1);
+                }
+            }
+        });
         gameCanvas.setOnMouseClicked(event -> {
-            if (isEditorMode && gameController != null) {
-                Point2D position = new Point2D(event.getX(), event.getY());
-                
-                if (event.isSecondaryButtonDown()) {
-                    // Right-click to remove objects
-                    gameController.removeObject(position);
-                } else {
-                    // Left-click to place objects
-                    gameController.placeObject(selectedObjectType, position);
+            // A click at the end of a drag only moved the camera
+            if (isEditorMode && gameController != null && event.isStillSincePress()) {
+                synchronized (gameController) {
+                    Point2D position = gameController.getPhysicsWorld().screenToWorld(new Point2D(event.getX(), event.getY()));
+                    if (event.isSecondaryButtonDown()) {
+                        // Right-click to remove objects
+                        gameController.removeObject(position);
+                    } else {
+                        // Left-click to place objects
+                        gameController.placeObject(selectedObjectType, position);
+                    }
                 }
+                renderRequested = true;
             }
         });
     }
     
     /**
      * Starts the game loop.
+     * The loop only draws the game. It runs at the refresh rate of the display and draws the
+     * moving objects from the latest snapshot published by the simulation thread.
      */
     private void startGameLoop() {
         new AnimationTimer() {
-            private long lastUpdate = 0;
-            
             @Override
             public void handle(long now) {
-                // Update at 60 FPS
-                if (now - lastUpdate >= 16_666_667) { // ~60 FPS (1/60 second in nanoseconds)
-                    // Update game state
-                    if (!isEditorMode && gameController != null) {
-                        gameController.update(0.016f); // 16ms in seconds
+                // The snapshot drawn so far is no longer needed once a newer one arrives and goes back to the simulation
+                RenderSnapshot latest = simulationThread.takeSnapshot(currentSnapshot);
+                if (latest != null) {
+                    currentSnapshot = latest;
+                    renderRequested = true;
+                }
+                
+                boolean cameraMoved = camera.getChangeCount() != renderedCameraChangeCount;
+                if (cameraMoved) {
+                    renderedCameraChangeCount = camera.getChangeCount();
+                    renderRequested = true;
+                }
+                
+                // The static layer and the HUD read the game itself, so they are drawn under its lock
+                synchronized (gameController) {
+                    PhysicsWorld physicsWorld = gameController.getPhysicsWorld();
+                    if (cameraMoved || physicsWorld != renderedWorld
+                            || physicsWorld.getStaticChangeCount() != renderedStaticChangeCount) {
+                        renderedWorld = physicsWorld;
+                        renderedStaticChangeCount = physicsWorld.getStaticChangeCount();
+                        renderStaticLayer();
                     }
-                    
-                    // Render the game
+                    hud.render();
+                }
+                
+                // Render the moving objects, unless nothing has changed since the last frame
+                if (renderRequested) {
                     render();
-                    
-                    lastUpdate = now;
                 }
             }
         }.start();
     }
     
     /**
-     * Renders the game.
+     * Renders the moving objects from the latest simulation snapshot.
+     * The poses in the snapshot are already interpolated by the physics world between its last
+     * two steps, so they are drawn as they are. After a machine has settled no new snapshots
+     * arrive and nothing is drawn. The snapshot only contains the objects around the visible
+     * area of the camera, and those that are just outside of it are skipped.
      */
     private void render() {
+        renderRequested = false;
+        
+        // Clear the dynamic layer, letting the static layer show through. The HUD is drawn on its own layer.
+        gc.clearRect(0, 0, gameCanvas.getWidth(), gameCanvas.getHeight());
+        RenderSnapshot current = currentSnapshot;
+        if (current == null) {
+            return;
+        }
+        
+        // Draw the game objects that can move and are visible
+        gc.save();
+        applyCamera(gc);
+        for (int i = 0; i < current.size(); i++) {
+            GameObject gameObject = current.getGameObject(i);
+            double x = current.getX(i);
+            double y = current.getY(i);
+            if (camera.isVisible(x, y, gameObject.getBoundingRadius())) {
+                gameObject.render(gc, x, y, current.getRotation(i));
+            }
+        }
+        gc.restore();
+    }
+    
+    /**
+     * Transforms a graphics context so that it draws in level coordinates through the camera.
+     *
+     * @param context The graphics context
+     */
+    private void applyCamera(GraphicsContext context) {
+        double zoom = camera.getZoom();
+        context.transform(zoom, 0, 0, zoom, -camera.getX() * zoom, -camera.getY() * zoom);
+    }
+    
+    /**
+     * Renders the static layer: the background, the static objects, the win areas and the restriction zones.
+     * Only the static objects the physics world finds in the visible area of the camera are drawn.
+     */
+    private void renderStaticLayer() {
         // Clear the canvas
-        gc.setFill(Color.WHITE);
-        gc.fillRect(0, 0, gameCanvas.getWidth(), gameCanvas.getHeight());
-
-        if (gameController != null) {
-            // Draw current level number at the top center
-            gc.setFill(Color.DARKBLUE);
-            gc.setFont(javafx.scene.text.Font.font("Arial", 28));
-            String levelText = "Level " + gameController.getCurrentLevelNumber();
-            // Estimate text width (JavaFX doesn't provide getFontMetrics directly)
-            javafx.scene.text.Font font = gc.getFont();
-            javafx.scene.text.Text tempText = new javafx.scene.text.Text(levelText);
-            tempText.setFont(font);
-            double textWidth = tempText.getLayoutBounds().getWidth();
-            gc.fillText(levelText, (gameCanvas.getWidth() - textWidth) / 2, 40);
+        staticGc.setFill(Color.WHITE);
+        staticGc.fillRect(0, 0, staticCanvas.getWidth(), staticCanvas.getHeight());
+        staticGc.save();
+        applyCamera(staticGc);
 
-            // Draw game objects
-            for (GameObject gameObject : gameController.getPhysicsWorld().getGameObjects()) {
-                gameObject.render(gc);
+        // Draw the visible static objects
+        Rectangle2D visibleArea = camera.getVisibleArea();
+        visibleObjects.clear();
+        gameController.getPhysicsWorld().queryGameObjects(visibleArea, visibleObjects);
+        for (int i = 0; i < visibleObjects.size(); i++) {
+            GameObject gameObject = visibleObjects.get(i);
+            if (gameObject.isStatic()) {
+                gameObject.render(staticGc);
             }
+        }
 
+        if (gameController.getCurrentLevel() != null) {
             // Draw win conditions
-            if (gameController.getCurrentLevel() != null) {
-                gc.setStroke(Color.GREEN);
-                gc.setLineWidth(2);
-                for (var winCondition : gameController.getCurrentLevel().getWinConditions()) {
-                    var area = winCondition.getArea();
-                    gc.strokeRect(area.getMinX(), area.getMinY(), area.getWidth(), area.getHeight());
+            staticGc.setStroke(Color.GREEN);
+            staticGc.setLineWidth(2);
+            for (var winCondition : gameController.getCurrentLevel().getWinConditions()) {
+                var area = winCondition.getArea();
+                if (area.intersects(visibleArea)) {
+                    staticGc.strokeRect(area.getMinX(), area.getMinY(), area.getWidth(), area.getHeight());
                 }
             }
 
             // Draw restriction zones
-            if (gameController.getCurrentLevel() != null) {
-                gc.setStroke(Color.RED);
-                gc.setLineWidth(2);
-                for (var zone : gameController.getCurrentLevel().getRestrictionZones()) {
-                    var area = zone.getArea();
-                    gc.strokeRect(area.getMinX(), area.getMinY(), area.getWidth(), area.getHeight());
-                }
-            }
-
-            // Draw inventory
-            if (gameController.getCurrentLevel() != null) {
-                gc.setFill(Color.BLACK);
-                gc.setLineWidth(1);
-                int y = 30;
-                for (Map.Entry<String, Integer> entry : gameController.getCurrentLevel().getInventory().entrySet()) {
-                    gc.fillText(entry.getKey() + ": " + entry.getValue(), 10, y);
-                    y += 20;
+            staticGc.setStroke(Color.RED);
+            for (var zone : gameController.getCurrentLevel().getRestrictionZones()) {
+                var area = zone.getArea();
+                if (area.intersects(visibleArea)) {
+                    staticGc.strokeRect(area.getMinX(), area.getMinY(), area.getWidth(), area.getHeight());
                 }
             }
-
-            // Draw mode indicator
-            gc.setFill(Color.BLACK);
-            gc.fillText(isEditorMode ? "Editor Mode" : "Simulation Mode", 10, 10);
-
-            // Draw win condition completion message
-            if (gameController.isLevelCompleted()) {
-                gc.setFill(Color.DARKGREEN);
-                gc.setFont(javafx.scene.text.Font.font("Arial", 24));
-                gc.fillText(gameController.getCompletionMessage(), 250, 80);
-            }
         }
+        staticGc.restore();
     }
     
     public static void main(String[] args) {
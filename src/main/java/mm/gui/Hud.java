@@ -0,0 +1,164 @@
+package mm.gui;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+import mm.controller.GameController;
+import mm.model.level.Level;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Draws the heads-up display: the level number, the inventory, the mode and the completion message.
+ *
+ * The HUD has its own canvas above the game. It listens to the game controller and the current
+ * level and is only drawn again after one of them reported a change, so its text is neither
+ * rebuilt nor measured in frames in which nothing happened.
+ *
+ * Changes can be reported by the simulation thread, so the HUD must only be used while holding
+ * the lock of the game controller, just like the game controller itself.
+ */
+public class Hud {
+    private static final Font LEVEL_FONT = Font.font("Arial", 28);
+    private static final Font COMPLETION_FONT = Font.font("Arial", 24);
+
+    private final GameController gameController;
+    private final Canvas canvas;
+    private final GraphicsContext gc;
+    private final Text measureText;
+    private final List<String> inventoryLines;
+    private final Runnable inventoryListener;
+    private Level observedLevel;
+    private String levelText;
+    private double levelTextX;
+    private boolean editorMode;
+    private boolean dirty;
+
+    /**
+     * Creates a new HUD for a game controller.
+     *
+     * @param gameController The game controller
+     * @param width The width of the HUD canvas
+     * @param height The height of the HUD canvas
+     */
+    public Hud(GameController gameController, double width, double height) {
+        this.gameController = gameController;
+        this.canvas = new Canvas(width, height);
+        this.gc = canvas.getGraphicsContext2D();
+        this.measureText = new Text();
+        this.measureText.setFont(LEVEL_FONT);
+        this.inventoryLines = new ArrayList<>();
+        this.inventoryListener = this::inventoryChanged;
+        this.editorMode = true;
+        this.dirty = true;
+        // The HUD only shows information, so clicks go to the game below
+        canvas.setMouseTransparent(true);
+        gameController.addStateListener(this::stateChanged);
+        stateChanged();
+    }
+
+    /**
+     * Handles a change of the game state, e.g. when a new level was loaded.
+     */
+    private void stateChanged() {
+        Level level = gameController.getCurrentLevel();
+        if (level != observedLevel) {
+            if (observedLevel != null) {
+                observedLevel.removeInventoryListener(inventoryListener);
+            }
+            if (level != null) {
+                level.addInventoryListener(inventoryListener);
+            }
+            observedLevel = level;
+            inventoryChanged();
+        }
+
+        String text = "Level " + gameController.getCurrentLevelNumber();
+        if (!text.equals(levelText)) {
+            levelText = text;
+            measureText.setText(text);
+            levelTextX = (canvas.getWidth() - measureText.getLayoutBounds().getWidth()) / 2;
+        }
+        dirty = true;
+    }
+
+    /**
+     * Rebuilds the inventory lines after the inventory changed.
+     */
+    private void inventoryChanged() {
+        inventoryLines.clear();
+        if (observedLevel != null) {
+            for (Map.Entry<String, Integer> entry : observedLevel.getInventoryView().entrySet()) {
+                inventoryLines.add(entry.getKey() + ": " + entry.getValue());
+            }
+        }
+        dirty = true;
+    }
+
+    /**
+     * Sets whether the game is in editor mode, which is shown by the mode indicator.
+     *
+     * @param editorMode True for editor mode, false for simulation mode
+     */
+    public void setEditorMode(boolean editorMode) {
+        if (this.editorMode != editorMode) {
+            this.editorMode = editorMode;
+            dirty = true;
+        }
+    }
+
+    /**
+     * Draws the HUD again if anything shown on it has changed since it was last drawn.
+     */
+    public void render() {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+
+        // Draw current level number at the top center
+        gc.setFill(Color.DARKBLUE);
+        gc.setFont(LEVEL_FONT);
+        gc.fillText(levelText, levelTextX, 40);
+
+        // Draw inventory
+        gc.setFill(Color.BLACK);
+        int y = 30;
+        for (int i = 0; i < inventoryLines.size(); i++) {
+            gc.fillText(inventoryLines.get(i), 10, y);
+            y += 20;
+        }
+
+        // Draw mode indicator
+        gc.fillText(editorMode ? "Editor Mode" : "Simulation Mode", 10, 10);
+
+        // Draw win condition completion message
+        if (gameController.isLevelCompleted()) {
+            gc.setFill(Color.DARKGREEN);
+            gc.setFont(COMPLETION_FONT);
+            gc.fillText(gameController.getCompletionMessage(), 250, 80);
+        }
+    }
+
+    /**
+     * Checks whether the HUD has to be drawn again.
+     *
+     * @return True if anything shown on the HUD has changed
+     */
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * Gets the canvas the HUD is drawn on.
+     *
+     * @return The HUD canvas
+     */
+    public Canvas getCanvas() {
+        return canvas;
+    }
+}
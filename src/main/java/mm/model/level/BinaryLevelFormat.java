@@ -0,0 +1,420 @@
+package mm.model.level;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.paint.Color;
+import mm.model.objects.GameObject;
+import mm.model.objects.impl.Ball;
+import mm.model.objects.impl.Balloon;
+import mm.model.objects.impl.Box;
+import mm.model.objects.impl.Log;
+import mm.model.objects.impl.Plank;
+import mm.model.physics.SimulationProfile;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compact, versioned binary format for level files.
+ *
+ * Binary level files are loaded through a memory-mapped file channel and decoded directly
+ * into a {@link LevelTemplate}, without parsing any text. All numbers are stored big-endian.
+ *
+ * Layout of version 2:
+ * <pre>
+ * int magic ("MMLV"), int version
+ * string name, string description, string quality
+ * int staticCount, object[staticCount]
+ * int dynamicCount, object[dynamicCount]
+ * int winConditionCount, (string objectType, area)[winConditionCount]
+ * int restrictionZoneCount, area[restrictionZoneCount]
+ * int inventoryCount, (string itemType, int count)[inventoryCount]
+ *
+ * string = int byteLength, UTF-8 bytes
+ * area   = double x, double y, double width, double height
+ * object = byte kind, double x, double y, float rotation, kind specific floats, [int rgba color]
+ * </pre>
+ * The quality is the name of the simulation profile of the level, or empty for the default profile.
+ * Version 1 is the same without the quality and can still be read.
+ */
+public final class BinaryLevelFormat {
+    /**
+     * The file extension of binary level files.
+     */
+    public static final String FILE_EXTENSION = ".mmlb";
+    /**
+     * The current version of the format.
+     */
+    public static final int VERSION = 2;
+
+    private static final int MAGIC = 0x4D4D4C56; // "MMLV"
+
+    private static final byte KIND_PLANK = 1;
+    private static final byte KIND_LOG = 2;
+    private static final byte KIND_BALL = 3;
+    private static final byte KIND_BOX = 4;
+    private static final byte KIND_BALLOON = 5;
+
+    /**
+     * This class only has static methods.
+     */
+    private BinaryLevelFormat() {
+    }
+
+    /**
+     * Checks if a file is a binary level file, judging by its extension.
+     *
+     * @param filePath The path to the file
+     * @return True if the file has the binary level file extension, false otherwise
+     */
+    public static boolean isBinaryLevelFile(String filePath) {
+        return filePath.endsWith(FILE_EXTENSION);
+    }
+
+    /**
+     * Writes a level to a binary level file.
+     * The initial state of the level is written, i.e. its objects and its original inventory.
+     *
+     * @param level The level to write
+     * @param filePath The path to the file
+     * @throws IOException If the file cannot be written
+     */
+    public static void write(Level level, String filePath) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(Paths.get(filePath))))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            writeString(out, level.getName());
+            writeString(out, level.getDescription());
+            writeString(out, level.getSimulationProfile() != null ? level.getSimulationProfile().getName() : "");
+
+            List<GameObject> staticObjects = level.getStaticObjects();
+            out.writeInt(staticObjects.size());
+            for (GameObject gameObject : staticObjects) {
+                writeObject(out, gameObject);
+            }
+            List<GameObject> dynamicObjects = level.getDynamicObjects();
+            out.writeInt(dynamicObjects.size());
+            for (GameObject gameObject : dynamicObjects) {
+                writeObject(out, gameObject);
+            }
+
+            List<WinCondition> winConditions = level.getWinConditions();
+            out.writeInt(winConditions.size());
+            for (WinCondition winCondition : winConditions) {
+                writeString(out, winCondition.getObjectType());
+                writeArea(out, winCondition.getArea());
+            }
+
+            List<RestrictionZone> restrictionZones = level.getRestrictionZones();
+            out.writeInt(restrictionZones.size());
+            for (RestrictionZone zone : restrictionZones) {
+                writeArea(out, zone.getArea());
+            }
+
+            Map<String, Integer> inventory = level.getOriginalInventory();
+            out.writeInt(inventory.size());
+            for (Map.Entry<String, Integer> entry : inventory.entrySet()) {
+                writeString(out, entry.getKey());
+                out.writeInt(entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Reads a binary level file into a level template.
+     *
+     * @param filePath The path to the file
+     * @return The level template
+     * @throws IOException If the file cannot be read or is not a valid binary level file
+     */
+    public static LevelTemplate read(String filePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return read(buffer);
+        }
+    }
+
+    /**
+     * Decodes a binary level from a buffer.
+     *
+     * @param buffer The buffer, positioned at the start of the level
+     * @return The level template
+     * @throws IOException If the buffer does not contain a valid binary level
+     */
+    static LevelTemplate read(ByteBuffer buffer) throws IOException {
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a binary level file");
+            }
+            int version = buffer.getInt();
+            if (version != 1 && version != VERSION) {
+                throw new IOException("Unsupported binary level version: " + version);
+            }
+            String name = readString(buffer);
+            String description = readString(buffer);
+            String quality = version >= 2 ? readString(buffer) : "";
+
+            List<ObjectTemplate> staticObjects = readObjects(buffer);
+            List<ObjectTemplate> dynamicObjects = readObjects(buffer);
+
+            int winConditionCount = buffer.getInt();
+            List<WinCondition> winConditions = new ArrayList<>(Math.min(winConditionCount, buffer.remaining()));
+            for (int i = 0; i < winConditionCount; i++) {
+                winConditions.add(new WinCondition(readString(buffer), readArea(buffer)));
+            }
+
+            int zoneCount = buffer.getInt();
+            List<Rectangle2D> restrictionZones = new ArrayList<>(Math.min(zoneCount, buffer.remaining()));
+            for (int i = 0; i < zoneCount; i++) {
+                restrictionZones.add(readArea(buffer));
+            }
+
+            int inventoryCount = buffer.getInt();
+            Map<String, Integer> inventory = new LinkedHashMap<>();
+            for (int i = 0; i < inventoryCount; i++) {
+                inventory.put(readString(buffer), buffer.getInt());
+            }
+
+            return new LevelTemplate(name, description, staticObjects, dynamicObjects,
+                    winConditions, restrictionZones, inventory,
+                    quality.isEmpty() ? null : SimulationProfile.forName(quality));
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Corrupt binary level file", e);
+        }
+    }
+
+    /**
+     * Converts a JSON level file into a binary level file.
+     *
+     * @param jsonPath The path to the JSON level file
+     * @param binaryPath The path to the binary level file to write
+     * @throws IOException If a file cannot be read or written
+     */
+    public static void convert(String jsonPath, String binaryPath) throws IOException {
+        write(LevelLoader.streamLevel(jsonPath), binaryPath);
+    }
+
+    /**
+     * Gets the path of the binary level file that belongs to a JSON level file.
+     *
+     * @param jsonPath The path to the JSON level file
+     * @return The path with the binary level file extension
+     */
+    public static String toBinaryPath(String jsonPath) {
+        String base = jsonPath.endsWith(".json") ? jsonPath.substring(0, jsonPath.length() - 5) : jsonPath;
+        return base + FILE_EXTENSION;
+    }
+
+    /**
+     * Writes a game object record.
+     *
+     * @param out The output stream
+     * @param gameObject The game object
+     * @throws IOException If the object cannot be written
+     */
+    private static void writeObject(DataOutputStream out, GameObject gameObject) throws IOException {
+        if (gameObject instanceof Plank) {
+            Plank plank = (Plank) gameObject;
+            writeHeader(out, KIND_PLANK, gameObject);
+            out.writeFloat(plank.getWidth());
+            out.writeFloat(plank.getHeight());
+        } else if (gameObject instanceof Log) {
+            Log log = (Log) gameObject;
+            writeHeader(out, KIND_LOG, gameObject);
+            out.writeFloat(log.getLength());
+            out.writeFloat(log.getDiameter());
+        } else if (gameObject instanceof Ball) {
+            Ball ball = (Ball) gameObject;
+            writeHeader(out, KIND_BALL, gameObject);
+            out.writeFloat(ball.getRadius());
+            out.writeFloat(ball.getDensity());
+            out.writeFloat(ball.getFriction());
+            out.writeFloat(ball.getRestitution());
+            out.writeInt(toRgba(ball.getColor()));
+        } else if (gameObject instanceof Box) {
+            Box box = (Box) gameObject;
+            writeHeader(out, KIND_BOX, gameObject);
+            out.writeFloat(box.getWidth());
+            out.writeFloat(box.getHeight());
+            out.writeFloat(box.getDensity());
+            out.writeFloat(box.getFriction());
+            out.writeFloat(box.getRestitution());
+            out.writeInt(toRgba(box.getColor()));
+        } else if (gameObject instanceof Balloon) {
+            Balloon balloon = (Balloon) gameObject;
+            writeHeader(out, KIND_BALLOON, gameObject);
+            out.writeFloat(balloon.getRadius());
+            out.writeFloat(balloon.getBuoyancyForce());
+            out.writeInt(toRgba(balloon.getColor()));
+        } else {
+            throw new IOException("Unsupported object type: " + gameObject.getKind().getName());
+        }
+    }
+
+    /**
+     * Writes the part of a game object record that is common to all kinds.
+     *
+     * @param out The output stream
+     * @param kind The kind of the object
+     * @param gameObject The game object
+     * @throws IOException If the header cannot be written
+     */
+    private static void writeHeader(DataOutputStream out, byte kind, GameObject gameObject) throws IOException {
+        out.writeByte(kind);
+        out.writeDouble(gameObject.getX());
+        out.writeDouble(gameObject.getY());
+        out.writeFloat(gameObject.getRotation());
+    }
+
+    /**
+     * Reads a list of game object records.
+     *
+     * @param buffer The buffer
+     * @return The object templates
+     * @throws IOException If an object has an unknown kind
+     */
+    private static List<ObjectTemplate> readObjects(ByteBuffer buffer) throws IOException {
+        int count = buffer.getInt();
+        List<ObjectTemplate> objects = new ArrayList<>(Math.min(count, buffer.remaining()));
+        for (int i = 0; i < count; i++) {
+            byte kind = buffer.get();
+            double x = buffer.getDouble();
+            double y = buffer.getDouble();
+            float rotation = buffer.getFloat();
+            Map<String, Float> values = new HashMap<>();
+            switch (kind) {
+                case KIND_PLANK:
+                    values.put("width", buffer.getFloat());
+                    values.put("height", buffer.getFloat());
+                    objects.add(new ObjectTemplate("Plank", x, y, rotation, values, null));
+                    break;
+                case KIND_LOG:
+                    values.put("length", buffer.getFloat());
+                    values.put("diameter", buffer.getFloat());
+                    objects.add(new ObjectTemplate("Log", x, y, rotation, values, null));
+                    break;
+                case KIND_BALL:
+                    values.put("radius", buffer.getFloat());
+                    readMaterial(buffer, values);
+                    objects.add(new ObjectTemplate("Ball", x, y, rotation, values, fromRgba(buffer.getInt())));
+                    break;
+                case KIND_BOX:
+                    values.put("width", buffer.getFloat());
+                    values.put("height", buffer.getFloat());
+                    readMaterial(buffer, values);
+                    objects.add(new ObjectTemplate("Box", x, y, rotation, values, fromRgba(buffer.getInt())));
+                    break;
+                case KIND_BALLOON:
+                    values.put("radius", buffer.getFloat());
+                    values.put("buoyancyForce", buffer.getFloat());
+                    objects.add(new ObjectTemplate("Balloon", x, y, rotation, values, fromRgba(buffer.getInt())));
+                    break;
+                default:
+                    throw new IOException("Unknown object kind: " + kind);
+            }
+        }
+        return objects;
+    }
+
+    /**
+     * Reads the material properties of a dynamic object.
+     *
+     * @param buffer The buffer
+     * @param values The map to put the properties into
+     */
+    private static void readMaterial(ByteBuffer buffer, Map<String, Float> values) {
+        values.put("density", buffer.getFloat());
+        values.put("friction", buffer.getFloat());
+        values.put("restitution", buffer.getFloat());
+    }
+
+    /**
+     * Writes a length-prefixed UTF-8 string.
+     *
+     * @param out The output stream
+     * @param value The string
+     * @throws IOException If the string cannot be written
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a length-prefixed UTF-8 string.
+     *
+     * @param buffer The buffer
+     * @return The string
+     * @throws IOException If the length of the string is invalid
+     */
+    private static String readString(ByteBuffer buffer) throws IOException {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IOException("Invalid string length: " + length);
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes a rectangular area.
+     *
+     * @param out The output stream
+     * @param area The area
+     * @throws IOException If the area cannot be written
+     */
+    private static void writeArea(DataOutputStream out, Rectangle2D area) throws IOException {
+        out.writeDouble(area.getMinX());
+        out.writeDouble(area.getMinY());
+        out.writeDouble(area.getWidth());
+        out.writeDouble(area.getHeight());
+    }
+
+    /**
+     * Reads a rectangular area.
+     *
+     * @param buffer The buffer
+     * @return The area
+     */
+    private static Rectangle2D readArea(ByteBuffer buffer) {
+        return new Rectangle2D(buffer.getDouble(), buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+    }
+
+    /**
+     * Packs a color into an RGBA integer.
+     *
+     * @param color The color
+     * @return The color as RGBA with 8 bits per channel
+     */
+    private static int toRgba(Color color) {
+        return (int) Math.round(color.getRed() * 255) << 24
+                | (int) Math.round(color.getGreen() * 255) << 16
+                | (int) Math.round(color.getBlue() * 255) << 8
+                | (int) Math.round(color.getOpacity() * 255);
+    }
+
+    /**
+     * Unpacks a color from an RGBA integer.
+     *
+     * @param rgba The color as RGBA with 8 bits per channel
+     * @return The color
+     */
+    private static Color fromRgba(int rgba) {
+        return Color.rgb(rgba >>> 24, (rgba >>> 16) & 0xFF, (rgba >>> 8) & 0xFF, (rgba & 0xFF) / 255.0);
+    }
+}
@@ -2,7 +2,10 @@ package mm.model.level;
 
 import javafx.geometry.Point2D;
 import mm.model.objects.GameObject;
+import mm.model.physics.PhysicsWorld;
+import mm.model.physics.SimulationProfile;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -12,14 +15,21 @@ import java.util.Map;
  * A level contains game objects, win conditions, restriction zones, and an inventory.
  */
 public class Level {
+    private static final double ZONE_GRID_CELL_SIZE = 100;
+    
     private final String name;
     private final String description;
     private final List<GameObject> staticObjects;
     private final List<GameObject> dynamicObjects;
     private final List<WinCondition> winConditions;
     private final List<RestrictionZone> restrictionZones;
+    private final SpatialGrid<RestrictionZone> restrictionZoneGrid;
     private final Map<String, Integer> inventory;
     private final Map<String, Integer> originalInventory;
+    private final Map<String, Integer> inventoryView;
+    private final List<Runnable> inventoryListeners;
+    private WinAreaSensors winAreaSensors;
+    private SimulationProfile simulationProfile;
 
     /**
      * Creates a new level.
@@ -34,8 +44,11 @@ public class Level {
         this.dynamicObjects = new ArrayList<>();
         this.winConditions = new ArrayList<>();
         this.restrictionZones = new ArrayList<>();
+        this.restrictionZoneGrid = new SpatialGrid<>(ZONE_GRID_CELL_SIZE);
         this.inventory = new HashMap<>();
         this.originalInventory = new HashMap<>();
+        this.inventoryView = Collections.unmodifiableMap(inventory);
+        this.inventoryListeners = new ArrayList<>();
     }
     
     /**
@@ -72,6 +85,7 @@ public class Level {
      */
     public void addRestrictionZone(RestrictionZone restrictionZone) {
         restrictionZones.add(restrictionZone);
+        restrictionZoneGrid.add(restrictionZone, restrictionZone.getArea());
     }
     
     /**
@@ -83,6 +97,20 @@ public class Level {
     public void addInventoryItem(String itemType, int count) {
         inventory.put(itemType, inventory.getOrDefault(itemType, 0) + count);
         originalInventory.put(itemType, inventory.get(itemType));
+        fireInventoryChanged();
+    }
+
+    /**
+     * Puts items back into the inventory during play, e.g. when the player removes an object.
+     * Unlike {@link #addInventoryItem(String, int)}, this does not change the original inventory
+     * which the inventory returns to when the level is reset.
+     *
+     * @param itemType The type of item to put back
+     * @param count The number of items to put back
+     */
+    public void returnInventoryItem(String itemType, int count) {
+        inventory.put(itemType, inventory.getOrDefault(itemType, 0) + count);
+        fireInventoryChanged();
     }
 
     /**
@@ -91,6 +119,34 @@ public class Level {
     public void resetInventory() {
         inventory.clear();
         inventory.putAll(originalInventory);
+        fireInventoryChanged();
+    }
+    
+    /**
+     * Adds a listener that is notified whenever the inventory changes.
+     *
+     * @param listener The listener to add
+     */
+    public void addInventoryListener(Runnable listener) {
+        inventoryListeners.add(listener);
+    }
+    
+    /**
+     * Removes an inventory listener.
+     *
+     * @param listener The listener to remove
+     */
+    public void removeInventoryListener(Runnable listener) {
+        inventoryListeners.remove(listener);
+    }
+    
+    /**
+     * Notifies all inventory listeners that the inventory changed.
+     */
+    private void fireInventoryChanged() {
+        for (int i = 0; i < inventoryListeners.size(); i++) {
+            inventoryListeners.get(i).run();
+        }
     }
     
     /**
@@ -104,6 +160,7 @@ public class Level {
         int currentCount = inventory.getOrDefault(itemType, 0);
         if (currentCount >= count) {
             inventory.put(itemType, currentCount - count);
+            fireInventoryChanged();
             return true;
         }
         return false;
@@ -111,12 +168,18 @@ public class Level {
     
     /**
      * Checks if a point is inside any restriction zone.
+     * Only the zones in the grid cell of the point are checked.
      *
      * @param point The point to check
      * @return True if the point is inside a restriction zone, false otherwise
      */
     public boolean isInRestrictionZone(Point2D point) {
-        for (RestrictionZone zone : restrictionZones) {
+        for (RestrictionZone zone : restrictionZoneGrid.getCandidates(point.getX(), point.getY())) {
+            if (zone.contains(point)) {
+                return true;
+            }
+        }
+        for (RestrictionZone zone : restrictionZoneGrid.getOversizedItems()) {
             if (zone.contains(point)) {
                 return true;
             }
@@ -125,7 +188,47 @@ public class Level {
     }
     
     /**
-     * Checks if all win conditions are satisfied.
+     * Turns the win areas of this level into sensors in a physics world.
+     * Afterwards the win conditions are updated by the physics world whenever objects enter or leave them.
+     *
+     * @param physicsWorld The physics world the level is simulated in
+     */
+    public void attachWinSensors(PhysicsWorld physicsWorld) {
+        detachWinSensors();
+        winAreaSensors = new WinAreaSensors(winConditions);
+        winAreaSensors.attach(physicsWorld);
+    }
+    
+    /**
+     * Removes the win area sensors of this level from the physics world they were attached to.
+     */
+    public void detachWinSensors() {
+        if (winAreaSensors != null) {
+            winAreaSensors.detach();
+            winAreaSensors = null;
+        }
+    }
+    
+    /**
+     * Checks if all win conditions are currently satisfied.
+     * This only looks at the objects that overlap the win area sensors, and only if anything moved.
+     *
+     * @return True if all win conditions are satisfied, false otherwise
+     */
+    public boolean areWinConditionsSatisfied() {
+        if (winAreaSensors != null) {
+            winAreaSensors.update();
+        }
+        for (int i = 0; i < winConditions.size(); i++) {
+            if (!winConditions.get(i).isSatisfied()) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Checks if all win conditions are satisfied by testing the positions of all given objects.
      *
      * @param gameObjects The list of game objects to check against
      * @return True if all win conditions are satisfied, false otherwise
@@ -140,6 +243,23 @@ public class Level {
         return allSatisfied;
     }
     
+    /**
+     * Checks if all win conditions are satisfied by the objects in a physics world.
+     * Each condition only looks at the objects of its kind.
+     *
+     * @param physicsWorld The physics world to check against
+     * @return True if all win conditions are satisfied, false otherwise
+     */
+    public boolean checkWinConditions(PhysicsWorld physicsWorld) {
+        boolean allSatisfied = true;
+        for (WinCondition condition : winConditions) {
+            if (!condition.checkSatisfied(physicsWorld)) {
+                allSatisfied = false;
+            }
+        }
+        return allSatisfied;
+    }
+    
     /**
      * Gets all game objects in the level.
      *
@@ -207,6 +327,24 @@ public class Level {
         return new ArrayList<>(restrictionZones);
     }
     
+    /**
+     * Sets the simulation profile the level should be simulated with.
+     *
+     * @param simulationProfile The simulation profile, or null to use the default profile
+     */
+    public void setSimulationProfile(SimulationProfile simulationProfile) {
+        this.simulationProfile = simulationProfile;
+    }
+    
+    /**
+     * Gets the simulation profile the level should be simulated with.
+     *
+     * @return The simulation profile, or null if the level uses the default profile
+     */
+    public SimulationProfile getSimulationProfile() {
+        return simulationProfile;
+    }
+    
     /**
      * Gets the inventory for the level.
      *
@@ -215,4 +353,24 @@ public class Level {
     public Map<String, Integer> getInventory() {
         return new HashMap<>(inventory);
     }
+    
+    /**
+     * Gets a read-only view of the inventory for the level.
+     * Unlike {@link #getInventory()}, this does not copy the inventory, so it is meant for code that
+     * runs often, e.g. drawing the inventory. The view reflects later changes.
+     *
+     * @return A read-only view of the inventory as a map of item types to counts
+     */
+    public Map<String, Integer> getInventoryView() {
+        return inventoryView;
+    }
+    
+    /**
+     * Gets the original inventory for the level, i.e. the inventory after a reset.
+     *
+     * @return The original inventory as a map of item types to counts
+     */
+    public Map<String, Integer> getOriginalInventory() {
+        return new HashMap<>(originalInventory);
+    }
 }
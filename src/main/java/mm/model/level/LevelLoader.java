@@ -1,73 +1,172 @@
-// TODO
-
-
 package mm.model.level;
 
-import javafx.geometry.Point2D;
-import javafx.geometry.Rectangle2D;
-import mm.model.objects.impl.Ball;
-import mm.model.objects.impl.Balloon;
-import mm.model.objects.impl.Plank;
+import mm.model.objects.GameObject;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Loads levels from JSON files.
+ * Loads levels from JSON files and binary level files.
  * 
- * Note: This is a simplified implementation for the initial release.
- * In a real game, you would use a proper JSON library.
+ * Files with the {@link BinaryLevelFormat#FILE_EXTENSION} extension are read as binary level files,
+ * all other files as JSON level files. Each file is parsed only once into an immutable {@link LevelTemplate}, which is cached per path.
+ * Loading the same level again, e.g. when the player resets it, creates a new level from the cached template.
  */
 public class LevelLoader {
+    private static final Map<Path, LevelTemplate> TEMPLATES = new ConcurrentHashMap<>();
     
     /**
      * Loads a level from a file.
-     * For the initial release, this creates a simple test level.
      *
-     * @param filePath The path to the level file (not used in this implementation)
+     * @param filePath The path to the level file
      * @return The loaded level
-     * @throws IOException If the file cannot be read
+     * @throws IOException If the file cannot be read or is not a valid level file
      */
     public static Level loadLevel(String filePath) throws IOException {
-        // For the initial release, we'll just create a simple test level
-        Level level = new Level("Test Level", "A simple test level for the initial release");
+        return loadTemplate(filePath).createLevel();
+    }
+    
+    /**
+     * Loads a level from a file without parsing the file as a whole.
+     * The objects are read one at a time with a {@link LevelReader} and the file is not cached.
+     * This should be used for very large, generated levels.
+     *
+     * @param filePath The path to the level file
+     * @return The loaded level
+     * @throws IOException If the file cannot be read or is not a valid level file
+     */
+    public static Level streamLevel(String filePath) throws IOException {
+        try (LevelReader reader = new LevelReader(Files.newBufferedReader(Paths.get(filePath), StandardCharsets.UTF_8))) {
+            return reader.readLevel();
+        }
+    }
+    
+    /**
+     * Loads the compiled template of a level file.
+     * The file is only read the first time, afterwards the cached template is returned.
+     *
+     * @param filePath The path to the level file
+     * @return The level template
+     * @throws IOException If the file cannot be read or is not a valid level file
+     */
+    public static LevelTemplate loadTemplate(String filePath) throws IOException {
+        Path path = toKey(filePath);
+        LevelTemplate template = TEMPLATES.get(path);
+        if (template == null) {
+            template = parseTemplate(path);
+            LevelTemplate existing = TEMPLATES.putIfAbsent(path, template);
+            if (existing != null) {
+                template = existing;
+            }
+        }
+        return template;
+    }
+    
+    /**
+     * Reads and compiles a level file.
+     *
+     * @param path The path to the level file
+     * @return The level template
+     * @throws IOException If the file cannot be read or is not a valid level file
+     */
+    private static LevelTemplate parseTemplate(Path path) throws IOException {
+        if (BinaryLevelFormat.isBinaryLevelFile(path.toString())) {
+            return BinaryLevelFormat.read(path.toString());
+        }
+        String content = Files.readString(path, StandardCharsets.UTF_8);
+        try {
+            return LevelTemplate.fromJson(new JSONObject(content));
+        } catch (JSONException | IllegalArgumentException e) {
+            throw new IOException("Invalid level file " + path + ": " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Removes the cached template of a level file, so it is read again the next time it is loaded.
+     *
+     * @param filePath The path to the level file
+     */
+    public static void invalidate(String filePath) {
+        TEMPLATES.remove(toKey(filePath));
+    }
+    
+    /**
+     * Removes all cached templates.
+     */
+    public static void clearCache() {
+        TEMPLATES.clear();
+    }
+    
+    /**
+     * Saves a level to a file.
+     * The initial state of the level is saved, i.e. its objects and its original inventory.
+     * The level is saved in the binary format if the file has the binary level file extension.
+     *
+     * @param level The level to save
+     * @param filePath The path to the file
+     * @throws IOException If the file cannot be written
+     */
+    public static void saveLevel(Level level, String filePath) throws IOException {
+        if (BinaryLevelFormat.isBinaryLevelFile(filePath)) {
+            BinaryLevelFormat.write(level, filePath);
+            invalidate(filePath);
+            return;
+        }
         
-        // Add some static objects
-        level.addStaticObject(new Plank(new Point2D(200, 300), 0, 200, 20));
-        level.addStaticObject(new Plank(new Point2D(400, 200), 45, 150, 20));
+        JSONObject json = new JSONObject();
+        json.put("name", level.getName());
+        json.put("description", level.getDescription());
+        if (level.getSimulationProfile() != null) {
+            json.put("quality", level.getSimulationProfile().getName());
+        }
         
-        // Add some dynamic objects
-        level.addDynamicObject(new Ball(new Point2D(100, 100), 15));
-        level.addDynamicObject(Ball.createBouncyBall(new Point2D(150, 100), 10));
-        level.addDynamicObject(Ball.createHeavyBall(new Point2D(200, 100), 20));
+        JSONArray staticObjects = new JSONArray();
+        for (GameObject gameObject : level.getStaticObjects()) {
+            staticObjects.put(ObjectTemplate.toJson(gameObject));
+        }
+        json.put("staticObjects", staticObjects);
         
-        // Add a special object
-        level.addDynamicObject(new Balloon(new Point2D(300, 100), 20));
+        JSONArray dynamicObjects = new JSONArray();
+        for (GameObject gameObject : level.getDynamicObjects()) {
+            dynamicObjects.put(ObjectTemplate.toJson(gameObject));
+        }
+        json.put("dynamicObjects", dynamicObjects);
         
-        // Add a win condition
-        Rectangle2D winArea = new Rectangle2D(350, 350, 100, 100);
-        level.addWinCondition(new WinCondition("Ball", winArea));
+        JSONArray winConditions = new JSONArray();
+        for (WinCondition winCondition : level.getWinConditions()) {
+            JSONObject condition = new JSONObject();
+            condition.put("objectType", winCondition.getObjectType());
+            condition.put("area", LevelTemplate.areaToJson(winCondition.getArea()));
+            winConditions.put(condition);
+        }
+        json.put("winConditions", winConditions);
         
-        // Add a restriction zone
-        Rectangle2D restrictionArea = new Rectangle2D(0, 0, 100, 100);
-        level.addRestrictionZone(new RestrictionZone(restrictionArea));
+        JSONArray restrictionZones = new JSONArray();
+        for (RestrictionZone zone : level.getRestrictionZones()) {
+            restrictionZones.put(LevelTemplate.areaToJson(zone.getArea()));
+        }
+        json.put("restrictionZones", restrictionZones);
         
-        // Add some inventory items
-        level.addInventoryItem("Ball", 5);
-        level.addInventoryItem("Plank", 3);
-        level.addInventoryItem("Balloon", 2);
+        json.put("inventory", new JSONObject(level.getOriginalInventory()));
         
-        return level;
+        Files.writeString(Paths.get(filePath), json.toString(4), StandardCharsets.UTF_8);
+        invalidate(filePath);
     }
     
     /**
-     * Saves a level to a file.
-     * For the initial release, this does nothing.
+     * Gets the cache key of a level file.
      *
-     * @param level The level to save
-     * @param filePath The path to the file
-     * @throws IOException If the file cannot be written
+     * @param filePath The path to the level file
+     * @return The normalized absolute path
      */
-    public static void saveLevel(Level level, String filePath) throws IOException {
-        // For the initial release, we won't implement saving
-        // This would be implemented in a future release
+    private static Path toKey(String filePath) {
+        return Paths.get(filePath).toAbsolutePath().normalize();
     }
 }
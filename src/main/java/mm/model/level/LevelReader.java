@@ -0,0 +1,226 @@
+package mm.model.level;
+
+import mm.model.objects.GameObject;
+import mm.model.physics.SimulationProfile;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A pull-based reader for level files.
+ *
+ * Unlike {@link LevelLoader#loadLevel(String)}, the file is never parsed as a whole.
+ * The entries of the "staticObjects" and "dynamicObjects" arrays are parsed one at a time
+ * and turned into game objects right away, so the memory needed for parsing does not depend
+ * on the number of objects. This is meant for very large, generated levels.
+ */
+public class LevelReader implements Closeable {
+    private static final String STATIC_OBJECTS = "staticObjects";
+    private static final String DYNAMIC_OBJECTS = "dynamicObjects";
+
+    private final Reader reader;
+    private final JSONTokener tokener;
+    private String name;
+    private String description;
+    private SimulationProfile simulationProfile;
+    private final List<WinCondition> winConditions;
+    private final List<RestrictionZone> restrictionZones;
+    private final Map<String, Integer> inventory;
+    private String currentArray;
+    private boolean lastObjectStatic;
+    private boolean elementRead;
+    private boolean started;
+    private boolean finished;
+
+    /**
+     * Creates a new level reader.
+     *
+     * @param reader The reader to read the level file from
+     */
+    public LevelReader(Reader reader) {
+        this.reader = reader;
+        this.tokener = new JSONTokener(reader);
+        this.name = "";
+        this.description = "";
+        this.winConditions = new ArrayList<>();
+        this.restrictionZones = new ArrayList<>();
+        this.inventory = new LinkedHashMap<>();
+    }
+
+    /**
+     * Reads the next game object of the level.
+     * All other entries of the level file that are passed on the way are read as well.
+     *
+     * @return The next game object, or null if the end of the level file was reached
+     * @throws IOException If the level file cannot be read or is not a valid level file
+     */
+    public GameObject nextObject() throws IOException {
+        try {
+            while (true) {
+                if (currentArray != null) {
+                    char c = tokener.nextClean();
+                    if (elementRead) {
+                        if (c == ',') {
+                            c = tokener.nextClean();
+                        } else if (c != ']') {
+                            throw tokener.syntaxError("Expected ',' or ']' after an element of " + currentArray);
+                        }
+                    }
+                    if (c == ']') {
+                        currentArray = null;
+                        continue;
+                    }
+                    tokener.back();
+                    Object element = tokener.nextValue();
+                    if (!(element instanceof JSONObject)) {
+                        throw tokener.syntaxError("Expected an object in " + currentArray);
+                    }
+                    lastObjectStatic = STATIC_OBJECTS.equals(currentArray);
+                    elementRead = true;
+                    return ObjectTemplate.createObject((JSONObject) element);
+                }
+                if (finished) {
+                    return null;
+                }
+
+                char c = tokener.nextClean();
+                if (!started) {
+                    if (c != '{') {
+                        throw tokener.syntaxError("A level file must begin with '{'");
+                    }
+                    started = true;
+                    c = tokener.nextClean();
+                } else if (c == ',') {
+                    c = tokener.nextClean();
+                } else if (c != '}') {
+                    throw tokener.syntaxError("Expected ',' or '}' after an entry");
+                }
+                if (c == '}') {
+                    finished = true;
+                    return null;
+                }
+                tokener.back();
+
+                String key = tokener.nextValue().toString();
+                if (tokener.nextClean() != ':') {
+                    throw tokener.syntaxError("Expected ':' after " + key);
+                }
+                if (STATIC_OBJECTS.equals(key) || DYNAMIC_OBJECTS.equals(key)) {
+                    if (tokener.nextClean() != '[') {
+                        throw tokener.syntaxError("Expected '[' after " + key);
+                    }
+                    currentArray = key;
+                    elementRead = false;
+                } else {
+                    readEntry(key, tokener.nextValue());
+                }
+            }
+        } catch (JSONException | IllegalArgumentException | ClassCastException e) {
+            throw new IOException("Invalid level file: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reads a top-level entry of the level file other than the object arrays.
+     *
+     * @param key The name of the entry
+     * @param value The parsed value of the entry
+     */
+    private void readEntry(String key, Object value) {
+        switch (key) {
+            case "name":
+                name = value.toString();
+                break;
+            case "description":
+                description = value.toString();
+                break;
+            case "quality":
+                simulationProfile = SimulationProfile.forName(value.toString());
+                break;
+            case "winConditions":
+                JSONArray conditions = (JSONArray) value;
+                for (int i = 0; i < conditions.length(); i++) {
+                    JSONObject condition = conditions.getJSONObject(i);
+                    winConditions.add(new WinCondition(condition.getString("objectType"),
+                            LevelTemplate.parseArea(condition.getJSONObject("area"))));
+                }
+                break;
+            case "restrictionZones":
+                JSONArray zones = (JSONArray) value;
+                for (int i = 0; i < zones.length(); i++) {
+                    restrictionZones.add(new RestrictionZone(LevelTemplate.parseArea(zones.getJSONObject(i))));
+                }
+                break;
+            case "inventory":
+                JSONObject items = (JSONObject) value;
+                for (String itemType : items.keySet()) {
+                    inventory.put(itemType, items.getInt(itemType));
+                }
+                break;
+            default:
+                // Unknown entries are ignored
+                break;
+        }
+    }
+
+    /**
+     * Checks whether the object returned last by {@link #nextObject()} is a static object of the level.
+     *
+     * @return True if it was read from the static objects, false if from the dynamic objects
+     */
+    public boolean isLastObjectStatic() {
+        return lastObjectStatic;
+    }
+
+    /**
+     * Reads the remaining level file and creates the level.
+     *
+     * @return The level
+     * @throws IOException If the level file cannot be read or is not a valid level file
+     */
+    public Level readLevel() throws IOException {
+        List<GameObject> staticObjects = new ArrayList<>();
+        List<GameObject> dynamicObjects = new ArrayList<>();
+        GameObject gameObject;
+        while ((gameObject = nextObject()) != null) {
+            if (lastObjectStatic) {
+                staticObjects.add(gameObject);
+            } else {
+                dynamicObjects.add(gameObject);
+            }
+        }
+
+        // The name may come after the objects, so the level can only be created at the end
+        Level level = new Level(name, description);
+        for (GameObject staticObject : staticObjects) {
+            level.addStaticObject(staticObject);
+        }
+        for (GameObject dynamicObject : dynamicObjects) {
+            level.addDynamicObject(dynamicObject);
+        }
+        for (WinCondition winCondition : winConditions) {
+            level.addWinCondition(winCondition);
+        }
+        for (RestrictionZone restrictionZone : restrictionZones) {
+            level.addRestrictionZone(restrictionZone);
+        }
+        for (Map.Entry<String, Integer> entry : inventory.entrySet()) {
+            level.addInventoryItem(entry.getKey(), entry.getValue());
+        }
+        level.setSimulationProfile(simulationProfile);
+        return level;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
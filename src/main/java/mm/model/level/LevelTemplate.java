@@ -0,0 +1,244 @@
+package mm.model.level;
+
+import javafx.geometry.Rectangle2D;
+import mm.model.physics.SimulationProfile;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable, compiled description of a level file.
+ * A template is parsed once and can then create any number of independent levels,
+ * e.g. every time the player resets the level.
+ */
+public final class LevelTemplate {
+    private final String name;
+    private final String description;
+    private final List<ObjectTemplate> staticObjects;
+    private final List<ObjectTemplate> dynamicObjects;
+    private final List<WinCondition> winConditions;
+    private final List<Rectangle2D> restrictionZones;
+    private final Map<String, Integer> inventory;
+    private final SimulationProfile simulationProfile;
+
+    /**
+     * Creates a new level template.
+     *
+     * @param name The name of the level
+     * @param description The description of the level
+     * @param staticObjects The static objects of the level
+     * @param dynamicObjects The dynamic objects of the level
+     * @param winConditions The win conditions of the level, used as prototypes
+     * @param restrictionZones The areas of the restriction zones of the level
+     * @param inventory The initial inventory of the level
+     */
+    public LevelTemplate(String name, String description, List<ObjectTemplate> staticObjects,
+                         List<ObjectTemplate> dynamicObjects, List<WinCondition> winConditions,
+                         List<Rectangle2D> restrictionZones, Map<String, Integer> inventory) {
+        this(name, description, staticObjects, dynamicObjects, winConditions, restrictionZones, inventory, null);
+    }
+
+    /**
+     * Creates a new level template with a simulation profile.
+     *
+     * @param name The name of the level
+     * @param description The description of the level
+     * @param staticObjects The static objects of the level
+     * @param dynamicObjects The dynamic objects of the level
+     * @param winConditions The win conditions of the level, used as prototypes
+     * @param restrictionZones The areas of the restriction zones of the level
+     * @param inventory The initial inventory of the level
+     * @param simulationProfile The simulation profile of the level, or null to use the default profile
+     */
+    public LevelTemplate(String name, String description, List<ObjectTemplate> staticObjects,
+                         List<ObjectTemplate> dynamicObjects, List<WinCondition> winConditions,
+                         List<Rectangle2D> restrictionZones, Map<String, Integer> inventory,
+                         SimulationProfile simulationProfile) {
+        this.name = name;
+        this.description = description;
+        this.staticObjects = Collections.unmodifiableList(new ArrayList<>(staticObjects));
+        this.dynamicObjects = Collections.unmodifiableList(new ArrayList<>(dynamicObjects));
+        this.winConditions = Collections.unmodifiableList(new ArrayList<>(winConditions));
+        this.restrictionZones = Collections.unmodifiableList(new ArrayList<>(restrictionZones));
+        this.inventory = Collections.unmodifiableMap(new LinkedHashMap<>(inventory));
+        this.simulationProfile = simulationProfile;
+    }
+
+    /**
+     * Compiles a level template from the JSON representation of a level.
+     *
+     * @param json The JSON object of the level
+     * @return The level template
+     */
+    public static LevelTemplate fromJson(JSONObject json) {
+        List<ObjectTemplate> staticObjects = parseObjects(json.optJSONArray("staticObjects"));
+        List<ObjectTemplate> dynamicObjects = parseObjects(json.optJSONArray("dynamicObjects"));
+
+        List<WinCondition> winConditions = new ArrayList<>();
+        JSONArray winConditionArray = json.optJSONArray("winConditions");
+        if (winConditionArray != null) {
+            for (int i = 0; i < winConditionArray.length(); i++) {
+                JSONObject winCondition = winConditionArray.getJSONObject(i);
+                winConditions.add(new WinCondition(winCondition.getString("objectType"),
+                        parseArea(winCondition.getJSONObject("area"))));
+            }
+        }
+
+        List<Rectangle2D> restrictionZones = new ArrayList<>();
+        JSONArray zoneArray = json.optJSONArray("restrictionZones");
+        if (zoneArray != null) {
+            for (int i = 0; i < zoneArray.length(); i++) {
+                restrictionZones.add(parseArea(zoneArray.getJSONObject(i)));
+            }
+        }
+
+        Map<String, Integer> inventory = new LinkedHashMap<>();
+        JSONObject inventoryObject = json.optJSONObject("inventory");
+        if (inventoryObject != null) {
+            for (String itemType : inventoryObject.keySet()) {
+                inventory.put(itemType, inventoryObject.getInt(itemType));
+            }
+        }
+
+        String quality = json.optString("quality", null);
+        return new LevelTemplate(json.optString("name", ""), json.optString("description", ""),
+                staticObjects, dynamicObjects, winConditions, restrictionZones, inventory,
+                quality != null ? SimulationProfile.forName(quality) : null);
+    }
+
+    /**
+     * Parses an array of game objects.
+     *
+     * @param array The JSON array, or null if the level has no such objects
+     * @return The object templates
+     */
+    private static List<ObjectTemplate> parseObjects(JSONArray array) {
+        List<ObjectTemplate> objects = new ArrayList<>();
+        if (array != null) {
+            for (int i = 0; i < array.length(); i++) {
+                objects.add(ObjectTemplate.fromJson(array.getJSONObject(i)));
+            }
+        }
+        return objects;
+    }
+
+    /**
+     * Parses a rectangular area.
+     *
+     * @param json The JSON object with x, y, width and height
+     * @return The area
+     */
+    static Rectangle2D parseArea(JSONObject json) {
+        return new Rectangle2D(json.getDouble("x"), json.getDouble("y"),
+                json.getDouble("width"), json.getDouble("height"));
+    }
+
+    /**
+     * Creates the JSON representation of a rectangular area.
+     *
+     * @param area The area
+     * @return The JSON object with x, y, width and height
+     */
+    static JSONObject areaToJson(Rectangle2D area) {
+        JSONObject json = new JSONObject();
+        json.put("x", area.getMinX());
+        json.put("y", area.getMinY());
+        json.put("width", area.getWidth());
+        json.put("height", area.getHeight());
+        return json;
+    }
+
+    /**
+     * Creates a new level from this template.
+     * The level gets new game objects and win conditions, so it can be simulated independently.
+     *
+     * @return The new level
+     */
+    public Level createLevel() {
+        Level level = new Level(name, description);
+        for (ObjectTemplate object : staticObjects) {
+            level.addStaticObject(object.create());
+        }
+        for (ObjectTemplate object : dynamicObjects) {
+            level.addDynamicObject(object.create());
+        }
+        for (WinCondition winCondition : winConditions) {
+            level.addWinCondition(new WinCondition(winCondition.getObjectType(), winCondition.getArea()));
+        }
+        for (Rectangle2D area : restrictionZones) {
+            level.addRestrictionZone(new RestrictionZone(area));
+        }
+        for (Map.Entry<String, Integer> entry : inventory.entrySet()) {
+            level.addInventoryItem(entry.getKey(), entry.getValue());
+        }
+        level.setSimulationProfile(simulationProfile);
+        return level;
+    }
+
+    /**
+     * Gets the name of the level.
+     *
+     * @return The name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the description of the level.
+     *
+     * @return The description
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Gets the static objects of the level.
+     *
+     * @return An unmodifiable list of the static objects
+     */
+    public List<ObjectTemplate> getStaticObjects() {
+        return staticObjects;
+    }
+
+    /**
+     * Gets the dynamic objects of the level.
+     *
+     * @return An unmodifiable list of the dynamic objects
+     */
+    public List<ObjectTemplate> getDynamicObjects() {
+        return dynamicObjects;
+    }
+
+    /**
+     * Gets the restriction zone areas of the level.
+     *
+     * @return An unmodifiable list of the areas
+     */
+    public List<Rectangle2D> getRestrictionZones() {
+        return restrictionZones;
+    }
+
+    /**
+     * Gets the initial inventory of the level.
+     *
+     * @return An unmodifiable map of item types to counts
+     */
+    public Map<String, Integer> getInventory() {
+        return inventory;
+    }
+
+    /**
+     * Gets the simulation profile of the level.
+     *
+     * @return The simulation profile, or null if the level uses the default profile
+     */
+    public SimulationProfile getSimulationProfile() {
+        return simulationProfile;
+    }
+}
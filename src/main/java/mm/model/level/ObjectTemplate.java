@@ -0,0 +1,432 @@
+package mm.model.level;
+
+import javafx.geometry.Point2D;
+import javafx.scene.paint.Color;
+import mm.model.objects.GameObject;
+import mm.model.objects.ObjectKind;
+import mm.model.objects.impl.Ball;
+import mm.model.objects.impl.Balloon;
+import mm.model.objects.impl.Box;
+import mm.model.objects.impl.Log;
+import mm.model.objects.impl.Plank;
+import org.json.JSONObject;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * An immutable description of a game object in a level file.
+ * A template can create any number of independent game objects.
+ */
+public final class ObjectTemplate {
+    private static final Set<Class<?>> SUPPORTED_CLASSES = Set.of(
+            Ball.class, Box.class, Plank.class, Log.class, Balloon.class);
+
+    private final String type;
+    private final ObjectKind kind;
+    private final double x;
+    private final double y;
+    private final float rotation;
+    private final Map<String, Object> properties;
+    private final String className;
+    private final Map<String, Float> resolved;
+    private final Color color;
+
+    /**
+     * Creates a new object template.
+     *
+     * @param type The type of the object, e.g. "Ball"
+     * @param x The x coordinate of the object
+     * @param y The y coordinate of the object
+     * @param rotation The rotation of the object in degrees
+     * @param properties The type specific properties, e.g. "radius"
+     */
+    public ObjectTemplate(String type, double x, double y, float rotation, Map<String, Object> properties) {
+        this.kind = getSupportedKind(type);
+        this.type = type;
+        this.x = x;
+        this.y = y;
+        this.rotation = rotation;
+        this.properties = Collections.unmodifiableMap(new HashMap<>(properties));
+
+        // Resolve the defaults of the object type once, so creating objects needs no lookups
+        Map<String, Object> values = new HashMap<>();
+        putProperties(createDefault(kind, new Point2D(x, y), rotation, this::getFloat), values::put);
+        values.putAll(this.properties);
+        this.className = kind.getType().getSimpleName();
+        Map<String, Float> numbers = new HashMap<>();
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            if (entry.getValue() instanceof Number) {
+                numbers.put(entry.getKey(), ((Number) entry.getValue()).floatValue());
+            }
+        }
+        this.resolved = Collections.unmodifiableMap(numbers);
+        this.color = values.get("color") instanceof String ? Color.web((String) values.get("color")) : null;
+    }
+
+    /**
+     * Creates a new object template from fully resolved properties, e.g. from a binary level file.
+     * No defaults are applied, so all properties needed by the object class must be given.
+     *
+     * @param className The simple class name of the object, e.g. "Ball"
+     * @param x The x coordinate of the object
+     * @param y The y coordinate of the object
+     * @param rotation The rotation of the object in degrees
+     * @param resolved All numeric properties of the object
+     * @param color The color of the object, or null if it has none
+     */
+    ObjectTemplate(String className, double x, double y, float rotation, Map<String, Float> resolved, Color color) {
+        this.type = className;
+        this.kind = ObjectKind.forName(className);
+        this.x = x;
+        this.y = y;
+        this.rotation = rotation;
+        this.properties = Collections.unmodifiableMap(new HashMap<>(resolved));
+        this.className = className;
+        this.resolved = Collections.unmodifiableMap(new HashMap<>(resolved));
+        this.color = color;
+    }
+
+    /**
+     * Creates an object template from its JSON representation.
+     *
+     * @param json The JSON object
+     * @return The object template
+     */
+    public static ObjectTemplate fromJson(JSONObject json) {
+        Map<String, Object> properties = json.toMap();
+        properties.remove("type");
+        properties.remove("x");
+        properties.remove("y");
+        properties.remove("rotation");
+        return new ObjectTemplate(json.getString("type"), json.getDouble("x"), json.getDouble("y"),
+                (float) json.optDouble("rotation", 0), properties);
+    }
+
+    /**
+     * Creates a game object directly from its JSON representation, without creating a template.
+     * This gives the same object as {@code fromJson(json).create()}, but only reads the fields
+     * of the JSON object once, which matters when streaming levels with many objects.
+     *
+     * @param json The JSON object
+     * @return The new game object
+     */
+    public static GameObject createObject(JSONObject json) {
+        String type = json.getString("type");
+        ObjectKind kind = getSupportedKind(type);
+        Point2D position = new Point2D(json.getDouble("x"), json.getDouble("y"));
+        float rotation = (float) json.optDouble("rotation", 0);
+        GameObject gameObject = createDefault(kind, position, rotation, json::optFloat);
+
+        // The defaults cover static objects, but dynamic ones may have their own rotation, size or material
+        if (gameObject instanceof Ball) {
+            Ball ball = (Ball) gameObject;
+            float radius = json.optFloat("radius", ball.getRadius());
+            if (rotation != 0 || radius != ball.getRadius() || hasMaterial(json)) {
+                gameObject = new Ball(position, rotation, radius,
+                        json.optFloat("density", ball.getDensity()), json.optFloat("friction", ball.getFriction()),
+                        json.optFloat("restitution", ball.getRestitution()), getColor(json, ball.getColor()));
+            }
+        } else if (gameObject instanceof Box) {
+            Box box = (Box) gameObject;
+            float width = json.optFloat("width", box.getWidth());
+            float height = json.optFloat("height", box.getHeight());
+            if (rotation != 0 || width != box.getWidth() || height != box.getHeight() || hasMaterial(json)) {
+                gameObject = new Box(position, rotation, width, height,
+                        json.optFloat("density", box.getDensity()), json.optFloat("friction", box.getFriction()),
+                        json.optFloat("restitution", box.getRestitution()), getColor(json, box.getColor()));
+            }
+        } else if (gameObject instanceof Balloon) {
+            Balloon balloon = (Balloon) gameObject;
+            float radius = json.optFloat("radius", balloon.getRadius());
+            if (rotation != 0 || radius != balloon.getRadius() || json.has("buoyancyForce") || json.has("color")) {
+                gameObject = new Balloon(position, rotation, radius,
+                        json.optFloat("buoyancyForce", balloon.getBuoyancyForce()), getColor(json, balloon.getColor()));
+            }
+        }
+        return kind.assign(gameObject);
+    }
+
+    /**
+     * Checks whether the JSON representation of a dynamic object overrides any of its default material.
+     *
+     * @param json The JSON object
+     * @return True if a density, friction, restitution or color is given
+     */
+    private static boolean hasMaterial(JSONObject json) {
+        return json.has("density") || json.has("friction") || json.has("restitution") || json.has("color");
+    }
+
+    /**
+     * Gets the color of an object from its JSON representation.
+     *
+     * @param json The JSON object
+     * @param defaultColor The color to use if none is given
+     * @return The color
+     */
+    private static Color getColor(JSONObject json, Color defaultColor) {
+        return json.has("color") ? Color.web(json.getString("color")) : defaultColor;
+    }
+
+    /**
+     * Looks up the kind of an object type that templates can create.
+     *
+     * @param type The type of the object, e.g. "Ball"
+     * @return The object kind
+     * @throws IllegalArgumentException If the type is unknown or of an unsupported class
+     */
+    private static ObjectKind getSupportedKind(String type) {
+        ObjectKind kind = ObjectKind.forName(type);
+        if (kind == null || !SUPPORTED_CLASSES.contains(kind.getType())) {
+            throw new IllegalArgumentException("Unknown object type: " + type);
+        }
+        return kind;
+    }
+
+    /**
+     * Creates the JSON representation of a game object.
+     *
+     * @param gameObject The game object
+     * @return The JSON object
+     */
+    public static JSONObject toJson(GameObject gameObject) {
+        JSONObject json = new JSONObject();
+        json.put("type", gameObject.getKind().getName());
+        json.put("x", gameObject.getX());
+        json.put("y", gameObject.getY());
+        json.put("rotation", gameObject.getRotation());
+        putProperties(gameObject, json::put);
+        return json;
+    }
+
+    /**
+     * Passes the type specific properties of a game object, e.g. "radius", to a consumer.
+     * Colors are given as strings, all other properties as numbers.
+     *
+     * @param gameObject The game object
+     * @param consumer The consumer of the property names and values
+     */
+    private static void putProperties(GameObject gameObject, BiConsumer<String, Object> consumer) {
+        if (gameObject instanceof Ball) {
+            Ball ball = (Ball) gameObject;
+            consumer.accept("radius", ball.getRadius());
+            putMaterial(consumer, ball.getDensity(), ball.getFriction(), ball.getRestitution(), ball.getColor());
+        } else if (gameObject instanceof Box) {
+            Box box = (Box) gameObject;
+            consumer.accept("width", box.getWidth());
+            consumer.accept("height", box.getHeight());
+            putMaterial(consumer, box.getDensity(), box.getFriction(), box.getRestitution(), box.getColor());
+        } else if (gameObject instanceof Plank) {
+            Plank plank = (Plank) gameObject;
+            consumer.accept("width", plank.getWidth());
+            consumer.accept("height", plank.getHeight());
+        } else if (gameObject instanceof Log) {
+            Log log = (Log) gameObject;
+            consumer.accept("length", log.getLength());
+            consumer.accept("diameter", log.getDiameter());
+        } else if (gameObject instanceof Balloon) {
+            Balloon balloon = (Balloon) gameObject;
+            consumer.accept("radius", balloon.getRadius());
+            consumer.accept("buoyancyForce", balloon.getBuoyancyForce());
+            consumer.accept("color", balloon.getColor().toString());
+        }
+    }
+
+    /**
+     * Passes the material properties of a dynamic object to a consumer.
+     *
+     * @param consumer The consumer of the property names and values
+     * @param density The density
+     * @param friction The friction
+     * @param restitution The restitution
+     * @param color The color
+     */
+    private static void putMaterial(BiConsumer<String, Object> consumer, float density, float friction,
+                                    float restitution, Color color) {
+        consumer.accept("density", density);
+        consumer.accept("friction", friction);
+        consumer.accept("restitution", restitution);
+        consumer.accept("color", color.toString());
+    }
+
+    /**
+     * Creates a game object with the default material of its kind.
+     * The default sizes also come from the kind, so they are only defined in one place.
+     *
+     * @param kind The kind of the object
+     * @param position The position of the object
+     * @param rotation The rotation of the object in degrees, only used by static objects
+     * @param sizes The source of the size properties, e.g. "radius"
+     * @return The new game object
+     */
+    private static GameObject createDefault(ObjectKind kind, Point2D position, float rotation, PropertySource sizes) {
+        GameObject gameObject = kind.create(position);
+        if (gameObject instanceof Ball) {
+            Ball ball = (Ball) gameObject;
+            float radius = sizes.get("radius", ball.getRadius());
+            if (radius != ball.getRadius()) {
+                gameObject = new Ball(position, 0, radius, ball.getDensity(), ball.getFriction(),
+                        ball.getRestitution(), ball.getColor());
+            }
+        } else if (gameObject instanceof Box) {
+            Box box = (Box) gameObject;
+            float width = sizes.get("width", box.getWidth());
+            float height = sizes.get("height", box.getHeight());
+            if (width != box.getWidth() || height != box.getHeight()) {
+                gameObject = new Box(position, 0, width, height, box.getDensity(), box.getFriction(),
+                        box.getRestitution(), box.getColor());
+            }
+        } else if (gameObject instanceof Plank) {
+            Plank plank = (Plank) gameObject;
+            gameObject = new Plank(position, rotation, sizes.get("width", plank.getWidth()),
+                    sizes.get("height", plank.getHeight()));
+        } else if (gameObject instanceof Log) {
+            Log log = (Log) gameObject;
+            gameObject = new Log(position, rotation, sizes.get("length", log.getLength()),
+                    sizes.get("diameter", log.getDiameter()));
+        } else if (gameObject instanceof Balloon) {
+            Balloon balloon = (Balloon) gameObject;
+            float radius = sizes.get("radius", balloon.getRadius());
+            if (radius != balloon.getRadius()) {
+                gameObject = new Balloon(position, radius);
+            }
+        }
+        return gameObject;
+    }
+
+    /**
+     * Creates a new game object from this template.
+     * Material properties in the template override the defaults of the object type.
+     *
+     * @return The new game object
+     */
+    public GameObject create() {
+        Point2D position = new Point2D(x, y);
+        GameObject gameObject;
+        switch (className) {
+            case "Ball":
+                gameObject = new Ball(position, rotation, getResolved("radius"), getResolved("density"),
+                        getResolved("friction"), getResolved("restitution"), color);
+                break;
+            case "Box":
+                gameObject = new Box(position, rotation, getResolved("width"), getResolved("height"),
+                        getResolved("density"), getResolved("friction"), getResolved("restitution"), color);
+                break;
+            case "Plank":
+                gameObject = new Plank(position, rotation, getResolved("width"), getResolved("height"));
+                break;
+            case "Log":
+                gameObject = new Log(position, rotation, getResolved("length"), getResolved("diameter"));
+                break;
+            case "Balloon":
+                gameObject = new Balloon(position, rotation, getResolved("radius"), getResolved("buoyancyForce"), color);
+                break;
+            default:
+                throw new IllegalStateException("Unknown object class: " + className);
+        }
+        return kind.assign(gameObject);
+    }
+
+    /**
+     * Gets a numeric property as given in the level file.
+     *
+     * @param key The property name
+     * @param defaultValue The value to use if the property is missing
+     * @return The property value
+     */
+    private float getFloat(String key, float defaultValue) {
+        Object value = properties.get(key);
+        return value instanceof Number ? ((Number) value).floatValue() : defaultValue;
+    }
+
+    /**
+     * Gets a numeric property with the defaults of the object type applied.
+     *
+     * @param key The property name
+     * @return The property value
+     */
+    private float getResolved(String key) {
+        return resolved.get(key);
+    }
+
+    /**
+     * Gets the type of the object.
+     *
+     * @return The object type
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Gets the kind of the object.
+     *
+     * @return The object kind
+     */
+    public ObjectKind getKind() {
+        return kind;
+    }
+
+    /**
+     * Gets the x coordinate of the object.
+     *
+     * @return The x coordinate
+     */
+    public double getX() {
+        return x;
+    }
+
+    /**
+     * Gets the y coordinate of the object.
+     *
+     * @return The y coordinate
+     */
+    public double getY() {
+        return y;
+    }
+
+    /**
+     * Gets the rotation of the object in degrees.
+     *
+     * @return The rotation in degrees
+     */
+    public float getRotation() {
+        return rotation;
+    }
+
+    /**
+     * Gets the type specific properties of the object.
+     *
+     * @return An unmodifiable map of the properties
+     */
+    public Map<String, Object> getProperties() {
+        return properties;
+    }
+
+    @Override
+    public String toString() {
+        return "ObjectTemplate{" +
+                "type='" + type + '\'' +
+                ", x=" + x +
+                ", y=" + y +
+                ", rotation=" + rotation +
+                ", properties=" + properties +
+                '}';
+    }
+
+    /**
+     * Gives the numeric properties of an object, either from a template or from a JSON object.
+     */
+    private interface PropertySource {
+        /**
+         * Gets a numeric property.
+         *
+         * @param key The property name
+         * @param defaultValue The value to use if the property is missing
+         * @return The property value
+         */
+        float get(String key, float defaultValue);
+    }
+}
@@ -0,0 +1,100 @@
+package mm.model.level;
+
+import javafx.geometry.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A uniform grid that indexes rectangular areas by the cells they overlap.
+ * Looking up the areas at a point only has to check the areas of a single cell,
+ * so it takes constant time for evenly distributed areas.
+ *
+ * @param <T> The type of the indexed items
+ */
+class SpatialGrid<T> {
+    private static final int MAX_CELLS_PER_ITEM = 64;
+
+    private final double cellSize;
+    private final Map<Long, List<T>> cells;
+    private final List<T> oversizedItems;
+
+    /**
+     * Creates a new, empty grid.
+     *
+     * @param cellSize The width and height of a grid cell
+     */
+    SpatialGrid(double cellSize) {
+        this.cellSize = cellSize;
+        this.cells = new HashMap<>();
+        this.oversizedItems = new ArrayList<>();
+    }
+
+    /**
+     * Adds an item to the grid.
+     * Items that would cover too many cells are kept in a separate list which is always checked.
+     *
+     * @param item The item to add
+     * @param area The area of the item
+     */
+    void add(T item, Rectangle2D area) {
+        long minX = cell(area.getMinX());
+        long minY = cell(area.getMinY());
+        long maxX = cell(area.getMaxX());
+        long maxY = cell(area.getMaxY());
+        if ((maxX - minX + 1) * (maxY - minY + 1) > MAX_CELLS_PER_ITEM) {
+            oversizedItems.add(item);
+            return;
+        }
+        for (long x = minX; x <= maxX; x++) {
+            for (long y = minY; y <= maxY; y++) {
+                cells.computeIfAbsent(key(x, y), k -> new ArrayList<>(2)).add(item);
+            }
+        }
+    }
+
+    /**
+     * Gets the items whose cells contain a point.
+     * The caller still has to check whether the point is inside the area of each item.
+     *
+     * @param x The x coordinate of the point
+     * @param y The y coordinate of the point
+     * @return The items in the cell of the point
+     */
+    List<T> getCandidates(double x, double y) {
+        List<T> items = cells.get(key(cell(x), cell(y)));
+        return items != null ? items : Collections.emptyList();
+    }
+
+    /**
+     * Gets the items that are too large to be stored in the cells.
+     *
+     * @return The oversized items
+     */
+    List<T> getOversizedItems() {
+        return oversizedItems;
+    }
+
+    /**
+     * Gets the index of the cell containing a coordinate.
+     *
+     * @param coordinate The coordinate
+     * @return The cell index
+     */
+    private long cell(double coordinate) {
+        return (long) Math.floor(coordinate / cellSize);
+    }
+
+    /**
+     * Combines two cell indices into a single key.
+     *
+     * @param x The cell index on the x axis
+     * @param y The cell index on the y axis
+     * @return The key of the cell
+     */
+    private static long key(long x, long y) {
+        return (x << 32) ^ (y & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,145 @@
+package mm.model.level;
+
+import mm.model.objects.GameObject;
+import mm.model.physics.PhysicsWorld;
+import org.jbox2d.callbacks.ContactImpulse;
+import org.jbox2d.callbacks.ContactListener;
+import org.jbox2d.collision.Manifold;
+import org.jbox2d.dynamics.Fixture;
+import org.jbox2d.dynamics.contacts.Contact;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns the areas of win conditions into sensors in a physics world.
+ *
+ * Each area becomes a static sensor of the physics world. The physics engine reports when objects start or stop
+ * overlapping a sensor, which makes them candidates of the matching win condition. Only the
+ * candidates are checked for whether their centers are inside the area, and only after something
+ * moved, so win checking costs nothing for objects far away from any goal area.
+ */
+public class WinAreaSensors implements ContactListener {
+    private final List<WinCondition> winConditions;
+    private PhysicsWorld physicsWorld;
+    private long checkedChangeCount;
+
+    /**
+     * Creates sensors for the given win conditions.
+     *
+     * @param winConditions The win conditions
+     */
+    public WinAreaSensors(List<WinCondition> winConditions) {
+        this.winConditions = new ArrayList<>(winConditions);
+    }
+
+    /**
+     * Creates the sensors in a physics world and starts listening to its contacts.
+     *
+     * @param physicsWorld The physics world
+     */
+    public void attach(PhysicsWorld physicsWorld) {
+        detach();
+        this.physicsWorld = physicsWorld;
+        this.checkedChangeCount = physicsWorld.getChangeCount() - 1;
+        physicsWorld.addContactListener(this);
+
+        for (WinCondition winCondition : winConditions) {
+            winCondition.resetObjectsInArea();
+            physicsWorld.addSensor(winCondition.getArea(), winCondition);
+        }
+    }
+
+    /**
+     * Removes the sensors from the physics world and stops listening to its contacts.
+     */
+    public void detach() {
+        if (physicsWorld == null) {
+            return;
+        }
+        physicsWorld.removeContactListener(this);
+        for (WinCondition winCondition : winConditions) {
+            physicsWorld.removeSensors(winCondition);
+            winCondition.resetObjectsInArea();
+        }
+        physicsWorld = null;
+    }
+
+    /**
+     * Checks the candidates of all win conditions again if anything moved since the last update.
+     */
+    public void update() {
+        if (physicsWorld == null || physicsWorld.getChangeCount() == checkedChangeCount) {
+            return;
+        }
+        checkedChangeCount = physicsWorld.getChangeCount();
+        for (int i = 0; i < winConditions.size(); i++) {
+            winConditions.get(i).updateObjectsInArea();
+        }
+    }
+
+    @Override
+    public void beginContact(Contact contact) {
+        WinCondition winCondition = getMatchingCondition(contact);
+        if (winCondition != null) {
+            winCondition.objectEntered(getGameObject(contact, winCondition));
+        }
+    }
+
+    @Override
+    public void endContact(Contact contact) {
+        WinCondition winCondition = getMatchingCondition(contact);
+        if (winCondition != null) {
+            winCondition.objectLeft(getGameObject(contact, winCondition));
+        }
+    }
+
+    @Override
+    public void preSolve(Contact contact, Manifold oldManifold) {
+        // Sensors are not solved
+    }
+
+    @Override
+    public void postSolve(Contact contact, ContactImpulse impulse) {
+        // Sensors are not solved
+    }
+
+    /**
+     * Gets the win condition of a contact between a sensor and an object of the required type.
+     *
+     * @param contact The contact
+     * @return The win condition, or null if the contact is not relevant for any win condition
+     */
+    private static WinCondition getMatchingCondition(Contact contact) {
+        WinCondition winCondition = getMatchingCondition(contact.getFixtureA(), contact.getFixtureB());
+        return winCondition != null ? winCondition : getMatchingCondition(contact.getFixtureB(), contact.getFixtureA());
+    }
+
+    /**
+     * Gets the game object of a contact between a sensor and an object.
+     *
+     * @param contact The contact
+     * @param winCondition The win condition of the sensor
+     * @return The game object that overlaps the sensor
+     */
+    private static GameObject getGameObject(Contact contact, WinCondition winCondition) {
+        Fixture other = contact.getFixtureA().getUserData() == winCondition ? contact.getFixtureB() : contact.getFixtureA();
+        return (GameObject) other.getBody().getUserData();
+    }
+
+    /**
+     * Gets the win condition of a sensor fixture if the other fixture belongs to an object of the required type.
+     *
+     * @param sensor The possible sensor fixture
+     * @param other The other fixture
+     * @return The win condition, or null if the fixtures do not match
+     */
+    private static WinCondition getMatchingCondition(Fixture sensor, Fixture other) {
+        if (sensor.getUserData() instanceof WinCondition && other.getBody().getUserData() instanceof GameObject) {
+            WinCondition winCondition = (WinCondition) sensor.getUserData();
+            if (winCondition.matches((GameObject) other.getBody().getUserData())) {
+                return winCondition;
+            }
+        }
+        return null;
+    }
+}
@@ -1,18 +1,31 @@
 package mm.model.level;
 
-import javafx.geometry.Point2D;
 import javafx.geometry.Rectangle2D;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import mm.model.objects.GameObject;
+import mm.model.objects.ObjectKind;
+import mm.model.physics.PhysicsWorld;
 
 /**
  * Represents a win condition for a level.
  * A win condition is satisfied when a specific object enters a specific area.
+ *
+ * During a simulation the area is a sensor in the physics world (see {@link WinAreaSensors}),
+ * which notifies the condition whenever a matching object starts or stops overlapping the area.
+ * Overlapping objects are only candidates: the condition is satisfied once the center of one
+ * of them is inside the area, which is checked again whenever the candidates have moved.
  */
 public class WinCondition {
     private final String objectType;
+    private ObjectKind kind;
     private final Rectangle2D area;
     private boolean satisfied;
+    private final Map<GameObject, Candidate> candidates;
+    private final List<Candidate> candidateList;
+    private int centersInArea;
     
     /**
      * Creates a new win condition.
@@ -22,21 +35,137 @@ public class WinCondition {
      */
     public WinCondition(String objectType, Rectangle2D area) {
         this.objectType = objectType;
+        this.kind = ObjectKind.forName(objectType);
         this.area = area;
         this.satisfied = false;
+        this.candidates = new HashMap<>();
+        this.candidateList = new ArrayList<>();
     }
     
     /**
-     * Checks if the win condition is satisfied.
+     * Gets the kind of object that must enter the area.
+     * The kind is looked up again if it was not registered when the condition was created.
+     *
+     * @return The object kind, or null if no kind with the required name is registered
+     */
+    public ObjectKind getKind() {
+        if (kind == null) {
+            kind = ObjectKind.forName(objectType);
+        }
+        return kind;
+    }
+    
+    /**
+     * Checks if an object of the required type counts for this win condition.
+     *
+     * @param gameObject The game object
+     * @return True if the object is of the required kind or one of its variants, false otherwise
+     */
+    public boolean matches(GameObject gameObject) {
+        ObjectKind required = getKind();
+        return required != null && gameObject.getKind().isA(required);
+    }
+    
+    /**
+     * Notifies the win condition that a fixture of a matching object started overlapping its area.
+     * An object with several overlapping fixtures is only counted once.
+     *
+     * @param gameObject The game object
+     */
+    void objectEntered(GameObject gameObject) {
+        Candidate candidate = candidates.get(gameObject);
+        if (candidate == null) {
+            candidate = new Candidate(gameObject);
+            candidates.put(gameObject, candidate);
+            candidateList.add(candidate);
+        }
+        candidate.contacts++;
+    }
+    
+    /**
+     * Notifies the win condition that a fixture of a matching object stopped overlapping its area.
+     *
+     * @param gameObject The game object
+     */
+    void objectLeft(GameObject gameObject) {
+        Candidate candidate = candidates.get(gameObject);
+        if (candidate == null || --candidate.contacts > 0) {
+            return;
+        }
+        candidates.remove(gameObject);
+        candidateList.remove(candidate);
+        if (candidate.centerInArea) {
+            centersInArea--;
+            satisfied = centersInArea > 0;
+        }
+    }
+    
+    /**
+     * Checks whether the centers of the candidates that moved since the last check are inside the area.
+     * Candidates that have not moved keep their previous result.
+     */
+    void updateObjectsInArea() {
+        for (int i = 0; i < candidateList.size(); i++) {
+            Candidate candidate = candidateList.get(i);
+            double x = candidate.gameObject.getX();
+            double y = candidate.gameObject.getY();
+            if (x != candidate.checkedX || y != candidate.checkedY) {
+                candidate.checkedX = x;
+                candidate.checkedY = y;
+                boolean centerInArea = area.contains(x, y);
+                if (centerInArea != candidate.centerInArea) {
+                    candidate.centerInArea = centerInArea;
+                    centersInArea += centerInArea ? 1 : -1;
+                }
+            }
+        }
+        satisfied = centersInArea > 0;
+    }
+    
+    /**
+     * Resets the objects counted in the area, e.g. when the sensors are removed.
+     */
+    void resetObjectsInArea() {
+        candidates.clear();
+        candidateList.clear();
+        centersInArea = 0;
+        satisfied = false;
+    }
+    
+    /**
+     * Checks if the win condition is satisfied by testing the positions of all given objects.
+     * This does not need a sensor in the physics world, but has to check every object.
      *
      * @param gameObjects The list of game objects to check against
      * @return True if the win condition is satisfied, false otherwise
      */
     public boolean checkSatisfied(List<GameObject> gameObjects) {
         for (GameObject gameObject : gameObjects) {
-            if (gameObject.getClass().getSimpleName().equals(objectType)) {
-                Point2D position = gameObject.getPosition();
-                if (area.contains(position)) {
+            if (matches(gameObject)) {
+                if (area.contains(gameObject.getX(), gameObject.getY())) {
+                    satisfied = true;
+                    return true;
+                }
+            }
+        }
+        satisfied = false;
+        return false;
+    }
+    
+    /**
+     * Checks if the win condition is satisfied by testing the positions of the objects of the required kind.
+     * Only the objects of this kind are looked at, which the physics world keeps in separate lists.
+     *
+     * @param physicsWorld The physics world to check against
+     * @return True if the win condition is satisfied, false otherwise
+     */
+    public boolean checkSatisfied(PhysicsWorld physicsWorld) {
+        ObjectKind required = getKind();
+        if (required != null) {
+            List<GameObject> candidates = physicsWorld.getGameObjects(required);
+            for (int i = 0; i < candidates.size(); i++) {
+                GameObject gameObject = candidates.get(i);
+                if (area.contains(gameObject.getX(), gameObject.getY())) {
                     satisfied = true;
                     return true;
                 }
@@ -90,4 +219,24 @@ public class WinCondition {
                 ", satisfied=" + satisfied +
                 '}';
     }
+
+    /**
+     * An object of the required kind that overlaps the area.
+     */
+    private static final class Candidate {
+        private final GameObject gameObject;
+        private int contacts;
+        private boolean centerInArea;
+        private double checkedX = Double.NaN;
+        private double checkedY = Double.NaN;
+        
+        /**
+         * Creates a new candidate that has not been checked yet.
+         *
+         * @param gameObject The game object
+         */
+        Candidate(GameObject gameObject) {
+            this.gameObject = gameObject;
+        }
+    }
 }
@@ -1,10 +1,7 @@
 package mm.model.objects;
 
 import javafx.geometry.Point2D;
-import org.jbox2d.collision.shapes.Shape;
-import org.jbox2d.dynamics.BodyDef;
 import org.jbox2d.dynamics.BodyType;
-import org.jbox2d.dynamics.FixtureDef;
 import org.jbox2d.dynamics.World;
 
 /**
@@ -34,35 +31,18 @@ public abstract class DynamicObject extends GameObject {
     
     @Override
     public void createPhysicsBody(World world) {
-        // Create a dynamic body definition
-        BodyDef bodyDef = new BodyDef();
-        bodyDef.type = BodyType.DYNAMIC;
-        bodyDef.position.set((float) getPosition().getX(), (float) getPosition().getY());
-        bodyDef.angle = (float) Math.toRadians(getRotation());
-        
-        // Create the body
-        setPhysicsBody(world.createBody(bodyDef));
-        
-        // Create the fixture (to be implemented by subclasses)
-        Shape shape = createShape();
-        if (shape != null) {
-            FixtureDef fixtureDef = new FixtureDef();
-            fixtureDef.shape = shape;
-            fixtureDef.density = density;
-            fixtureDef.friction = friction;
-            fixtureDef.restitution = restitution;
-            
-            getPhysicsBody().createFixture(fixtureDef);
-        }
+        // Create a dynamic body with the shared fixture definition of the subclass
+        getFixtureTemplate().createFixture(createBody(world, BodyType.DYNAMIC));
     }
     
     /**
-     * Creates the shape for this dynamic object.
-     * This should be implemented by subclasses to create the appropriate shape.
+     * Gets the fixture template for this dynamic object.
+     * This should be implemented by subclasses with a template from {@link FixtureTemplates}
+     * for the shape of the object and its density, friction and restitution.
      *
-     * @return The shape for the physics body
+     * @return The shared fixture template for the physics body
      */
-    protected abstract Shape createShape();
+    protected abstract FixtureTemplate getFixtureTemplate();
     
     // Getters and setters
     
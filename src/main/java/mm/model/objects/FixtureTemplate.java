@@ -0,0 +1,71 @@
+package mm.model.objects;
+
+import org.jbox2d.collision.shapes.Shape;
+import org.jbox2d.dynamics.Body;
+import org.jbox2d.dynamics.Fixture;
+import org.jbox2d.dynamics.FixtureDef;
+
+/**
+ * A fixture definition that is shared by all objects with the same shape and material.
+ *
+ * The definition is never handed out, so no object can change the shape or material of the
+ * others. It is only read when a fixture is created, which also makes a template safe to use
+ * from several threads at once. Templates are created by {@link FixtureTemplates}.
+ */
+public final class FixtureTemplate {
+    private final FixtureDef fixtureDef;
+
+    /**
+     * Creates a new fixture template.
+     *
+     * @param shape The shape of the fixtures, which must not be used anywhere else
+     * @param density The density in kilograms per square meter
+     * @param friction The friction coefficient
+     * @param restitution The restitution (bounciness)
+     */
+    FixtureTemplate(Shape shape, float density, float friction, float restitution) {
+        fixtureDef = new FixtureDef();
+        fixtureDef.shape = shape;
+        fixtureDef.density = density;
+        fixtureDef.friction = friction;
+        fixtureDef.restitution = restitution;
+    }
+
+    /**
+     * Creates a fixture of this template on a body. jBox2D copies the shape into the fixture,
+     * so the fixture can be changed without affecting the template.
+     *
+     * @param body The body
+     * @return The new fixture
+     */
+    public Fixture createFixture(Body body) {
+        return body.createFixture(fixtureDef);
+    }
+
+    /**
+     * Gets the density of the fixtures.
+     *
+     * @return The density in kilograms per square meter
+     */
+    public float getDensity() {
+        return fixtureDef.density;
+    }
+
+    /**
+     * Gets the friction of the fixtures.
+     *
+     * @return The friction coefficient
+     */
+    public float getFriction() {
+        return fixtureDef.friction;
+    }
+
+    /**
+     * Gets the restitution of the fixtures.
+     *
+     * @return The restitution (bounciness)
+     */
+    public float getRestitution() {
+        return fixtureDef.restitution;
+    }
+}
@@ -0,0 +1,156 @@
+package mm.model.objects;
+
+import org.jbox2d.collision.shapes.CircleShape;
+import org.jbox2d.collision.shapes.PolygonShape;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A cache of fixture templates that are shared by all objects with the same shape and material.
+ *
+ * jBox2D copies the shape of a fixture definition into every fixture it creates, so one definition
+ * can be used for any number of bodies. Levels with thousands of identical balls or boxes then
+ * create a single shape and fixture definition instead of one per object. The cache is shared
+ * between threads. It is emptied when it holds {@link #MAX_TEMPLATES} templates, so levels with
+ * many different sizes cannot make it grow without limit.
+ */
+public final class FixtureTemplates {
+    /**
+     * The number of templates at which the cache is emptied.
+     */
+    public static final int MAX_TEMPLATES = 1024;
+
+    private static final Map<Key, FixtureTemplate> TEMPLATES = new ConcurrentHashMap<>();
+
+    /**
+     * This class only has static methods.
+     */
+    private FixtureTemplates() {
+    }
+
+    /**
+     * Gets the fixture template of a circle.
+     *
+     * @param radius The radius in meters
+     * @param density The density in kilograms per square meter
+     * @param friction The friction coefficient
+     * @param restitution The restitution (bounciness)
+     * @return The shared fixture template
+     */
+    public static FixtureTemplate circle(float radius, float density, float friction, float restitution) {
+        Key key = new Key(false, radius, radius, density, friction, restitution);
+        FixtureTemplate template = TEMPLATES.get(key);
+        if (template == null) {
+            CircleShape shape = new CircleShape();
+            shape.setRadius(radius);
+            template = cache(key, new FixtureTemplate(shape, density, friction, restitution));
+        }
+        return template;
+    }
+
+    /**
+     * Gets the fixture template of a box centered on the position of its body.
+     *
+     * @param halfWidth Half of the width in meters
+     * @param halfHeight Half of the height in meters
+     * @param density The density in kilograms per square meter
+     * @param friction The friction coefficient
+     * @param restitution The restitution (bounciness)
+     * @return The shared fixture template
+     */
+    public static FixtureTemplate box(float halfWidth, float halfHeight, float density, float friction, float restitution) {
+        Key key = new Key(true, halfWidth, halfHeight, density, friction, restitution);
+        FixtureTemplate template = TEMPLATES.get(key);
+        if (template == null) {
+            PolygonShape shape = new PolygonShape();
+            shape.setAsBox(halfWidth, halfHeight);
+            template = cache(key, new FixtureTemplate(shape, density, friction, restitution));
+        }
+        return template;
+    }
+
+    /**
+     * Adds a new template to the cache, emptying it first if it is full.
+     * If another thread cached a template for the same key in the meantime, that one is used.
+     *
+     * @param key The key of the template
+     * @param template The new template
+     * @return The cached template
+     */
+    private static FixtureTemplate cache(Key key, FixtureTemplate template) {
+        if (TEMPLATES.size() >= MAX_TEMPLATES) {
+            TEMPLATES.clear();
+        }
+        FixtureTemplate cached = TEMPLATES.putIfAbsent(key, template);
+        return cached != null ? cached : template;
+    }
+
+    /**
+     * Removes all templates from the cache. Objects that already use a template keep it.
+     */
+    public static void clear() {
+        TEMPLATES.clear();
+    }
+
+    /**
+     * Gets the number of cached fixture templates.
+     *
+     * @return The number of fixture templates
+     */
+    public static int size() {
+        return TEMPLATES.size();
+    }
+
+    /**
+     * Identifies a fixture template by its shape and material.
+     */
+    private static final class Key {
+        private final boolean box;
+        private final float width;
+        private final float height;
+        private final float density;
+        private final float friction;
+        private final float restitution;
+
+        /**
+         * Creates a new key.
+         *
+         * @param box True for a box, false for a circle
+         * @param width The radius of a circle or half of the width of a box
+         * @param height The radius of a circle or half of the height of a box
+         * @param density The density
+         * @param friction The friction coefficient
+         * @param restitution The restitution
+         */
+        Key(boolean box, float width, float height, float density, float friction, float restitution) {
+            this.box = box;
+            this.width = width;
+            this.height = height;
+            this.density = density;
+            this.friction = friction;
+            this.restitution = restitution;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return box == key.box && Float.compare(width, key.width) == 0 && Float.compare(height, key.height) == 0
+                    && Float.compare(density, key.density) == 0 && Float.compare(friction, key.friction) == 0
+                    && Float.compare(restitution, key.restitution) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = Boolean.hashCode(box);
+            hash = 31 * hash + Float.floatToIntBits(width);
+            hash = 31 * hash + Float.floatToIntBits(height);
+            hash = 31 * hash + Float.floatToIntBits(density);
+            hash = 31 * hash + Float.floatToIntBits(friction);
+            hash = 31 * hash + Float.floatToIntBits(restitution);
+            return hash;
+        }
+    }
+}
@@ -1,17 +1,26 @@
 package mm.model.objects;
 
 import javafx.geometry.Point2D;
+import mm.model.physics.Units;
 import org.jbox2d.dynamics.Body;
+import org.jbox2d.dynamics.BodyDef;
+import org.jbox2d.dynamics.BodyType;
 
 /**
  * Base class for all game objects in the Crazy Machines game.
  * This class provides common properties and methods for all objects.
  */
 public abstract class GameObject {
-    private Point2D position;
+    private double x;
+    private double y;
     private float rotation;
+    private TransformStore transforms;
+    private int transformId = -1;
+    private static final ThreadLocal<BodyDef> BODY_DEF = ThreadLocal.withInitial(BodyDef::new);
+    
     private Body physicsBody;
     private boolean isStatic;
+    private ObjectKind kind;
     
     /**
      * Creates a new game object.
@@ -21,49 +30,148 @@ public abstract class GameObject {
      * @param isStatic Whether the object is static (immovable) or dynamic
      */
     public GameObject(Point2D position, float rotation, boolean isStatic) {
-        this.position = position;
+        this.x = position.getX();
+        this.y = position.getY();
         this.rotation = rotation;
         this.isStatic = isStatic;
     }
     
     /**
-     * Updates the object's position and rotation based on its physics body.
-     * This should be called each frame during simulation.
+     * Updates the object's position and rotation based on its physics body, converting meters to pixels.
+     * This does not allocate any objects. Objects in a physics world are updated by the world
+     * in a single pass over its transform store instead.
      */
     public void updateFromPhysics() {
         if (physicsBody != null && !isStatic) {
             // Update position and rotation from physics body
             org.jbox2d.common.Vec2 position = physicsBody.getPosition();
-            this.position = new Point2D(position.x, position.y);
-            this.rotation = (float) Math.toDegrees(physicsBody.getAngle());
+            float bodyX = Units.toPixels(position.x);
+            float bodyY = Units.toPixels(position.y);
+            float degrees = (float) Math.toDegrees(physicsBody.getAngle());
+            if (transforms != null) {
+                transforms.set(transformId, bodyX, bodyY, degrees);
+            } else {
+                this.x = bodyX;
+                this.y = bodyY;
+                this.rotation = degrees;
+            }
         }
     }
     
+    /**
+     * Makes the object read its transform from a transform store.
+     * This is called by {@link TransformStore#add(GameObject)}.
+     *
+     * @param transforms The transform store
+     * @param transformId The id of the object in the store
+     */
+    void attachTransform(TransformStore transforms, int transformId) {
+        this.transforms = transforms;
+        this.transformId = transformId;
+    }
+    
+    /**
+     * Makes the object keep its transform itself again.
+     * This is called by {@link TransformStore#remove(GameObject)}.
+     *
+     * @param x The last x coordinate in the store
+     * @param y The last y coordinate in the store
+     * @param rotation The last rotation in the store
+     */
+    void detachTransform(float x, float y, float rotation) {
+        this.x = x;
+        this.y = y;
+        this.rotation = rotation;
+        this.transforms = null;
+        this.transformId = -1;
+    }
+    
+    /**
+     * Gets the transform store the object reads its transform from.
+     *
+     * @return The transform store, or null if the object keeps its transform itself
+     */
+    public TransformStore getTransformStore() {
+        return transforms;
+    }
+    
+    /**
+     * Gets the id of the object in its transform store.
+     *
+     * @return The id, or -1 if the object is not part of a transform store
+     */
+    public int getTransformId() {
+        return transformId;
+    }
+    
     /**
      * Creates the physics body for this object.
-     * This should be implemented by subclasses to create the appropriate physics body.
+     * This should be implemented by subclasses to create the appropriate physics body, usually
+     * with {@link #createBody} and a fixture template from {@link FixtureTemplates}.
+     * The position and the size of the body must be converted to meters with {@link Units}.
      *
      * @param world The physics world to create the body in
      */
     public abstract void createPhysicsBody(org.jbox2d.dynamics.World world);
     
     /**
-     * Renders the object.
+     * Creates a body at the position and rotation of the object and makes it the physics body of the object.
+     * jBox2D copies the body definition, so every thread reuses a single definition for all bodies.
+     *
+     * @param world The physics world to create the body in
+     * @param type The type of the body
+     * @return The new body
+     */
+    protected Body createBody(org.jbox2d.dynamics.World world, BodyType type) {
+        BodyDef bodyDef = BODY_DEF.get();
+        bodyDef.type = type;
+        bodyDef.position.set(Units.toMeters(getX()), Units.toMeters(getY()));
+        bodyDef.angle = (float) Math.toRadians(getRotation());
+        Body body = world.createBody(bodyDef);
+        setPhysicsBody(body);
+        return body;
+    }
+    
+    /**
+     * Renders the object at its current position and rotation.
+     *
+     * @param context The graphics context to render to
+     */
+    public void render(javafx.scene.canvas.GraphicsContext context) {
+        render(context, getX(), getY(), getRotation());
+    }
+    
+    /**
+     * Renders the object at the given position and rotation.
      * This should be implemented by subclasses to render the object appropriately.
+     * It must not read the transform of the object, so that it can be used to draw an object
+     * from a snapshot while the simulation keeps moving it.
      *
      * @param context The graphics context to render to
+     * @param x The x coordinate to render the object at
+     * @param y The y coordinate to render the object at
+     * @param rotation The rotation to render the object with in degrees
+     */
+    public abstract void render(javafx.scene.canvas.GraphicsContext context, double x, double y, float rotation);
+    
+    /**
+     * Gets the radius of a circle around the position of the object that contains everything
+     * drawn for it at any rotation. It is used to skip objects outside of the visible area.
+     *
+     * @return The bounding radius in pixels
      */
-    public abstract void render(javafx.scene.canvas.GraphicsContext context);
+    public abstract float getBoundingRadius();
     
     // Getters and setters
     
     /**
      * Gets the position of the object.
+     * This creates a new Point2D, so code that runs every frame should use {@link #getX()} and {@link #getY()}.
      *
      * @return The position as a Point2D
      */
     public Point2D getPosition() {
-        return position;
+        return new Point2D(getX(), getY());
     }
     
     /**
@@ -72,7 +180,30 @@ public abstract class GameObject {
      * @param position The new position
      */
     public void setPosition(Point2D position) {
-        this.position = position;
+        if (transforms != null) {
+            transforms.setPosition(transformId, (float) position.getX(), (float) position.getY());
+        } else {
+            this.x = position.getX();
+            this.y = position.getY();
+        }
+    }
+    
+    /**
+     * Gets the x coordinate of the object's position.
+     *
+     * @return The x coordinate
+     */
+    public double getX() {
+        return transforms != null ? transforms.getX(transformId) : x;
+    }
+    
+    /**
+     * Gets the y coordinate of the object's position.
+     *
+     * @return The y coordinate
+     */
+    public double getY() {
+        return transforms != null ? transforms.getY(transformId) : y;
     }
     
     /**
@@ -81,7 +212,7 @@ public abstract class GameObject {
      * @return The rotation in degrees
      */
     public float getRotation() {
-        return rotation;
+        return transforms != null ? transforms.getRotation(transformId) : rotation;
     }
     
     /**
@@ -90,7 +221,11 @@ public abstract class GameObject {
      * @param rotation The new rotation in degrees
      */
     public void setRotation(float rotation) {
-        this.rotation = rotation;
+        if (transforms != null) {
+            transforms.setRotation(transformId, rotation);
+        } else {
+            this.rotation = rotation;
+        }
     }
     
     /**
@@ -111,6 +246,28 @@ public abstract class GameObject {
         this.physicsBody = physicsBody;
     }
     
+    /**
+     * Gets the kind of the object.
+     * Objects that were not created as a variant have the base kind of their class.
+     *
+     * @return The kind
+     */
+    public ObjectKind getKind() {
+        if (kind == null) {
+            kind = ObjectKind.forClass(getClass());
+        }
+        return kind;
+    }
+    
+    /**
+     * Sets the kind of the object. This is called by {@link ObjectKind#assign(GameObject)}.
+     *
+     * @param kind The new kind
+     */
+    void setKind(ObjectKind kind) {
+        this.kind = kind;
+    }
+    
     /**
      * Checks if the object is static (immovable).
      *
@@ -0,0 +1,252 @@
+package mm.model.objects;
+
+import javafx.geometry.Point2D;
+import mm.model.objects.impl.Ball;
+import mm.model.objects.impl.Balloon;
+import mm.model.objects.impl.Box;
+import mm.model.objects.impl.Log;
+import mm.model.objects.impl.Plank;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * A kind of game object, e.g. "Ball" or "HeavyBox", as used in level files, inventories and win conditions.
+ *
+ * Every kind is registered once and gets a small id, so game objects can be grouped by kind
+ * in arrays and compared by identity instead of by class name. A kind is either a base kind,
+ * which belongs to a game object class, or a variant of a base kind with a different material,
+ * e.g. "BouncyBall" is a variant of "Ball". New kinds can be added with {@link #register} and
+ * {@link #registerVariant}.
+ */
+public final class ObjectKind {
+    private static final Map<String, ObjectKind> BY_NAME = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, ObjectKind> BY_CLASS = new ConcurrentHashMap<>();
+    private static final List<ObjectKind> KINDS = new ArrayList<>();
+
+    public static final ObjectKind BALL = register("Ball", Ball.class, position -> new Ball(position, 10));
+    public static final ObjectKind BOUNCY_BALL = registerVariant("BouncyBall", BALL,
+            position -> Ball.createBouncyBall(position, 10));
+    public static final ObjectKind HEAVY_BALL = registerVariant("HeavyBall", BALL,
+            position -> Ball.createHeavyBall(position, 15));
+    public static final ObjectKind BOX = register("Box", Box.class, position -> new Box(position, 30, 30));
+    public static final ObjectKind LIGHT_BOX = registerVariant("LightBox", BOX,
+            position -> Box.createLightBox(position, 30, 30));
+    public static final ObjectKind HEAVY_BOX = registerVariant("HeavyBox", BOX,
+            position -> Box.createHeavyBox(position, 30, 30));
+    public static final ObjectKind PLANK = register("Plank", Plank.class, position -> new Plank(position, 0, 50, 10));
+    public static final ObjectKind LOG = register("Log", Log.class, position -> new Log(position, 0, 100, 20));
+    public static final ObjectKind BALLOON = register("Balloon", Balloon.class, position -> new Balloon(position, 15));
+
+    private final int id;
+    private final String name;
+    private final Class<? extends GameObject> type;
+    private final ObjectKind family;
+    private final Function<Point2D, ? extends GameObject> factory;
+
+    /**
+     * Creates a new object kind.
+     *
+     * @param id The id of the kind
+     * @param name The name of the kind
+     * @param type The class of the game objects of this kind
+     * @param family The base kind of a variant, or null for a base kind
+     * @param factory The function creating a game object of this kind at a position, or null if there is none
+     */
+    private ObjectKind(int id, String name, Class<? extends GameObject> type, ObjectKind family,
+                       Function<Point2D, ? extends GameObject> factory) {
+        this.id = id;
+        this.name = name;
+        this.type = type;
+        this.family = family;
+        this.factory = factory;
+    }
+
+    /**
+     * Registers a new base kind for a game object class.
+     *
+     * @param name The name of the kind, as used in level files
+     * @param type The class of the game objects of this kind
+     * @param factory The function creating a game object of this kind at a position, or null if there is none
+     * @return The new kind
+     * @throws IllegalArgumentException If the name or the class is already registered
+     */
+    public static synchronized ObjectKind register(String name, Class<? extends GameObject> type,
+                                                   Function<Point2D, ? extends GameObject> factory) {
+        if (BY_CLASS.containsKey(type)) {
+            throw new IllegalArgumentException("The class " + type.getName() + " already has a kind");
+        }
+        ObjectKind kind = add(name, type, null, factory);
+        BY_CLASS.put(type, kind);
+        return kind;
+    }
+
+    /**
+     * Registers a new variant of a base kind.
+     * Objects of the variant also count as objects of the base kind, e.g. in win conditions.
+     *
+     * @param name The name of the kind, as used in level files
+     * @param family The base kind
+     * @param factory The function creating a game object of this kind at a position
+     * @return The new kind
+     * @throws IllegalArgumentException If the name is already registered or the family is a variant itself
+     */
+    public static synchronized ObjectKind registerVariant(String name, ObjectKind family,
+                                                          Function<Point2D, ? extends GameObject> factory) {
+        if (family.family != null) {
+            throw new IllegalArgumentException("The kind " + family.name + " is a variant itself");
+        }
+        return add(name, family.type, family, factory);
+    }
+
+    /**
+     * Adds a new kind to the registry.
+     *
+     * @param name The name of the kind
+     * @param type The class of the game objects of this kind
+     * @param family The base kind of a variant, or null for a base kind
+     * @param factory The function creating a game object of this kind at a position, or null if there is none
+     * @return The new kind
+     */
+    private static ObjectKind add(String name, Class<? extends GameObject> type, ObjectKind family,
+                                  Function<Point2D, ? extends GameObject> factory) {
+        if (BY_NAME.containsKey(name)) {
+            throw new IllegalArgumentException("The object kind " + name + " is already registered");
+        }
+        ObjectKind kind = new ObjectKind(KINDS.size(), name, type, family, factory);
+        KINDS.add(kind);
+        BY_NAME.put(name, kind);
+        return kind;
+    }
+
+    /**
+     * Gets the kind with a name.
+     *
+     * @param name The name of the kind
+     * @return The kind, or null if no kind with this name is registered
+     */
+    public static ObjectKind forName(String name) {
+        return BY_NAME.get(name);
+    }
+
+    /**
+     * Gets the base kind of a game object class.
+     * Classes without a registered kind get a kind named after the class, which cannot create objects.
+     *
+     * @param type The game object class
+     * @return The base kind of the class
+     */
+    public static ObjectKind forClass(Class<? extends GameObject> type) {
+        ObjectKind kind = BY_CLASS.get(type);
+        if (kind != null) {
+            return kind;
+        }
+        synchronized (ObjectKind.class) {
+            kind = BY_CLASS.get(type);
+            return kind != null ? kind : register(type.getSimpleName(), type, null);
+        }
+    }
+
+    /**
+     * Gets the number of registered kinds. All ids are smaller than this.
+     *
+     * @return The number of kinds
+     */
+    public static synchronized int count() {
+        return KINDS.size();
+    }
+
+    /**
+     * Gets all registered kinds, ordered by their ids.
+     *
+     * @return An unmodifiable copy of the kinds
+     */
+    public static synchronized List<ObjectKind> values() {
+        return Collections.unmodifiableList(new ArrayList<>(KINDS));
+    }
+
+    /**
+     * Creates a new game object of this kind.
+     *
+     * @param position The position of the object
+     * @return The new game object
+     * @throws UnsupportedOperationException If this kind has no factory
+     */
+    public GameObject create(Point2D position) {
+        if (factory == null) {
+            throw new UnsupportedOperationException("Objects of kind " + name + " cannot be created");
+        }
+        return assign(factory.apply(position));
+    }
+
+    /**
+     * Marks a game object as being of this kind, e.g. a ball with the material of a variant.
+     * This must happen before the object is added to a physics world.
+     *
+     * @param gameObject The game object
+     * @param <T> The type of the game object
+     * @return The game object
+     * @throws IllegalArgumentException If the object is not an instance of the class of this kind
+     */
+    public <T extends GameObject> T assign(T gameObject) {
+        if (!type.isInstance(gameObject)) {
+            throw new IllegalArgumentException(gameObject.getClass().getSimpleName() + " cannot be of kind " + name);
+        }
+        gameObject.setKind(this);
+        return gameObject;
+    }
+
+    /**
+     * Checks whether this kind is another kind or a variant of it.
+     *
+     * @param other The other kind
+     * @return True if objects of this kind count as objects of the other kind
+     */
+    public boolean isA(ObjectKind other) {
+        return this == other || family == other;
+    }
+
+    /**
+     * Gets the id of the kind, which can be used as an array index.
+     *
+     * @return The id
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Gets the name of the kind.
+     *
+     * @return The name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the class of the game objects of this kind.
+     *
+     * @return The class
+     */
+    public Class<? extends GameObject> getType() {
+        return type;
+    }
+
+    /**
+     * Gets the base kind of this kind.
+     *
+     * @return The base kind of a variant, or null for a base kind
+     */
+    public ObjectKind getFamily() {
+        return family;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
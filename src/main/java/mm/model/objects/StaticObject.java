@@ -1,10 +1,7 @@
 package mm.model.objects;
 
 import javafx.geometry.Point2D;
-import org.jbox2d.collision.shapes.Shape;
-import org.jbox2d.dynamics.BodyDef;
 import org.jbox2d.dynamics.BodyType;
-import org.jbox2d.dynamics.FixtureDef;
 import org.jbox2d.dynamics.World;
 
 /**
@@ -12,6 +9,14 @@ import org.jbox2d.dynamics.World;
  * Examples include planks and logs.
  */
 public abstract class StaticObject extends GameObject {
+    /**
+     * The friction of all static objects.
+     */
+    protected static final float FRICTION = 0.3f;
+    /**
+     * The restitution of all static objects, which are not very bouncy.
+     */
+    protected static final float RESTITUTION = 0.1f;
     
     /**
      * Creates a new static object.
@@ -25,33 +30,16 @@ public abstract class StaticObject extends GameObject {
     
     @Override
     public void createPhysicsBody(World world) {
-        // Create a static body definition
-        BodyDef bodyDef = new BodyDef();
-        bodyDef.type = BodyType.STATIC;
-        bodyDef.position.set((float) getPosition().getX(), (float) getPosition().getY());
-        bodyDef.angle = (float) Math.toRadians(getRotation());
-        
-        // Create the body
-        setPhysicsBody(world.createBody(bodyDef));
-        
-        // Create the fixture (to be implemented by subclasses)
-        Shape shape = createShape();
-        if (shape != null) {
-            FixtureDef fixtureDef = new FixtureDef();
-            fixtureDef.shape = shape;
-            fixtureDef.density = 0.0f; // Static objects have zero density
-            fixtureDef.friction = 0.3f;
-            fixtureDef.restitution = 0.1f; // Low restitution (not very bouncy)
-            
-            getPhysicsBody().createFixture(fixtureDef);
-        }
+        // Create a static body with the shared fixture definition of the subclass
+        getFixtureTemplate().createFixture(createBody(world, BodyType.STATIC));
     }
     
     /**
-     * Creates the shape for this static object.
-     * This should be implemented by subclasses to create the appropriate shape.
+     * Gets the fixture template for this static object.
+     * This should be implemented by subclasses with a template from {@link FixtureTemplates},
+     * using no density (static objects have zero density), {@link #FRICTION} and {@link #RESTITUTION}.
      *
-     * @return The shape for the physics body
+     * @return The shared fixture template for the physics body
      */
-    protected abstract Shape createShape();
+    protected abstract FixtureTemplate getFixtureTemplate();
 }
@@ -0,0 +1,310 @@
+package mm.model.objects;
+
+import java.util.Arrays;
+
+/**
+ * Stores the positions and rotations of many game objects in primitive arrays.
+ *
+ * Every added object gets an id which is its index into the arrays, and the getters of the
+ * object read from these arrays while it is part of the store. Updating all transforms after
+ * a physics step therefore writes to a few contiguous arrays instead of to objects spread
+ * over the heap. The ids of removed objects are reused for objects added later.
+ *
+ * The store also keeps a previous transform of every object, so objects can be drawn at a pose
+ * between the last two physics steps. Moving an object with {@link #setPosition(int, float, float)}
+ * or {@link #setRotation(int, float)} sets both transforms, so the object does not glide to its new pose.
+ */
+public final class TransformStore {
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private float[] x;
+    private float[] y;
+    private float[] rotation;
+    private float[] previousX;
+    private float[] previousY;
+    private float[] previousRotation;
+    private GameObject[] objects;
+    private int[] freeIds;
+    private int freeCount;
+    private int bound;
+
+    /**
+     * Creates a new, empty transform store.
+     */
+    public TransformStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new, empty transform store.
+     *
+     * @param initialCapacity The number of objects the store can hold before it grows
+     */
+    public TransformStore(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        x = new float[capacity];
+        y = new float[capacity];
+        rotation = new float[capacity];
+        previousX = new float[capacity];
+        previousY = new float[capacity];
+        previousRotation = new float[capacity];
+        objects = new GameObject[capacity];
+        freeIds = new int[capacity];
+    }
+
+    /**
+     * Adds a game object to the store.
+     * The current transform of the object is copied into the store and the object reads it from there afterwards.
+     *
+     * @param gameObject The game object to add
+     * @return The id of the object in the store
+     * @throws IllegalArgumentException If the object is already part of a transform store
+     */
+    public int add(GameObject gameObject) {
+        if (gameObject.getTransformStore() != null) {
+            throw new IllegalArgumentException("The game object is already part of a transform store");
+        }
+        int id;
+        if (freeCount > 0) {
+            id = freeIds[--freeCount];
+        } else {
+            if (bound == x.length) {
+                resize(x.length * 2);
+            }
+            id = bound++;
+        }
+        x[id] = (float) gameObject.getX();
+        y[id] = (float) gameObject.getY();
+        rotation[id] = gameObject.getRotation();
+        storePrevious(id);
+        objects[id] = gameObject;
+        gameObject.attachTransform(this, id);
+        return id;
+    }
+
+    /**
+     * Removes a game object from the store.
+     * The object keeps its last transform, but no longer reads it from the store.
+     *
+     * @param gameObject The game object to remove
+     * @return The id the object had in the store, or -1 if it was not part of this store
+     */
+    public int remove(GameObject gameObject) {
+        if (gameObject.getTransformStore() != this) {
+            return -1;
+        }
+        int id = gameObject.getTransformId();
+        gameObject.detachTransform(x[id], y[id], rotation[id]);
+        objects[id] = null;
+        freeIds[freeCount++] = id;
+        return id;
+    }
+
+    /**
+     * Removes all game objects from the store.
+     */
+    public void clear() {
+        for (int id = 0; id < bound; id++) {
+            if (objects[id] != null) {
+                objects[id].detachTransform(x[id], y[id], rotation[id]);
+                objects[id] = null;
+            }
+        }
+        freeCount = 0;
+        bound = 0;
+    }
+
+    /**
+     * Sets the transform of an object.
+     *
+     * @param id The id of the object
+     * @param x The x coordinate of the position
+     * @param y The y coordinate of the position
+     * @param rotation The rotation in degrees
+     */
+    public void set(int id, float x, float y, float rotation) {
+        this.x[id] = x;
+        this.y[id] = y;
+        this.rotation[id] = rotation;
+    }
+
+    /**
+     * Sets the position of an object.
+     *
+     * @param id The id of the object
+     * @param x The x coordinate of the position
+     * @param y The y coordinate of the position
+     */
+    public void setPosition(int id, float x, float y) {
+        this.x[id] = x;
+        this.y[id] = y;
+        previousX[id] = x;
+        previousY[id] = y;
+    }
+
+    /**
+     * Sets the rotation of an object.
+     *
+     * @param id The id of the object
+     * @param rotation The rotation in degrees
+     */
+    public void setRotation(int id, float rotation) {
+        this.rotation[id] = rotation;
+        previousRotation[id] = rotation;
+    }
+
+    /**
+     * Sets the previous transform of an object, i.e. its transform before the last physics step.
+     *
+     * @param id The id of the object
+     * @param x The previous x coordinate of the position
+     * @param y The previous y coordinate of the position
+     * @param rotation The previous rotation in degrees
+     */
+    public void setPrevious(int id, float x, float y, float rotation) {
+        previousX[id] = x;
+        previousY[id] = y;
+        previousRotation[id] = rotation;
+    }
+
+    /**
+     * Makes the current transform of an object its previous transform as well,
+     * so it is drawn exactly at its current pose.
+     *
+     * @param id The id of the object
+     */
+    public void storePrevious(int id) {
+        previousX[id] = x[id];
+        previousY[id] = y[id];
+        previousRotation[id] = rotation[id];
+    }
+
+    /**
+     * Gets the x coordinate of the position of an object.
+     *
+     * @param id The id of the object
+     * @return The x coordinate
+     */
+    public float getX(int id) {
+        return x[id];
+    }
+
+    /**
+     * Gets the y coordinate of the position of an object.
+     *
+     * @param id The id of the object
+     * @return The y coordinate
+     */
+    public float getY(int id) {
+        return y[id];
+    }
+
+    /**
+     * Gets the rotation of an object.
+     *
+     * @param id The id of the object
+     * @return The rotation in degrees
+     */
+    public float getRotation(int id) {
+        return rotation[id];
+    }
+
+    /**
+     * Gets the x coordinate of an object between its previous and its current position.
+     *
+     * @param id The id of the object
+     * @param alpha The fraction of the way from the previous to the current position, between 0 and 1
+     * @return The interpolated x coordinate
+     */
+    public float getInterpolatedX(int id, float alpha) {
+        return previousX[id] + (x[id] - previousX[id]) * alpha;
+    }
+
+    /**
+     * Gets the y coordinate of an object between its previous and its current position.
+     *
+     * @param id The id of the object
+     * @param alpha The fraction of the way from the previous to the current position, between 0 and 1
+     * @return The interpolated y coordinate
+     */
+    public float getInterpolatedY(int id, float alpha) {
+        return previousY[id] + (y[id] - previousY[id]) * alpha;
+    }
+
+    /**
+     * Gets the rotation of an object between its previous and its current rotation.
+     *
+     * @param id The id of the object
+     * @param alpha The fraction of the way from the previous to the current rotation, between 0 and 1
+     * @return The interpolated rotation in degrees
+     */
+    public float getInterpolatedRotation(int id, float alpha) {
+        return previousRotation[id] + (rotation[id] - previousRotation[id]) * alpha;
+    }
+
+    /**
+     * Gets the game object with an id.
+     *
+     * @param id The id of the object
+     * @return The game object, or null if the id is not in use
+     */
+    public GameObject getGameObject(int id) {
+        return objects[id];
+    }
+
+    /**
+     * Gets the upper bound of the ids in use.
+     * All ids in use are smaller than this, but some ids below it may be free.
+     *
+     * @return The upper bound of the ids
+     */
+    public int getBound() {
+        return bound;
+    }
+
+    /**
+     * Gets the number of game objects in the store.
+     *
+     * @return The number of game objects
+     */
+    public int size() {
+        return bound - freeCount;
+    }
+
+    /**
+     * Gets the number of game objects the store can hold before it has to grow.
+     *
+     * @return The capacity
+     */
+    public int getCapacity() {
+        return x.length;
+    }
+
+    /**
+     * Makes sure that the store can hold a number of objects without growing again,
+     * e.g. before adding many objects at once.
+     *
+     * @param capacity The number of objects the store must be able to hold
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity > x.length) {
+            resize(Math.max(capacity, x.length * 2));
+        }
+    }
+
+    /**
+     * Changes the capacity of the store.
+     *
+     * @param capacity The new capacity, which must not be smaller than the current one
+     */
+    private void resize(int capacity) {
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        rotation = Arrays.copyOf(rotation, capacity);
+        previousX = Arrays.copyOf(previousX, capacity);
+        previousY = Arrays.copyOf(previousY, capacity);
+        previousRotation = Arrays.copyOf(previousRotation, capacity);
+        objects = Arrays.copyOf(objects, capacity);
+        freeIds = Arrays.copyOf(freeIds, capacity);
+    }
+}
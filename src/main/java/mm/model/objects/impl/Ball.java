@@ -4,8 +4,10 @@ import javafx.geometry.Point2D;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 import mm.model.objects.DynamicObject;
-import org.jbox2d.collision.shapes.CircleShape;
-import org.jbox2d.collision.shapes.Shape;
+import mm.model.objects.FixtureTemplate;
+import mm.model.objects.FixtureTemplates;
+import mm.model.objects.ObjectKind;
+import mm.model.physics.Units;
 
 /**
  * A ball is a dynamic object that can roll and bounce.
@@ -34,7 +36,7 @@ public class Ball extends DynamicObject {
      * @return A bouncy ball
      */
     public static Ball createBouncyBall(Point2D position, float radius) {
-        return new Ball(position, 0, radius, 0.8f, 0.1f, 0.9f, Color.BLUE);
+        return ObjectKind.BOUNCY_BALL.assign(new Ball(position, 0, radius, 0.8f, 0.1f, 0.9f, Color.BLUE));
     }
     
     /**
@@ -45,7 +47,7 @@ public class Ball extends DynamicObject {
      * @return A heavy ball
      */
     public static Ball createHeavyBall(Point2D position, float radius) {
-        return new Ball(position, 0, radius, 5.0f, 0.5f, 0.2f, Color.DARKGRAY);
+        return ObjectKind.HEAVY_BALL.assign(new Ball(position, 0, radius, 5.0f, 0.5f, 0.2f, Color.DARKGRAY));
     }
     
     /**
@@ -66,20 +68,18 @@ public class Ball extends DynamicObject {
     }
     
     @Override
-    protected Shape createShape() {
-        // Create a circle shape
-        CircleShape shape = new CircleShape();
-        shape.setRadius(radius);
-        return shape;
+    protected FixtureTemplate getFixtureTemplate() {
+        // A circle shape
+        return FixtureTemplates.circle(Units.toMeters(radius), getDensity(), getFriction(), getRestitution());
     }
     
     @Override
-    public void render(GraphicsContext context) {
+    public void render(GraphicsContext context, double x, double y, float rotation) {
         // Save the current state
         context.save();
         
         // Translate to the position
-        context.translate(getPosition().getX(), getPosition().getY());
+        context.translate(x, y);
         
         // Draw the ball
         context.setFill(color);
@@ -91,12 +91,17 @@ public class Ball extends DynamicObject {
         
         // Draw a line to show rotation
         context.setStroke(Color.WHITE);
-        context.strokeLine(0, 0, radius * Math.cos(Math.toRadians(getRotation())), radius * Math.sin(Math.toRadians(getRotation())));
+        context.strokeLine(0, 0, radius * Math.cos(Math.toRadians(rotation)), radius * Math.sin(Math.toRadians(rotation)));
         
         // Restore the state
         context.restore();
     }
     
+    @Override
+    public float getBoundingRadius() {
+        return radius;
+    }
+    
     /**
      * Gets the radius of the ball.
      *
@@ -3,12 +3,12 @@ package mm.model.objects.impl;
 import javafx.geometry.Point2D;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
+import mm.model.objects.FixtureTemplates;
 import mm.model.objects.SpecialObject;
-import org.jbox2d.collision.shapes.CircleShape;
+import mm.model.physics.PhysicsWorld;
+import mm.model.physics.Units;
 import org.jbox2d.common.Vec2;
-import org.jbox2d.dynamics.BodyDef;
 import org.jbox2d.dynamics.BodyType;
-import org.jbox2d.dynamics.FixtureDef;
 import org.jbox2d.dynamics.World;
 
 /**
@@ -16,18 +16,26 @@ import org.jbox2d.dynamics.World;
  * It applies a constant upward force to simulate buoyancy.
  */
 public class Balloon extends SpecialObject {
+    /**
+     * The default buoyancy force as a multiple of the weight of the balloon at the default gravity.
+     * Without anything attached, a balloon rises with half of the acceleration of gravity.
+     */
+    public static final float DEFAULT_LIFT = 1.5f;
+    private static final float DENSITY = 0.2f;
+    
     private final float radius;
     private final float buoyancyForce;
     private final Color color;
+    private final Vec2 force;
     
     /**
-     * Creates a new balloon.
+     * Creates a new balloon with the default buoyancy force for its size.
      *
      * @param position The position of the balloon
      * @param radius The radius of the balloon
      */
     public Balloon(Point2D position, float radius) {
-        this(position, 0, radius, 10.0f, Color.YELLOW);
+        this(position, 0, radius, getDefaultBuoyancyForce(radius), Color.YELLOW);
     }
     
     /**
@@ -36,7 +44,7 @@ public class Balloon extends SpecialObject {
      * @param position The position of the balloon
      * @param rotation The rotation of the balloon in degrees
      * @param radius The radius of the balloon
-     * @param buoyancyForce The upward force applied to the balloon
+     * @param buoyancyForce The upward force applied to the balloon in newtons
      * @param color The color of the balloon
      */
     public Balloon(Point2D position, float rotation, float radius, float buoyancyForce, Color color) {
@@ -44,48 +52,30 @@ public class Balloon extends SpecialObject {
         this.radius = radius;
         this.buoyancyForce = buoyancyForce;
         this.color = color;
+        this.force = new Vec2(0, -buoyancyForce);
     }
     
     @Override
     public void createPhysicsBody(World world) {
-        // Create a dynamic body definition
-        BodyDef bodyDef = new BodyDef();
-        bodyDef.type = BodyType.DYNAMIC;
-        bodyDef.position.set((float) getPosition().getX(), (float) getPosition().getY());
-        bodyDef.angle = (float) Math.toRadians(getRotation());
-        
-        // Create the body
-        setPhysicsBody(world.createBody(bodyDef));
-        
-        // Create the fixture
-        CircleShape shape = new CircleShape();
-        shape.setRadius(radius);
-        
-        FixtureDef fixtureDef = new FixtureDef();
-        fixtureDef.shape = shape;
-        fixtureDef.density = 0.2f; // Light density
-        fixtureDef.friction = 0.3f;
-        fixtureDef.restitution = 0.5f;
-        
-        getPhysicsBody().createFixture(fixtureDef);
+        // Create a dynamic body with a light, shared circle fixture
+        FixtureTemplates.circle(Units.toMeters(radius), DENSITY, 0.3f, 0.5f).createFixture(createBody(world, BodyType.DYNAMIC));
     }
     
     @Override
     public void updateSpecialBehavior(World world, float deltaTime) {
         if (getPhysicsBody() != null) {
-            // Apply an upward force to simulate buoyancy
-            Vec2 force = new Vec2(0, -buoyancyForce);
+            // Apply an upward force to simulate buoyancy, reusing the force vector every step
             getPhysicsBody().applyForceToCenter(force);
         }
     }
     
     @Override
-    public void render(GraphicsContext context) {
+    public void render(GraphicsContext context, double x, double y, float rotation) {
         // Save the current state
         context.save();
         
         // Translate to the position
-        context.translate(getPosition().getX(), getPosition().getY());
+        context.translate(x, y);
         
         // Draw the balloon
         context.setFill(color);
@@ -103,6 +93,12 @@ public class Balloon extends SpecialObject {
         context.restore();
     }
     
+    @Override
+    public float getBoundingRadius() {
+        // The string hangs below the balloon
+        return radius * 2;
+    }
+    
     /**
      * Gets the radius of the balloon.
      *
@@ -115,12 +111,24 @@ public class Balloon extends SpecialObject {
     /**
      * Gets the buoyancy force of the balloon.
      *
-     * @return The buoyancy force
+     * @return The buoyancy force in newtons
      */
     public float getBuoyancyForce() {
         return buoyancyForce;
     }
     
+    /**
+     * Computes the default buoyancy force of a balloon from its mass, see {@link #DEFAULT_LIFT}.
+     *
+     * @param radius The radius of the balloon in pixels
+     * @return The buoyancy force in newtons
+     */
+    public static float getDefaultBuoyancyForce(float radius) {
+        float meters = Units.toMeters(radius);
+        float mass = DENSITY * (float) Math.PI * meters * meters;
+        return DEFAULT_LIFT * mass * PhysicsWorld.DEFAULT_GRAVITY;
+    }
+    
     /**
      * Gets the color of the balloon.
      *
@@ -4,8 +4,10 @@ import javafx.geometry.Point2D;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 import mm.model.objects.DynamicObject;
-import org.jbox2d.collision.shapes.PolygonShape;
-import org.jbox2d.collision.shapes.Shape;
+import mm.model.objects.FixtureTemplate;
+import mm.model.objects.FixtureTemplates;
+import mm.model.objects.ObjectKind;
+import mm.model.physics.Units;
 
 /**
  * A box is a dynamic object that can be used in puzzles.
@@ -37,7 +39,7 @@ public class Box extends DynamicObject {
      * @return A light box
      */
     public static Box createLightBox(Point2D position, float width, float height) {
-        return new Box(position, 0, width, height, 0.5f, 0.3f, 0.4f, Color.LIGHTBLUE);
+        return ObjectKind.LIGHT_BOX.assign(new Box(position, 0, width, height, 0.5f, 0.3f, 0.4f, Color.LIGHTBLUE));
     }
     
     /**
@@ -49,7 +51,7 @@ public class Box extends DynamicObject {
      * @return A heavy box
      */
     public static Box createHeavyBox(Point2D position, float width, float height) {
-        return new Box(position, 0, width, height, 5.0f, 0.5f, 0.1f, Color.DARKGRAY);
+        return ObjectKind.HEAVY_BOX.assign(new Box(position, 0, width, height, 5.0f, 0.5f, 0.1f, Color.DARKGRAY));
     }
     
     /**
@@ -73,21 +75,20 @@ public class Box extends DynamicObject {
     }
     
     @Override
-    protected Shape createShape() {
-        // Create a box shape
-        PolygonShape shape = new PolygonShape();
-        shape.setAsBox(width / 2, height / 2); // Half-width and half-height
-        return shape;
+    protected FixtureTemplate getFixtureTemplate() {
+        // A box shape with half the width and half the height
+        return FixtureTemplates.box(Units.toMeters(width / 2), Units.toMeters(height / 2),
+                getDensity(), getFriction(), getRestitution());
     }
     
     @Override
-    public void render(GraphicsContext context) {
+    public void render(GraphicsContext context, double x, double y, float rotation) {
         // Save the current state
         context.save();
         
         // Translate and rotate
-        context.translate(getPosition().getX(), getPosition().getY());
-        context.rotate(getRotation());
+        context.translate(x, y);
+        context.rotate(rotation);
         
         // Draw the box
         context.setFill(color);
@@ -105,6 +106,11 @@ public class Box extends DynamicObject {
         context.restore();
     }
     
+    @Override
+    public float getBoundingRadius() {
+        return (float) Math.hypot(width, height) / 2;
+    }
+    
     /**
      * Gets the width of the box.
      *
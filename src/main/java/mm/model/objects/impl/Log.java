@@ -3,9 +3,10 @@ package mm.model.objects.impl;
 import javafx.geometry.Point2D;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
+import mm.model.objects.FixtureTemplate;
+import mm.model.objects.FixtureTemplates;
 import mm.model.objects.StaticObject;
-import org.jbox2d.collision.shapes.PolygonShape;
-import org.jbox2d.collision.shapes.Shape;
+import mm.model.physics.Units;
 
 /**
  * A log is a static object that can be used as a platform or barrier.
@@ -30,21 +31,19 @@ public class Log extends StaticObject {
     }
     
     @Override
-    protected Shape createShape() {
-        // Create a box shape (approximation of a log)
-        PolygonShape shape = new PolygonShape();
-        shape.setAsBox(length / 2, diameter / 2); // Half-length and half-diameter
-        return shape;
+    protected FixtureTemplate getFixtureTemplate() {
+        // A box shape (approximation of a log) with half the length and half the diameter
+        return FixtureTemplates.box(Units.toMeters(length / 2), Units.toMeters(diameter / 2), 0, FRICTION, RESTITUTION);
     }
     
     @Override
-    public void render(GraphicsContext context) {
+    public void render(GraphicsContext context, double x, double y, float rotation) {
         // Save the current state
         context.save();
         
         // Translate and rotate
-        context.translate(getPosition().getX(), getPosition().getY());
-        context.rotate(getRotation());
+        context.translate(x, y);
+        context.rotate(rotation);
         
         // Draw the log body (rectangle)
         context.setFill(Color.SADDLEBROWN);
@@ -58,8 +57,8 @@ public class Log extends StaticObject {
         context.setStroke(Color.BROWN.darker());
         context.setLineWidth(1);
         for (int i = 0; i < 5; i++) {
-            float y = -diameter / 2 + (i + 1) * diameter / 6;
-            context.strokeLine(-length / 2, y, length / 2, y);
+            float grainY = -diameter / 2 + (i + 1) * diameter / 6;
+            context.strokeLine(-length / 2, grainY, length / 2, grainY);
         }
         
         // Draw a border
@@ -73,6 +72,11 @@ public class Log extends StaticObject {
         context.restore();
     }
     
+    @Override
+    public float getBoundingRadius() {
+        return (float) Math.hypot(length, diameter) / 2;
+    }
+    
     /**
      * Gets the length of the log.
      *
@@ -3,9 +3,10 @@ package mm.model.objects.impl;
 import javafx.geometry.Point2D;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
+import mm.model.objects.FixtureTemplate;
+import mm.model.objects.FixtureTemplates;
 import mm.model.objects.StaticObject;
-import org.jbox2d.collision.shapes.PolygonShape;
-import org.jbox2d.collision.shapes.Shape;
+import mm.model.physics.Units;
 
 /**
  * A plank is a static object that can be used as a platform or barrier.
@@ -30,21 +31,19 @@ public class Plank extends StaticObject {
     }
     
     @Override
-    protected Shape createShape() {
-        // Create a box shape
-        PolygonShape shape = new PolygonShape();
-        shape.setAsBox(width / 2, height / 2); // Half-width and half-height
-        return shape;
+    protected FixtureTemplate getFixtureTemplate() {
+        // A box shape with half the width and half the height
+        return FixtureTemplates.box(Units.toMeters(width / 2), Units.toMeters(height / 2), 0, FRICTION, RESTITUTION);
     }
     
     @Override
-    public void render(GraphicsContext context) {
+    public void render(GraphicsContext context, double x, double y, float rotation) {
         // Save the current state
         context.save();
         
         // Translate and rotate
-        context.translate(getPosition().getX(), getPosition().getY());
-        context.rotate(getRotation());
+        context.translate(x, y);
+        context.rotate(rotation);
         
         // Draw the plank
         context.setFill(Color.BROWN);
@@ -58,6 +57,11 @@ public class Plank extends StaticObject {
         context.restore();
     }
     
+    @Override
+    public float getBoundingRadius() {
+        return (float) Math.hypot(width, height) / 2;
+    }
+    
     /**
      * Gets the width of the plank.
      *
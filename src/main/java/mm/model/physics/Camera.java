@@ -0,0 +1,207 @@
+package mm.model.physics;
+
+import javafx.geometry.Point2D;
+import javafx.geometry.Rectangle2D;
+
+/**
+ * The part of a level that is shown on the screen.
+ *
+ * The camera maps level coordinates, the pixel coordinates the game objects are positioned in,
+ * to screen coordinates and back. It can be panned and zoomed, so levels can be larger than the
+ * canvas they are drawn on. Its visible area is used to draw only what is on the screen.
+ */
+public class Camera {
+    /**
+     * The smallest zoom factor, at which four level pixels are shown on one screen pixel.
+     */
+    public static final double MIN_ZOOM = 0.25;
+    /**
+     * The largest zoom factor, at which one level pixel covers four screen pixels.
+     */
+    public static final double MAX_ZOOM = 4.0;
+
+    private double x;
+    private double y;
+    private double zoom;
+    private double viewportWidth;
+    private double viewportHeight;
+    private long changeCount;
+
+    /**
+     * Creates a new camera that shows the level from its origin without zoom.
+     * The viewport is empty until its size is set.
+     */
+    public Camera() {
+        this(0, 0);
+    }
+
+    /**
+     * Creates a new camera that shows the level from its origin without zoom.
+     *
+     * @param viewportWidth The width of the viewport in screen pixels
+     * @param viewportHeight The height of the viewport in screen pixels
+     */
+    public Camera(double viewportWidth, double viewportHeight) {
+        this.zoom = 1;
+        this.viewportWidth = viewportWidth;
+        this.viewportHeight = viewportHeight;
+    }
+
+    /**
+     * Sets the size of the viewport, e.g. after the canvas was resized.
+     *
+     * @param width The width of the viewport in screen pixels
+     * @param height The height of the viewport in screen pixels
+     */
+    public void setViewportSize(double width, double height) {
+        if (width != viewportWidth || height != viewportHeight) {
+            viewportWidth = width;
+            viewportHeight = height;
+            changeCount++;
+        }
+    }
+
+    /**
+     * Moves the camera so that the given level point is shown at the top left corner of the viewport.
+     *
+     * @param x The x coordinate in level coordinates
+     * @param y The y coordinate in level coordinates
+     */
+    public void setPosition(double x, double y) {
+        if (x != this.x || y != this.y) {
+            this.x = x;
+            this.y = y;
+            changeCount++;
+        }
+    }
+
+    /**
+     * Pans the camera by a distance on the screen, e.g. the distance the mouse was dragged.
+     * The level moves with the mouse, so the camera moves in the opposite direction.
+     *
+     * @param screenDeltaX The horizontal distance in screen pixels
+     * @param screenDeltaY The vertical distance in screen pixels
+     */
+    public void pan(double screenDeltaX, double screenDeltaY) {
+        setPosition(x - screenDeltaX / zoom, y - screenDeltaY / zoom);
+    }
+
+    /**
+     * Zooms the camera by a factor while keeping the level point below a screen point in place,
+     * e.g. the point below the mouse cursor. The zoom is limited to {@link #MIN_ZOOM} and {@link #MAX_ZOOM}.
+     *
+     * @param screenX The x coordinate of the fixed point on the screen
+     * @param screenY The y coordinate of the fixed point on the screen
+     * @param factor The factor to multiply the zoom with
+     */
+    public void zoomAt(double screenX, double screenY, double factor) {
+        double newZoom = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, zoom * factor));
+        if (newZoom == zoom) {
+            return;
+        }
+        double levelX = x + screenX / zoom;
+        double levelY = y + screenY / zoom;
+        zoom = newZoom;
+        x = levelX - screenX / zoom;
+        y = levelY - screenY / zoom;
+        changeCount++;
+    }
+
+    /**
+     * Converts a point from screen coordinates to level coordinates.
+     *
+     * @param screenPoint The point in screen coordinates
+     * @return The point in level coordinates
+     */
+    public Point2D screenToWorld(Point2D screenPoint) {
+        return new Point2D(x + screenPoint.getX() / zoom, y + screenPoint.getY() / zoom);
+    }
+
+    /**
+     * Converts a point from level coordinates to screen coordinates.
+     *
+     * @param worldPoint The point in level coordinates
+     * @return The point in screen coordinates
+     */
+    public Point2D worldToScreen(Point2D worldPoint) {
+        return new Point2D((worldPoint.getX() - x) * zoom, (worldPoint.getY() - y) * zoom);
+    }
+
+    /**
+     * Gets the area of the level that is visible in the viewport.
+     *
+     * @return The visible area in level coordinates
+     */
+    public Rectangle2D getVisibleArea() {
+        return new Rectangle2D(x, y, viewportWidth / zoom, viewportHeight / zoom);
+    }
+
+    /**
+     * Checks whether a circle in level coordinates is at least partly visible.
+     * This does not allocate, so it can be used to cull every object of every frame.
+     *
+     * @param centerX The x coordinate of the center of the circle
+     * @param centerY The y coordinate of the center of the circle
+     * @param radius The radius of the circle
+     * @return True if the bounding square of the circle overlaps the visible area
+     */
+    public boolean isVisible(double centerX, double centerY, double radius) {
+        return centerX + radius >= x && centerX - radius <= x + viewportWidth / zoom
+                && centerY + radius >= y && centerY - radius <= y + viewportHeight / zoom;
+    }
+
+    /**
+     * Gets the x coordinate of the level point at the top left corner of the viewport.
+     *
+     * @return The x coordinate in level coordinates
+     */
+    public double getX() {
+        return x;
+    }
+
+    /**
+     * Gets the y coordinate of the level point at the top left corner of the viewport.
+     *
+     * @return The y coordinate in level coordinates
+     */
+    public double getY() {
+        return y;
+    }
+
+    /**
+     * Gets the zoom factor.
+     *
+     * @return The number of screen pixels per level pixel
+     */
+    public double getZoom() {
+        return zoom;
+    }
+
+    /**
+     * Gets the width of the viewport.
+     *
+     * @return The width in screen pixels, 0 if the size has not been set
+     */
+    public double getViewportWidth() {
+        return viewportWidth;
+    }
+
+    /**
+     * Gets the height of the viewport.
+     *
+     * @return The height in screen pixels, 0 if the size has not been set
+     */
+    public double getViewportHeight() {
+        return viewportHeight;
+    }
+
+    /**
+     * Gets a counter that changes whenever the camera was moved, zoomed or resized.
+     * Anything drawn through the camera stays valid while this counter is unchanged.
+     *
+     * @return The change counter
+     */
+    public long getChangeCount() {
+        return changeCount;
+    }
+}
@@ -0,0 +1,183 @@
+package mm.model.physics;
+
+import mm.model.objects.GameObject;
+import org.jbox2d.callbacks.ContactListener;
+import org.jbox2d.collision.AABB;
+import org.jbox2d.common.Vec2;
+import org.jbox2d.dynamics.Body;
+import org.jbox2d.dynamics.Fixture;
+import org.jbox2d.dynamics.World;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A part of a physics world that is simulated in a jBox2D world of its own.
+ *
+ * Bodies of different regions never touch, so the regions of a world can be stepped at the same
+ * time on different threads. Each region is also the task that steps it, which is reinitialized
+ * before every step, so stepping all regions in parallel does not allocate. After its step the
+ * region computes the bounding box of all its fixtures, which tells the physics world which
+ * regions have come close enough to be merged.
+ */
+final class PhysicsRegion extends RecursiveAction {
+    private final World world;
+    private final List<GameObject> gameObjects;
+    private final List<Body> sensorBodies;
+    private final AABB bounds;
+    private float timeStep;
+    private int velocityIterations;
+    private int positionIterations;
+
+    /**
+     * Creates a new empty region.
+     *
+     * @param gravity The gravity vector in meters per second squared
+     * @param contactListener The listener for the contacts of the region
+     */
+    PhysicsRegion(Vec2 gravity, ContactListener contactListener) {
+        world = new World(gravity);
+        world.setContactListener(contactListener);
+        gameObjects = new ArrayList<>();
+        sensorBodies = new ArrayList<>();
+        bounds = new AABB();
+        clearBounds();
+    }
+
+    /**
+     * Gets the jBox2D world of the region.
+     *
+     * @return The jBox2D world
+     */
+    World getWorld() {
+        return world;
+    }
+
+    /**
+     * Gets the game objects whose bodies are in this region.
+     *
+     * @return The modifiable list of game objects
+     */
+    List<GameObject> getGameObjects() {
+        return gameObjects;
+    }
+
+    /**
+     * Gets the sensor bodies in this region.
+     *
+     * @return The modifiable list of sensor bodies
+     */
+    List<Body> getSensorBodies() {
+        return sensorBodies;
+    }
+
+    /**
+     * Checks whether the region holds neither game objects nor sensors.
+     *
+     * @return True if the region is empty
+     */
+    boolean isEmpty() {
+        return gameObjects.isEmpty() && sensorBodies.isEmpty();
+    }
+
+    /**
+     * Gets the number of bodies in the region.
+     *
+     * @return The number of game objects and sensors
+     */
+    int size() {
+        return gameObjects.size() + sensorBodies.size();
+    }
+
+    /**
+     * Gets the bounding box of all fixtures of the region at the last step, grown by everything added since.
+     *
+     * @return The bounding box in meters
+     */
+    AABB getBounds() {
+        return bounds;
+    }
+
+    /**
+     * Grows the bounding box of the region to include another box.
+     *
+     * @param other The box in meters
+     */
+    void includeBounds(AABB other) {
+        bounds.lowerBound.x = Math.min(bounds.lowerBound.x, other.lowerBound.x);
+        bounds.lowerBound.y = Math.min(bounds.lowerBound.y, other.lowerBound.y);
+        bounds.upperBound.x = Math.max(bounds.upperBound.x, other.upperBound.x);
+        bounds.upperBound.y = Math.max(bounds.upperBound.y, other.upperBound.y);
+    }
+
+    /**
+     * Computes the bounding box of all fixtures of the region.
+     * jBox2D keeps the box of each fixture up to date while it moves, so this does not compute any shapes.
+     */
+    void updateBounds() {
+        clearBounds();
+        for (Body body = world.getBodyList(); body != null; body = body.getNext()) {
+            for (Fixture fixture = body.getFixtureList(); fixture != null; fixture = fixture.getNext()) {
+                for (int child = 0; child < fixture.getShape().getChildCount(); child++) {
+                    includeBounds(fixture.getAABB(child));
+                }
+            }
+        }
+    }
+
+    /**
+     * Makes the bounding box empty, so that including any box replaces it.
+     */
+    private void clearBounds() {
+        bounds.lowerBound.set(Float.MAX_VALUE, Float.MAX_VALUE);
+        bounds.upperBound.set(-Float.MAX_VALUE, -Float.MAX_VALUE);
+    }
+
+    /**
+     * Checks whether the bounding box of the region comes closer to another box than a distance.
+     *
+     * @param other The other box in meters
+     * @param distance The distance in meters
+     * @return True if the boxes are closer than the distance on both axes
+     */
+    boolean isNear(AABB other, float distance) {
+        return bounds.lowerBound.x - distance < other.upperBound.x && other.lowerBound.x - distance < bounds.upperBound.x
+                && bounds.lowerBound.y - distance < other.upperBound.y && other.lowerBound.y - distance < bounds.upperBound.y;
+    }
+
+    /**
+     * Computes the squared distance between the bounding box of the region and another box.
+     *
+     * @param other The other box in meters
+     * @return The squared distance in square meters, 0 if the boxes overlap
+     */
+    float distanceSquared(AABB other) {
+        float dx = Math.max(0, Math.max(bounds.lowerBound.x - other.upperBound.x, other.lowerBound.x - bounds.upperBound.x));
+        float dy = Math.max(0, Math.max(bounds.lowerBound.y - other.upperBound.y, other.lowerBound.y - bounds.upperBound.y));
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * Prepares the task of the region for the next step.
+     *
+     * @param timeStep The time step in seconds
+     * @param velocityIterations The number of velocity iterations
+     * @param positionIterations The number of position iterations
+     */
+    void prepareStep(float timeStep, int velocityIterations, int positionIterations) {
+        this.timeStep = timeStep;
+        this.velocityIterations = velocityIterations;
+        this.positionIterations = positionIterations;
+        reinitialize();
+    }
+
+    /**
+     * Steps the world of the region and computes its new bounding box.
+     */
+    @Override
+    protected void compute() {
+        world.step(timeStep, velocityIterations, positionIterations);
+        updateBounds();
+    }
+}
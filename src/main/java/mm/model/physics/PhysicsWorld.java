@@ -1,167 +1,1730 @@
 package mm.model.physics;
 
 import javafx.geometry.Point2D;
+import javafx.geometry.Rectangle2D;
 import mm.model.objects.GameObject;
+import mm.model.objects.ObjectKind;
 import mm.model.objects.SpecialObject;
+import mm.model.objects.TransformStore;
+import org.jbox2d.callbacks.ContactImpulse;
+import org.jbox2d.callbacks.ContactListener;
+import org.jbox2d.callbacks.QueryCallback;
+import org.jbox2d.collision.AABB;
+import org.jbox2d.collision.Manifold;
+import org.jbox2d.collision.shapes.PolygonShape;
+import org.jbox2d.collision.shapes.Shape;
+import org.jbox2d.common.Settings;
 import org.jbox2d.common.Vec2;
+import org.jbox2d.dynamics.Body;
+import org.jbox2d.dynamics.BodyDef;
+import org.jbox2d.dynamics.BodyType;
+import org.jbox2d.dynamics.Fixture;
+import org.jbox2d.dynamics.FixtureDef;
 import org.jbox2d.dynamics.World;
+import org.jbox2d.dynamics.contacts.Contact;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * A wrapper for the jBox2D physics world.
  * This class manages the physics simulation and game objects.
  * It provides methods for adding, removing, and updating game objects.
+ * The game objects are positioned in pixels while the jBox2D world works in meters, see {@link Units}.
  */
 public class PhysicsWorld {
-    private static final float TIME_STEP = 1.0f / 60.0f;
-    private static final int VELOCITY_ITERATIONS = 8;
-    private static final int POSITION_ITERATIONS = 3;
-    private static final float MAX_TIME_STEP = 0.05f; // Maximum time step to prevent instability
+    /**
+     * The downward acceleration of gravity in meters per second squared of a world created without a gravity.
+     */
+    public static final float DEFAULT_GRAVITY = 9.8f;
+    /**
+     * The distance in pixels around the visible area of the camera in which moving objects are still
+     * captured for drawing. It covers the parts of objects drawn outside of their fixtures and how far
+     * objects can move until the next snapshot, which is at most two meters per step.
+     */
+    public static final double RENDER_MARGIN = 100;
+    /**
+     * The largest number of regions a world is split into, see {@link #setRegionPool(ForkJoinPool)}.
+     * It does not depend on the machine, so a world is split in the same way everywhere.
+     */
+    public static final int MAX_REGIONS = 16;
+    
+    private static final int MIN_VELOCITY_ITERATIONS = 2;
+    private static final int MIN_POSITION_ITERATIONS = 1;
+    private static final int ADAPT_INTERVAL = 30; // Steps between two changes of the adaptive iterations
+    // How far a body can move in one step: jBox2D limits the translation of the solver and of the sub-step
+    // after a time of impact to the maximum translation each, and corrects positions by at most the correction
+    private static final float REGION_MARGIN = 2 * Settings.maxTranslation + Settings.maxLinearCorrection;
     
     private final World world;
-    private final List<GameObject> gameObjects;
+    private final ArrayList<GameObject> gameObjects;
+    private final List<GameObject> gameObjectsView;
+    private final List<ContactListener> contactListeners;
+    private final TransformStore transforms;
+    private Body[] syncedBodies;
+    private boolean[] awakeAtSync;
+    private int[] listIndex; // Index of each object in the list of all objects, by transform id
+    private int[] kindIndex; // Index of each object in the list of its kind, by transform id
+    private int[] familyIndex; // Index of each object in the list of its family, by transform id
+    private boolean stepping;
+    private final List<GameObject> pendingAdds;
+    private final List<GameObject> pendingRemoves;
+    private final List<GameObject> movedObjects;
+    private final List<GameObject> movedObjectsView;
+    private int awakeCount;
+    private long changeCount;
+    private long staticChangeCount;
+    private List<GameObject>[] gameObjectsByKind;
+    private List<GameObject>[] gameObjectsByKindViews;
     private float accumulatedTime;
     private float gravityScale;
+    private long stepCount;
+    private SimulationProfile profile;
+    private float timeStep;
+    private int velocityIterations;
+    private int positionIterations;
+    private long stepTimeBudgetNanos;
+    private float averageStepNanos;
+    private int stepsSinceAdapt;
+    private OverloadMode overloadMode = OverloadMode.DROP;
+    private int maxSubSteps;
+    private int lastSubSteps;
+    private long lastStepNanos;
+    private double droppedTime;
+    private long overloadedUpdates;
+    private Camera camera;
+    private final AreaQuery areaQuery;
+    private final List<GameObject> renderCandidates;
+    private int[] renderIds;
+    private final List<Body> sensorBodies; // Sensors of a world that is not split into regions
+    private ForkJoinPool regionPool;
+    private final List<PhysicsRegion> regions;
+    private PhysicsRegion[] regionOf; // Region of each object, by transform id
+    private int[] regionIndex; // Index of each object in the list of its region, by transform id
+    private boolean splitPending;
+    private final List<PhysicsRegion> nearRegions;
+    private final AABB objectBounds;
+    private final RegionStep regionStep;
+    private final ContactListener regionDispatcher;
+    private final Map<GameObject, Boolean> restoreMarks; // Objects of a snapshot that is being restored
+    private final Vec2 restoreBuffer;
+    
+    /**
+     * Creates a new physics world with default gravity.
+     */
+    public PhysicsWorld() {
+        this(SimulationProfile.INTERACTIVE);
+    }
+    
+    /**
+     * Creates a new physics world with default gravity and custom simulation settings.
+     *
+     * @param profile The simulation profile
+     */
+    public PhysicsWorld(SimulationProfile profile) {
+        this(new Vec2(0, DEFAULT_GRAVITY), profile);
+    }
+    
+    /**
+     * Creates a new physics world with custom gravity.
+     *
+     * @param gravity The gravity vector in meters per second squared
+     */
+    public PhysicsWorld(Vec2 gravity) {
+        this(gravity, SimulationProfile.INTERACTIVE);
+    }
+    
+    /**
+     * Creates a new physics world with custom gravity and simulation settings.
+     *
+     * @param gravity The gravity vector in meters per second squared
+     * @param profile The simulation profile
+     */
+    public PhysicsWorld(Vec2 gravity, SimulationProfile profile) {
+        world = new World(gravity);
+        setProfile(profile);
+        gameObjects = new ArrayList<>();
+        gameObjectsView = Collections.unmodifiableList(gameObjects);
+        contactListeners = new ArrayList<>();
+        transforms = new TransformStore();
+        syncedBodies = new Body[transforms.getCapacity()];
+        awakeAtSync = new boolean[transforms.getCapacity()];
+        listIndex = new int[transforms.getCapacity()];
+        kindIndex = new int[transforms.getCapacity()];
+        familyIndex = new int[transforms.getCapacity()];
+        pendingAdds = new ArrayList<>();
+        pendingRemoves = new ArrayList<>();
+        movedObjects = new ArrayList<>();
+        movedObjectsView = Collections.unmodifiableList(movedObjects);
+        gameObjectsByKind = newKindLists(ObjectKind.count());
+        gameObjectsByKindViews = newKindLists(ObjectKind.count());
+        world.setContactListener(new ContactDispatcher());
+        camera = new Camera();
+        areaQuery = new AreaQuery();
+        renderCandidates = new ArrayList<>();
+        renderIds = new int[0];
+        sensorBodies = new ArrayList<>();
+        regions = new ArrayList<>();
+        regionOf = new PhysicsRegion[transforms.getCapacity()];
+        regionIndex = new int[transforms.getCapacity()];
+        nearRegions = new ArrayList<>();
+        objectBounds = new AABB();
+        regionStep = new RegionStep();
+        regionDispatcher = new SerialContactDispatcher();
+        restoreMarks = new IdentityHashMap<>();
+        restoreBuffer = new Vec2();
+    }
+    
+    /**
+     * Adds a listener that is notified about contacts in the physics world.
+     * The jBox2D world only supports a single listener, so all listeners must be added here.
+     * In a world that is split into regions, begin and end contact events are delivered one at a time,
+     * while pre-solve and post-solve events of different regions may arrive concurrently.
+     *
+     * @param listener The contact listener to add
+     */
+    public void addContactListener(ContactListener listener) {
+        contactListeners.add(listener);
+    }
+    
+    /**
+     * Removes a contact listener from the physics world.
+     *
+     * @param listener The contact listener to remove
+     */
+    public void removeContactListener(ContactListener listener) {
+        contactListeners.remove(listener);
+    }
+    
+    /**
+     * Adds a game object to the physics world.
+     * Objects added while the world is being stepped, e.g. by a special object or a contact
+     * listener, are added right after the step, because jBox2D cannot create bodies during a step.
+     * Objects that are already part of this world are ignored.
+     *
+     * @param gameObject The game object to add
+     */
+    public void addGameObject(GameObject gameObject) {
+        if (stepping) {
+            queueAdd(gameObject);
+            return;
+        }
+        if (addToWorld(gameObject)) {
+            changeCount++;
+            if (gameObject.isStatic()) {
+                staticChangeCount++;
+            }
+        }
+    }
+    
+    /**
+     * Adds many game objects to the physics world at once, e.g. when a level is loaded.
+     * The internal storage is grown once for all objects and their bodies are created in a single pass.
+     * Like {@link #addGameObject(GameObject)}, objects added during a step are added right after it.
+     *
+     * @param newObjects The game objects to add
+     */
+    public void addGameObjects(Collection<? extends GameObject> newObjects) {
+        if (stepping) {
+            for (GameObject gameObject : newObjects) {
+                queueAdd(gameObject);
+            }
+            return;
+        }
+        ensureCapacity(gameObjects.size() + newObjects.size());
+        boolean added = false;
+        boolean addedStatic = false;
+        for (GameObject gameObject : newObjects) {
+            if (addToWorld(gameObject)) {
+                added = true;
+                addedStatic |= gameObject.isStatic();
+            }
+        }
+        if (added) {
+            changeCount++;
+        }
+        if (addedStatic) {
+            staticChangeCount++;
+        }
+    }
+    
+    /**
+     * Queues a game object to be added right after the current step.
+     * An object is only queued once, and an object of this world that was queued for removal stays in it.
+     *
+     * @param gameObject The game object to add
+     */
+    private void queueAdd(GameObject gameObject) {
+        if (gameObject.getTransformStore() == transforms) {
+            pendingRemoves.remove(gameObject);
+        } else if (!pendingAdds.contains(gameObject)) {
+            pendingAdds.add(gameObject);
+        }
+    }
+    
+    /**
+     * Makes sure that the world can hold a number of game objects without growing its storage again.
+     *
+     * @param capacity The number of game objects the world must be able to hold
+     */
+    public void ensureCapacity(int capacity) {
+        gameObjects.ensureCapacity(capacity);
+        transforms.ensureCapacity(capacity);
+        growIdArrays();
+    }
+    
+    /**
+     * Grows the arrays indexed by transform id to the capacity of the transform store.
+     */
+    private void growIdArrays() {
+        int capacity = transforms.getCapacity();
+        if (syncedBodies.length < capacity) {
+            syncedBodies = Arrays.copyOf(syncedBodies, capacity);
+            awakeAtSync = Arrays.copyOf(awakeAtSync, capacity);
+            listIndex = Arrays.copyOf(listIndex, capacity);
+            kindIndex = Arrays.copyOf(kindIndex, capacity);
+            familyIndex = Arrays.copyOf(familyIndex, capacity);
+            regionOf = Arrays.copyOf(regionOf, capacity);
+            regionIndex = Arrays.copyOf(regionIndex, capacity);
+        }
+    }
+    
+    /**
+     * Creates the body of a game object and adds the object to all lists, without counting the change.
+     *
+     * @param gameObject The game object to add
+     * @return True if the object was added, false if it already is part of this world
+     * @throws IllegalArgumentException If the object is part of another physics world
+     */
+    private boolean addToWorld(GameObject gameObject) {
+        if (gameObject.getTransformStore() == transforms) {
+            // A second body would be left behind in the jBox2D world
+            return false;
+        }
+        if (gameObject.getTransformStore() != null) {
+            throw new IllegalArgumentException("The game object is already part of another physics world");
+        }
+        if (regionPool != null && gameObjects.isEmpty()) {
+            // The first objects of a level are split into regions before the next step
+            splitPending = true;
+        }
+        PhysicsRegion region = regionPool != null ? findRegion(gameObject) : null;
+        gameObject.createPhysicsBody(region != null ? region.getWorld() : world);
+        if (gameObject.getPhysicsBody() != null) {
+            // Lets queries on the world map fixtures back to their game objects
+            gameObject.getPhysicsBody().setUserData(gameObject);
+        }
+        
+        int id = transforms.add(gameObject);
+        growIdArrays();
+        // Static objects never move, so their transforms are not synchronized
+        syncedBodies[id] = gameObject.isStatic() ? null : gameObject.getPhysicsBody();
+        awakeAtSync[id] = syncedBodies[id] != null && syncedBodies[id].isAwake();
+        
+        // The positions in the lists make removing an object take constant time
+        listIndex[id] = gameObjects.size();
+        gameObjects.add(gameObject);
+        ObjectKind kind = gameObject.getKind();
+        List<GameObject> kindObjects = kindList(kind);
+        kindIndex[id] = kindObjects.size();
+        kindObjects.add(gameObject);
+        if (kind.getFamily() != null) {
+            List<GameObject> familyObjects = kindList(kind.getFamily());
+            familyIndex[id] = familyObjects.size();
+            familyObjects.add(gameObject);
+        }
+        if (region != null) {
+            regionOf[id] = region;
+            regionIndex[id] = region.getGameObjects().size();
+            region.getGameObjects().add(gameObject);
+        }
+        return true;
+    }
+    
+    /**
+     * Removes a game object from the physics world.
+     * This takes constant time: the last object of each list takes the place of the removed one.
+     * Objects removed while the world is being stepped are removed right after the step.
+     *
+     * @param gameObject The game object to remove
+     */
+    public void removeGameObject(GameObject gameObject) {
+        if (stepping) {
+            if (!pendingAdds.remove(gameObject) && gameObject.getTransformStore() == transforms
+                    && !pendingRemoves.contains(gameObject)) {
+                pendingRemoves.add(gameObject);
+            }
+            return;
+        }
+        if (removeFromWorld(gameObject)) {
+            changeCount++;
+            if (gameObject.isStatic()) {
+                staticChangeCount++;
+            }
+        }
+    }
+    
+    /**
+     * Removes many game objects from the physics world at once.
+     * Like {@link #removeGameObject(GameObject)}, objects removed during a step are removed right after it.
+     *
+     * @param oldObjects The game objects to remove
+     */
+    public void removeGameObjects(Collection<? extends GameObject> oldObjects) {
+        if (stepping) {
+            for (GameObject gameObject : oldObjects) {
+                removeGameObject(gameObject);
+            }
+            return;
+        }
+        boolean removed = false;
+        boolean removedStatic = false;
+        for (GameObject gameObject : oldObjects) {
+            if (removeFromWorld(gameObject)) {
+                removed = true;
+                removedStatic |= gameObject.isStatic();
+            }
+        }
+        if (removed) {
+            changeCount++;
+        }
+        if (removedStatic) {
+            staticChangeCount++;
+        }
+    }
+    
+    /**
+     * Destroys the body of a game object and removes the object from all lists, without counting the change.
+     *
+     * @param gameObject The game object to remove
+     * @return True if the object was part of this world, false otherwise
+     */
+    private boolean removeFromWorld(GameObject gameObject) {
+        if (gameObject.getTransformStore() != transforms) {
+            return false;
+        }
+        int id = gameObject.getTransformId();
+        if (gameObject.getPhysicsBody() != null) {
+            worldOf(id).destroyBody(gameObject.getPhysicsBody());
+        }
+        if (regionOf[id] != null) {
+            PhysicsRegion region = regionOf[id];
+            swapRemove(region.getGameObjects(), regionIndex[id], regionIndex);
+            regionOf[id] = null;
+            if (region.isEmpty()) {
+                regions.remove(region);
+            }
+        }
+        swapRemove(gameObjects, listIndex[id], listIndex);
+        ObjectKind kind = gameObject.getKind();
+        swapRemove(kindList(kind), kindIndex[id], kindIndex);
+        if (kind.getFamily() != null) {
+            swapRemove(kindList(kind.getFamily()), familyIndex[id], familyIndex);
+        }
+        transforms.remove(gameObject);
+        syncedBodies[id] = null;
+        awakeAtSync[id] = false;
+        return true;
+    }
+    
+    /**
+     * Removes an object from a list by moving the last object of the list into its place.
+     *
+     * @param list The list
+     * @param index The index of the object to remove
+     * @param indices The indices of the objects in the list, by transform id
+     */
+    private static void swapRemove(List<GameObject> list, int index, int[] indices) {
+        int last = list.size() - 1;
+        GameObject moved = list.get(last);
+        list.set(index, moved);
+        indices[moved.getTransformId()] = index;
+        list.remove(last);
+    }
+    
+    /**
+     * Applies the additions and removals that were requested during the last step.
+     */
+    private void applyPendingChanges() {
+        if (!pendingRemoves.isEmpty()) {
+            removeGameObjects(pendingRemoves);
+            pendingRemoves.clear();
+        }
+        if (!pendingAdds.isEmpty()) {
+            addGameObjects(pendingAdds);
+            pendingAdds.clear();
+        }
+    }
+    
+    /**
+     * Updates the physics simulation.
+     * Uses a fixed time step for more stable physics.
+     *
+     * To keep a slow machine from falling further and further behind, at most
+     * {@link #getMaxSubSteps()} steps are simulated per update and frames longer than the
+     * maximum frame time of the profile are cut. What happens to the time that could not be
+     * simulated depends on the {@link OverloadMode}. All time that is given up is counted in
+     * {@link #getDroppedTime()}.
+     *
+     * @param deltaTime The time elapsed since the last update in seconds
+     */
+    public void update(float deltaTime) {
+        // Limit the maximum time step to prevent instability
+        float maxFrameTime = profile.getMaxFrameTime();
+        if (deltaTime > maxFrameTime) {
+            droppedTime += deltaTime - maxFrameTime;
+            deltaTime = maxFrameTime;
+        }
+        accumulatedTime += deltaTime;
+        
+        // Update with fixed time steps for stability
+        int maxSteps = getMaxSubSteps();
+        int steps = 0;
+        while (accumulatedTime >= timeStep && steps < maxSteps) {
+            if (accumulatedTime < 2 * timeStep || steps == maxSteps - 1) {
+                // The pose before the last step of this update is where interpolation starts
+                storePreviousTransforms();
+            }
+            stepPhysics();
+            accumulatedTime -= timeStep;
+            steps++;
+        }
+        lastSubSteps = steps;
+        
+        if (accumulatedTime >= timeStep) {
+            // The step budget is used up
+            overloadedUpdates++;
+            float limit = overloadMode == OverloadMode.DROP ? accumulatedTime % timeStep : maxFrameTime;
+            if (accumulatedTime > limit) {
+                droppedTime += accumulatedTime - limit;
+                accumulatedTime = limit;
+            }
+        }
+        
+        syncGameObjects();
+    }
+    
+    /**
+     * Advances the simulation by exactly one fixed time step, independent of wall-clock time.
+     * This is used by headless simulations which run as fast as possible.
+     */
+    public void step() {
+        storePreviousTransforms();
+        stepPhysics();
+        syncGameObjects();
+    }
+    
+    /**
+     * Stores the current poses of the bodies that can move as the previous transforms of their objects.
+     * Like {@link #syncGameObjects()}, this skips bodies that were already asleep at the last synchronization.
+     */
+    private void storePreviousTransforms() {
+        int bound = transforms.getBound();
+        for (int id = 0; id < bound; id++) {
+            Body body = syncedBodies[id];
+            if (body != null && (awakeAtSync[id] || body.isAwake())) {
+                Vec2 position = body.getPosition();
+                transforms.setPrevious(id, Units.toPixels(position.x), Units.toPixels(position.y),
+                        (float) Math.toDegrees(body.getAngle()));
+            }
+        }
+    }
+    
+    /**
+     * Performs a single fixed physics step including special object behavior.
+     */
+    private void stepPhysics() {
+        if (splitPending) {
+            splitRegions();
+        }
+        // Objects added or removed from here on are only changed after the step
+        stepping = true;
+        long start;
+        try {
+            // Update special objects (indexed loops avoid allocating iterators every step)
+            for (int i = 0; i < gameObjects.size(); i++) {
+                GameObject gameObject = gameObjects.get(i);
+                if (gameObject instanceof SpecialObject) {
+                    ((SpecialObject) gameObject).updateSpecialBehavior(worldOf(gameObject.getTransformId()), timeStep);
+                }
+            }
+            
+            // Step the physics simulation
+            start = System.nanoTime();
+            if (regionPool == null) {
+                world.step(timeStep, velocityIterations, positionIterations);
+            } else {
+                stepRegions();
+            }
+        } finally {
+            stepping = false;
+        }
+        lastStepNanos = System.nanoTime() - start;
+        averageStepNanos = averageStepNanos == 0 ? lastStepNanos : averageStepNanos * 0.9f + lastStepNanos * 0.1f;
+        if (stepTimeBudgetNanos > 0) {
+            adaptIterations();
+        }
+        if (regions.size() > 1) {
+            mergeApproachingRegions();
+        }
+        stepCount++;
+        applyPendingChanges();
+    }
+    
+    /**
+     * Steps the worlds of all regions, in parallel on the region pool if there is more than one.
+     */
+    private void stepRegions() {
+        for (int i = 0; i < regions.size(); i++) {
+            regions.get(i).prepareStep(timeStep, velocityIterations, positionIterations);
+        }
+        if (regions.size() == 1) {
+            // A single region is stepped on the calling thread
+            regions.get(0).invoke();
+        } else if (regions.size() > 1) {
+            regionStep.reinitialize();
+            regionPool.invoke(regionStep);
+        }
+    }
+    
+    /**
+     * Adapts the solver iterations to the time the steps take.
+     * The iterations are lowered while the average step takes longer than the budget and raised
+     * again, up to those of the profile, while it takes less than half of the budget.
+     */
+    private void adaptIterations() {
+        if (++stepsSinceAdapt < ADAPT_INTERVAL) {
+            return;
+        }
+        stepsSinceAdapt = 0;
+        if (averageStepNanos > stepTimeBudgetNanos) {
+            if (velocityIterations > MIN_VELOCITY_ITERATIONS) {
+                velocityIterations--;
+            } else if (positionIterations > MIN_POSITION_ITERATIONS) {
+                positionIterations--;
+            }
+        } else if (averageStepNanos < stepTimeBudgetNanos / 2.0f) {
+            if (positionIterations < profile.getPositionIterations()) {
+                positionIterations++;
+            } else if (velocityIterations < profile.getVelocityIterations()) {
+                velocityIterations++;
+            }
+        }
+    }
+    
+    /**
+     * Updates the transforms of the game objects whose bodies moved from their physics bodies.
+     * jBox2D does not move sleeping bodies, so only bodies that are awake or were awake at the
+     * last synchronization are copied into the transform store. The latter catches the last
+     * step before a body fell asleep. The synchronized objects are collected as the moved objects.
+     */
+    private void syncGameObjects() {
+        movedObjects.clear();
+        awakeCount = 0;
+        int bound = transforms.getBound();
+        for (int id = 0; id < bound; id++) {
+            Body body = syncedBodies[id];
+            if (body == null) {
+                continue;
+            }
+            boolean awake = body.isAwake();
+            if (awake || awakeAtSync[id]) {
+                Vec2 position = body.getPosition();
+                transforms.set(id, Units.toPixels(position.x), Units.toPixels(position.y),
+                        (float) Math.toDegrees(body.getAngle()));
+                if (!awake) {
+                    // A sleeping body stays where it is, so it must not be drawn between two poses
+                    transforms.storePrevious(id);
+                }
+                movedObjects.add(transforms.getGameObject(id));
+            }
+            if (awake) {
+                awakeCount++;
+            }
+            awakeAtSync[id] = awake;
+        }
+        if (!movedObjects.isEmpty()) {
+            changeCount++;
+        }
+    }
+    
+    /**
+     * Captures the positions and rotations of the moving game objects for drawing them on another thread.
+     * The poses are interpolated with the current {@link #getInterpolationAlpha() interpolation alpha},
+     * so they match the simulated time instead of the time of the last physics step.
+     *
+     * @param timeNanos The current time as returned by {@link System#nanoTime()}
+     * @return The new render snapshot
+     * @see #createRenderSnapshot(long, RenderSnapshot)
+     */
+    public RenderSnapshot createRenderSnapshot(long timeNanos) {
+        return createRenderSnapshot(timeNanos, null);
+    }
+    
+    /**
+     * Captures the positions and rotations of the moving game objects into an existing snapshot.
+     * If the camera has a viewport, only the objects the broadphase finds within {@link #RENDER_MARGIN}
+     * of its visible area are captured, so the cost of a snapshot and of drawing it follows what can be
+     * seen rather than the size of the level. Otherwise all moving objects are captured.
+     * The arrays of the snapshot are reused, so a simulation that fills the same few snapshots
+     * every tick does not allocate once they have grown to the number of objects.
+     *
+     * @param timeNanos The current time as returned by {@link System#nanoTime()}
+     * @param target The snapshot to fill, or null to create a new one
+     * @return The filled snapshot
+     */
+    public RenderSnapshot createRenderSnapshot(long timeNanos, RenderSnapshot target) {
+        RenderSnapshot snapshot = target != null ? target : new RenderSnapshot();
+        float alpha = getInterpolationAlpha();
+        if (camera.getViewportWidth() <= 0 || camera.getViewportHeight() <= 0) {
+            // The bound of the ids is an upper limit of the moving objects, so they are only visited once
+            int bound = transforms.getBound();
+            snapshot.reset(this, bound, timeNanos);
+            for (int id = 0; id < bound; id++) {
+                if (syncedBodies[id] != null) {
+                    addToSnapshot(snapshot, id, alpha);
+                }
+            }
+            return snapshot;
+        }
+        
+        double minX = camera.getX() - RENDER_MARGIN;
+        double minY = camera.getY() - RENDER_MARGIN;
+        double maxX = camera.getX() + camera.getViewportWidth() / camera.getZoom() + RENDER_MARGIN;
+        double maxY = camera.getY() + camera.getViewportHeight() / camera.getZoom() + RENDER_MARGIN;
+        queryArea(minX, minY, maxX, maxY, renderCandidates);
+        if (renderIds.length < renderCandidates.size()) {
+            renderIds = new int[Math.max(renderCandidates.size(), renderIds.length * 2)];
+        }
+        int count = 0;
+        for (int i = 0; i < renderCandidates.size(); i++) {
+            int id = renderCandidates.get(i).getTransformId();
+            if (syncedBodies[id] != null) {
+                renderIds[count++] = id;
+            }
+        }
+        renderCandidates.clear();
+        
+        // Sorted by id, the objects keep their order from one snapshot to the next, whatever order the broadphase reports
+        Arrays.sort(renderIds, 0, count);
+        snapshot.reset(this, count, timeNanos);
+        int lastId = -1;
+        for (int i = 0; i < count; i++) {
+            // A body is reported once per fixture
+            if (renderIds[i] != lastId) {
+                lastId = renderIds[i];
+                addToSnapshot(snapshot, lastId, alpha);
+            }
+        }
+        return snapshot;
+    }
+    
+    /**
+     * Adds the interpolated pose of a game object to a render snapshot.
+     *
+     * @param snapshot The render snapshot
+     * @param id The transform id of the game object
+     * @param alpha The interpolation alpha
+     */
+    private void addToSnapshot(RenderSnapshot snapshot, int id, float alpha) {
+        snapshot.add(transforms.getGameObject(id), id, transforms.getInterpolatedX(id, alpha),
+                transforms.getInterpolatedY(id, alpha), transforms.getInterpolatedRotation(id, alpha));
+    }
+    
+    /**
+     * Captures the state of all bodies, e.g. after a level was set up.
+     *
+     * @return The snapshot
+     */
+    public WorldSnapshot createSnapshot() {
+        return new WorldSnapshot(gameObjects, stepCount);
+    }
+    
+    /**
+     * Puts the world back into the state of a snapshot.
+     * Objects added after the snapshot are removed and objects removed since are added again.
+     * Only bodies whose state differs from the snapshot are touched, so restoring a world in which
+     * little has moved is much cheaper than building it again. The world keeps the map and the vector
+     * it needs for this, so resetting a level again and again does not allocate. A world split into
+     * regions is split again before the next step, because regions that were merged since may have come apart.
+     *
+     * @param snapshot The snapshot of this world
+     * @return The number of bodies that had to be restored or added again
+     */
+    public int restoreSnapshot(WorldSnapshot snapshot) {
+        Map<GameObject, Boolean> captured = restoreMarks;
+        for (int i = 0; i < snapshot.size(); i++) {
+            captured.put(snapshot.getGameObject(i), Boolean.TRUE);
+        }
+        for (int i = gameObjects.size() - 1; i >= 0; i--) {
+            GameObject gameObject = gameObjects.get(i);
+            if (captured.remove(gameObject) == null) {
+                removeGameObject(gameObject);
+            }
+        }
+        
+        // The objects left in the map were removed after the snapshot
+        ensureCapacity(snapshot.size());
+        int restored = 0;
+        for (int i = 0; i < snapshot.size(); i++) {
+            GameObject gameObject = snapshot.getGameObject(i);
+            if (captured.containsKey(gameObject)) {
+                addGameObject(gameObject);
+            } else if (gameObject.getPhysicsBody() == null || snapshot.matches(i, gameObject.getPhysicsBody())) {
+                continue;
+            }
+            snapshot.restore(i, gameObject.getPhysicsBody(), restoreBuffer);
+            gameObject.updateFromPhysics();
+            transforms.storePrevious(gameObject.getTransformId());
+            awakeAtSync[gameObject.getTransformId()] = gameObject.getPhysicsBody().isAwake();
+            restored++;
+        }
+        // Clearing keeps the table of the map for the next reset
+        captured.clear();
+        
+        changeCount++;
+        accumulatedTime = 0;
+        stepCount = snapshot.getStepCount();
+        // Regions merged since the snapshot may be apart again
+        splitPending = regionPool != null;
+        return restored;
+    }
+    
+    /**
+     * Gets the fixed time step used for each physics step.
+     *
+     * @return The time step in seconds
+     */
+    public float getTimeStep() {
+        return timeStep;
+    }
+    
+    /**
+     * Sets the simulation profile, which decides the fixed time step and the solver iterations.
+     * This also resets the iterations lowered by the adaptive mode to those of the profile.
+     *
+     * @param profile The simulation profile
+     */
+    public void setProfile(SimulationProfile profile) {
+        this.profile = profile;
+        this.timeStep = profile.getTimeStep();
+        this.velocityIterations = profile.getVelocityIterations();
+        this.positionIterations = profile.getPositionIterations();
+        this.accumulatedTime = Math.min(accumulatedTime, timeStep);
+        this.averageStepNanos = 0;
+        this.stepsSinceAdapt = 0;
+    }
+    
+    /**
+     * Gets the simulation profile.
+     *
+     * @return The simulation profile
+     */
+    public SimulationProfile getProfile() {
+        return profile;
+    }
+    
+    /**
+     * Enables the adaptive mode, in which the solver iterations are lowered while physics steps
+     * take longer than a budget, and raised again up to those of the profile when there is time left.
+     * Since the iterations then depend on the speed of the machine, simulations in adaptive mode
+     * are not reproducible and must not be used to validate solutions or record replays.
+     *
+     * @param stepTimeBudgetNanos The time a step may take in nanoseconds, or 0 to disable the adaptive mode
+     */
+    public void setStepTimeBudget(long stepTimeBudgetNanos) {
+        this.stepTimeBudgetNanos = Math.max(0, stepTimeBudgetNanos);
+        if (this.stepTimeBudgetNanos == 0) {
+            setProfile(profile);
+        }
+    }
+    
+    /**
+     * Gets the step time budget of the adaptive mode.
+     *
+     * @return The budget in nanoseconds, or 0 if the adaptive mode is disabled
+     */
+    public long getStepTimeBudget() {
+        return stepTimeBudgetNanos;
+    }
+    
+    /**
+     * Sets what happens to the time that could not be simulated because the step budget of an update was used up.
+     *
+     * @param overloadMode The overload mode
+     */
+    public void setOverloadMode(OverloadMode overloadMode) {
+        this.overloadMode = overloadMode;
+    }
+    
+    /**
+     * Gets what happens to the time that could not be simulated because the step budget of an update was used up.
+     *
+     * @return The overload mode
+     */
+    public OverloadMode getOverloadMode() {
+        return overloadMode;
+    }
+    
+    /**
+     * Sets the maximum number of fixed steps simulated in one update.
+     *
+     * @param maxSubSteps The maximum number of steps, or 0 to fit the maximum frame time of the profile
+     */
+    public void setMaxSubSteps(int maxSubSteps) {
+        this.maxSubSteps = Math.max(0, maxSubSteps);
+    }
+    
+    /**
+     * Gets the maximum number of fixed steps simulated in one update.
+     * Unless set explicitly, this is the number of steps that fit into the maximum frame time of the profile.
+     *
+     * @return The maximum number of steps
+     */
+    public int getMaxSubSteps() {
+        if (maxSubSteps > 0) {
+            return maxSubSteps;
+        }
+        return Math.max(1, Math.round(profile.getMaxFrameTime() / timeStep));
+    }
+    
+    /**
+     * Gets the number of fixed steps simulated by the last update.
+     *
+     * @return The number of steps
+     */
+    public int getLastSubSteps() {
+        return lastSubSteps;
+    }
+    
+    /**
+     * Gets the wall-clock time the last fixed step took in the physics engine.
+     *
+     * @return The time in nanoseconds
+     */
+    public long getLastStepNanos() {
+        return lastStepNanos;
+    }
+    
+    /**
+     * Gets the moving average of the wall-clock time the fixed steps take in the physics engine.
+     *
+     * @return The average time in nanoseconds
+     */
+    public float getAverageStepNanos() {
+        return averageStepNanos;
+    }
+    
+    /**
+     * Gets the total time that was given up instead of simulated, because frames were too long
+     * or the step budget of updates was used up. This is how far the simulated time has fallen
+     * behind the time passed to {@link #update(float)}.
+     *
+     * @return The dropped time in seconds
+     */
+    public double getDroppedTime() {
+        return droppedTime;
+    }
+    
+    /**
+     * Gets the number of updates that used up their step budget.
+     *
+     * @return The number of overloaded updates
+     */
+    public long getOverloadedUpdates() {
+        return overloadedUpdates;
+    }
+    
+    /**
+     * Resets the dropped time, the number of overloaded updates and the step timings.
+     */
+    public void resetMetrics() {
+        droppedTime = 0;
+        overloadedUpdates = 0;
+        lastSubSteps = 0;
+        lastStepNanos = 0;
+        averageStepNanos = 0;
+    }
+    
+    /**
+     * Gets the number of velocity iterations currently used per step.
+     *
+     * @return The number of velocity iterations
+     */
+    public int getVelocityIterations() {
+        return velocityIterations;
+    }
+    
+    /**
+     * Gets the number of position iterations currently used per step.
+     *
+     * @return The number of position iterations
+     */
+    public int getPositionIterations() {
+        return positionIterations;
+    }
+    
+    /**
+     * Gets how far the simulated time has progressed towards the next fixed physics step.
+     * Drawing objects at this fraction of the way from their previous to their current transform
+     * makes them move smoothly when the display rate differs from the physics rate. The poses in a
+     * render snapshot are interpolated with this alpha, so drawing code never interpolates itself.
+     *
+     * @return The interpolation alpha, between 0 and 1
+     * @see #createRenderSnapshot(long, RenderSnapshot)
+     */
+    public float getInterpolationAlpha() {
+        return Math.min(accumulatedTime / timeStep, 1);
+    }
+    
+    /**
+     * Gets the number of fixed physics steps performed since the world was created or cleared.
+     *
+     * @return The number of steps
+     */
+    public long getStepCount() {
+        return stepCount;
+    }
+    
+    /**
+     * Gets the game objects whose transforms were updated by the last update or step.
+     * Sleeping bodies do not move, so after a machine has settled this list is empty and
+     * callers can skip all work that depends on the positions of the objects.
+     * The returned list is a read-only view that is refilled by every update.
+     *
+     * @return A read-only view of the moved game objects
+     */
+    public List<GameObject> getMovedObjects() {
+        return movedObjectsView;
+    }
+    
+    /**
+     * Gets the number of non-static bodies that were awake at the last update or step.
+     *
+     * @return The number of awake bodies
+     */
+    public int getAwakeCount() {
+        return awakeCount;
+    }
+    
+    /**
+     * Checks whether all non-static bodies were asleep at the last update or step.
+     *
+     * @return True if nothing in the world moves anymore
+     */
+    public boolean isSettled() {
+        return awakeCount == 0;
+    }
+    
+    /**
+     * Gets a counter that changes whenever an object moved, was added or was removed.
+     * Comparing it with the value seen at the last frame tells whether anything has to be redrawn.
+     *
+     * @return The change counter
+     */
+    public long getChangeCount() {
+        return changeCount;
+    }
     
     /**
-     * Creates a new physics world with default gravity.
+     * Gets a counter that changes whenever a static object was added or removed.
+     * Static objects never move, so anything drawn from them stays valid while this counter is unchanged.
+     *
+     * @return The static change counter
      */
-    public PhysicsWorld() {
-        this(new Vec2(0, 9.8f)); // Default gravity (9.8 m/s^2 downward)
+    public long getStaticChangeCount() {
+        return staticChangeCount;
     }
     
     /**
-     * Creates a new physics world with custom gravity.
+     * Gets the game object whose shape contains a point.
+     * The candidates are found with the broad-phase tree of the jBox2D world, so this takes
+     * logarithmic time instead of checking every object. If several shapes contain the point,
+     * the object whose center is closest to the point is returned.
      *
-     * @param gravity The gravity vector
+     * @param point The point in pixels
+     * @return The game object at the point, or null if there is none
      */
-    public PhysicsWorld(Vec2 gravity) {
-        world = new World(gravity);
-        gameObjects = new ArrayList<>();
+    public GameObject getGameObjectAt(Point2D point) {
+        Vec2 target = new Vec2(Units.toMeters(point.getX()), Units.toMeters(point.getY()));
+        AABB queryArea = new AABB(target, target);
+        GameObject[] closest = new GameObject[1];
+        float[] closestDistance = {Float.MAX_VALUE};
+        
+        queryAABB(fixture -> {
+            if (fixture.getBody().getUserData() instanceof GameObject && fixture.testPoint(target)) {
+                float distance = distanceSquared(fixture, target);
+                if (distance < closestDistance[0]) {
+                    closestDistance[0] = distance;
+                    closest[0] = (GameObject) fixture.getBody().getUserData();
+                }
+            }
+            return true;
+        }, queryArea);
+        return closest[0];
     }
     
     /**
-     * Adds a game object to the physics world.
+     * Collects the game objects whose shapes may overlap an area.
+     * Like {@link #getGameObjectAt(Point2D)}, this uses the broad-phase tree of the jBox2D world,
+     * so it only visits the objects near the area. The bounding boxes in the tree are slightly
+     * enlarged, so objects just outside of the area can be collected as well.
      *
-     * @param gameObject The game object to add
+     * @param area The area in pixels
+     * @param result The list to add the game objects to
      */
-    public void addGameObject(GameObject gameObject) {
-        gameObjects.add(gameObject);
-        gameObject.createPhysicsBody(world);
+    public void queryGameObjects(Rectangle2D area, List<GameObject> result) {
+        queryArea(area.getMinX(), area.getMinY(), area.getMaxX(), area.getMaxY(), result);
     }
     
     /**
-     * Removes a game object from the physics world.
+     * Adds all game objects whose fixtures may overlap an area to a list, without allocating.
      *
-     * @param gameObject The game object to remove
+     * @param minX The left edge of the area in pixels
+     * @param minY The top edge of the area in pixels
+     * @param maxX The right edge of the area in pixels
+     * @param maxY The bottom edge of the area in pixels
+     * @param result The list to add the game objects to
      */
-    public void removeGameObject(GameObject gameObject) {
-        if (gameObject.getPhysicsBody() != null) {
-            world.destroyBody(gameObject.getPhysicsBody());
-        }
-        gameObjects.remove(gameObject);
+    private void queryArea(double minX, double minY, double maxX, double maxY, List<GameObject> result) {
+        areaQuery.bounds.lowerBound.set(Units.toMeters(minX), Units.toMeters(minY));
+        areaQuery.bounds.upperBound.set(Units.toMeters(maxX), Units.toMeters(maxY));
+        areaQuery.result = result;
+        queryAABB(areaQuery, areaQuery.bounds);
+        areaQuery.result = null;
     }
     
     /**
-     * Updates the physics simulation.
-     * Uses a fixed time step for more stable physics.
+     * Queries the broad-phase tree of the jBox2D world, or those of all regions, for the fixtures that may overlap an area.
+     * Unlike querying the jBox2D world of {@link #getWorld()}, this also works in a world that is split into regions.
+     * If the callback returns false, the query ends for the jBox2D world of the reported fixture only.
      *
-     * @param deltaTime The time elapsed since the last update in seconds
+     * @param callback The callback to report the fixtures to
+     * @param area The area in meters
      */
-    public void update(float deltaTime) {
-        // Limit the maximum time step to prevent instability
-        float clampedDeltaTime = Math.min(deltaTime, MAX_TIME_STEP);
-        accumulatedTime += clampedDeltaTime;
-        
-        // Update with fixed time steps for stability
-        while (accumulatedTime >= TIME_STEP) {
-            // Update special objects
-            for (GameObject gameObject : gameObjects) {
-                if (gameObject instanceof SpecialObject) {
-                    ((SpecialObject) gameObject).updateSpecialBehavior(world, TIME_STEP);
-                }
-            }
-            
-            // Step the physics simulation
-            world.step(TIME_STEP, VELOCITY_ITERATIONS, POSITION_ITERATIONS);
-            
-            accumulatedTime -= TIME_STEP;
+    public void queryAABB(QueryCallback callback, AABB area) {
+        if (regionPool == null) {
+            world.queryAABB(callback, area);
+            return;
         }
-        
-        // Update game objects from physics
-        for (GameObject gameObject : gameObjects) {
-            gameObject.updateFromPhysics();
+        for (int i = 0; i < regions.size(); i++) {
+            regions.get(i).getWorld().queryAABB(callback, area);
         }
     }
     
+    /**
+     * Computes the squared distance between the center of a fixture's body and a point.
+     *
+     * @param fixture The fixture
+     * @param point The point
+     * @return The squared distance
+     */
+    private static float distanceSquared(Fixture fixture, Vec2 point) {
+        Vec2 center = fixture.getBody().getPosition();
+        float dx = center.x - point.x;
+        float dy = center.y - point.y;
+        return dx * dx + dy * dy;
+    }
+    
     /**
      * Gets all game objects in the physics world.
+     * The returned list is a read-only view that reflects later changes, so it must be copied
+     * by callers that add or remove objects while iterating over it. Removing an object moves
+     * the last object into its place, so the order only stays the same while nothing is removed.
      *
-     * @return The list of game objects
+     * @return A read-only view of the game objects
      */
     public List<GameObject> getGameObjects() {
-        return new ArrayList<>(gameObjects);
+        return gameObjectsView;
+    }
+    
+    /**
+     * Gets all game objects of a kind, including the objects of its variants.
+     * Like {@link #getGameObjects()}, the returned list is a read-only view.
+     *
+     * @param kind The kind of the objects
+     * @return A read-only view of the game objects of the kind
+     */
+    public List<GameObject> getGameObjects(ObjectKind kind) {
+        kindList(kind);
+        return gameObjectsByKindViews[kind.getId()];
+    }
+    
+    /**
+     * Gets the list of game objects of a kind, growing the lists for kinds registered after the world was created.
+     *
+     * @param kind The kind of the objects
+     * @return The modifiable list of game objects of the kind
+     */
+    private List<GameObject> kindList(ObjectKind kind) {
+        if (kind.getId() >= gameObjectsByKind.length) {
+            int length = Math.max(kind.getId() + 1, ObjectKind.count());
+            gameObjectsByKind = Arrays.copyOf(gameObjectsByKind, length);
+            gameObjectsByKindViews = Arrays.copyOf(gameObjectsByKindViews, length);
+        }
+        List<GameObject> list = gameObjectsByKind[kind.getId()];
+        if (list == null) {
+            list = new ArrayList<>();
+            gameObjectsByKind[kind.getId()] = list;
+            gameObjectsByKindViews[kind.getId()] = Collections.unmodifiableList(list);
+        }
+        return list;
+    }
+    
+    /**
+     * Creates an empty array for the game object lists of all kinds.
+     *
+     * @param length The length of the array
+     * @return The new array
+     */
+    @SuppressWarnings("unchecked")
+    private static List<GameObject>[] newKindLists(int length) {
+        return (List<GameObject>[]) new List<?>[length];
+    }
+    
+    /**
+     * Gets the transform store holding the positions and rotations of all game objects in the world.
+     *
+     * @return The transform store
+     */
+    public TransformStore getTransformStore() {
+        return transforms;
     }
     
     /**
      * Gets the jBox2D world.
+     * A world that is split into regions has a jBox2D world for each region instead, which change
+     * whenever regions are split or merged, see {@link #setRegionPool(ForkJoinPool)}. Code that has to
+     * work with regions counts and queries the bodies with {@link #getBodyCount()} and
+     * {@link #queryAABB(QueryCallback, AABB)} instead, and adds sensors with {@link #addSensor(Rectangle2D, Object)}.
      *
      * @return The jBox2D world
+     * @throws IllegalStateException If the world is split into regions
      */
     public World getWorld() {
+        if (regionPool != null) {
+            throw new IllegalStateException("The world is split into regions");
+        }
         return world;
     }
     
+    /**
+     * Gets the number of jBox2D bodies of the world, or of all its regions, including the sensors.
+     *
+     * @return The number of bodies
+     */
+    public int getBodyCount() {
+        if (regionPool == null) {
+            return world.getBodyCount();
+        }
+        int count = 0;
+        for (int i = 0; i < regions.size(); i++) {
+            count += regions.get(i).getWorld().getBodyCount();
+        }
+        return count;
+    }
+    
+    /**
+     * Gets the jBox2D world a game object of this world is simulated in.
+     *
+     * @param id The transform id of the game object
+     * @return The jBox2D world of the region of the object, or the only jBox2D world if the world is not split
+     */
+    private World worldOf(int id) {
+        return regionOf[id] != null ? regionOf[id].getWorld() : world;
+    }
+    
     /**
      * Clears all game objects from the physics world.
      */
     public void clear() {
         for (GameObject gameObject : gameObjects) {
             if (gameObject.getPhysicsBody() != null) {
-                world.destroyBody(gameObject.getPhysicsBody());
+                worldOf(gameObject.getTransformId()).destroyBody(gameObject.getPhysicsBody());
             }
         }
+        for (int i = regions.size() - 1; i >= 0; i--) {
+            // Sensors are not game objects and stay
+            regions.get(i).getGameObjects().clear();
+            if (regions.get(i).isEmpty()) {
+                regions.remove(i);
+            }
+        }
+        Arrays.fill(regionOf, null);
+        splitPending = false;
         gameObjects.clear();
+        for (List<GameObject> list : gameObjectsByKind) {
+            if (list != null) {
+                list.clear();
+            }
+        }
+        transforms.clear();
+        Arrays.fill(syncedBodies, null);
+        Arrays.fill(awakeAtSync, false);
+        pendingAdds.clear();
+        pendingRemoves.clear();
+        movedObjects.clear();
+        awakeCount = 0;
+        changeCount++;
+        staticChangeCount++;
+        accumulatedTime = 0;
+        stepCount = 0;
+    }
+    
+    /**
+     * Splits the world into regions that are simulated in separate jBox2D worlds, stepped in parallel on a pool.
+     *
+     * Bodies that are far apart cannot touch in the next step, so a level made of machines that are spread
+     * out, such as a wide community level, is split along the gaps between them when it is loaded and again
+     * whenever a snapshot is restored. Objects added later join the regions they could touch. After every
+     * step, regions whose bodies have come close enough to meet in the next step are merged, moving the
+     * bodies of the smaller region into the world of the larger one.
+     *
+     * jBox2D cannot move contacts from one world to another, so the moved bodies lose their contacts and
+     * the impulses the solver starts the next step with. A world with regions therefore moves its bodies
+     * almost, but not exactly, like a single world, and replays and solutions that were simulated in a
+     * single world must be checked in a single world as well.
+     *
+     * The contact listeners are called on the threads of the pool. Begin and end contact events are
+     * delivered one at a time, but pre-solve and post-solve events of different regions may be delivered
+     * concurrently, so listeners that handle them must be thread-safe.
+     *
+     * @param regionPool The pool to step the regions on, or null to simulate the whole world in a single jBox2D world
+     * @throws IllegalStateException If the world already holds game objects or sensors
+     */
+    public void setRegionPool(ForkJoinPool regionPool) {
+        if (!gameObjects.isEmpty() || !sensorBodies.isEmpty() || !regions.isEmpty()) {
+            throw new IllegalStateException("Regions can only be enabled or disabled while the world is empty");
+        }
+        this.regionPool = regionPool;
+    }
+    
+    /**
+     * Gets the pool the regions of the world are stepped on.
+     *
+     * @return The region pool, or null if the world is not split into regions
+     */
+    public ForkJoinPool getRegionPool() {
+        return regionPool;
+    }
+    
+    /**
+     * Gets the number of regions the world is currently split into.
+     *
+     * @return The number of regions, or 1 if the world is not split into regions
+     */
+    public int getRegionCount() {
+        return regionPool != null ? regions.size() : 1;
+    }
+    
+    /**
+     * Adds a static sensor covering an area.
+     * Sensors do not collide with anything, but the contact listeners are told when bodies start and
+     * stop overlapping them. The user data is set on the fixture of the sensor to tell sensors apart.
+     * Like bodies, sensors can only be added and removed while the world is not being stepped.
+     *
+     * @param area The area in pixels
+     * @param userData The user data of the sensor fixture
+     */
+    public void addSensor(Rectangle2D area, Object userData) {
+        Vec2 center = new Vec2(Units.toMeters(area.getMinX() + area.getWidth() / 2),
+                Units.toMeters(area.getMinY() + area.getHeight() / 2));
+        PolygonShape shape = new PolygonShape();
+        shape.setAsBox(Units.toMeters(area.getWidth() / 2), Units.toMeters(area.getHeight() / 2));
+        if (regionPool == null) {
+            sensorBodies.add(createSensorBody(world, center, shape, userData));
+            return;
+        }
+        objectBounds.lowerBound.set(Units.toMeters(area.getMinX()), Units.toMeters(area.getMinY()));
+        objectBounds.upperBound.set(Units.toMeters(area.getMaxX()), Units.toMeters(area.getMaxY()));
+        PhysicsRegion region = findRegion(objectBounds);
+        region.getSensorBodies().add(createSensorBody(region.getWorld(), center, shape, userData));
+    }
+    
+    /**
+     * Removes all sensors with the given user data.
+     *
+     * @param userData The user data of the sensor fixtures
+     */
+    public void removeSensors(Object userData) {
+        removeSensors(world, sensorBodies, userData);
+        for (int i = regions.size() - 1; i >= 0; i--) {
+            PhysicsRegion region = regions.get(i);
+            removeSensors(region.getWorld(), region.getSensorBodies(), userData);
+            if (region.isEmpty()) {
+                regions.remove(i);
+            }
+        }
+    }
+    
+    /**
+     * Destroys the sensor bodies with the given user data.
+     *
+     * @param world The jBox2D world of the sensor bodies
+     * @param bodies The sensor bodies, from which the destroyed ones are removed
+     * @param userData The user data of the sensor fixtures
+     */
+    private static void removeSensors(World world, List<Body> bodies, Object userData) {
+        for (int i = bodies.size() - 1; i >= 0; i--) {
+            Body body = bodies.get(i);
+            if (body.getFixtureList().getUserData() == userData) {
+                world.destroyBody(body);
+                bodies.remove(i);
+            }
+        }
+    }
+    
+    /**
+     * Creates a static body with a single sensor fixture.
+     *
+     * @param world The jBox2D world to create the body in
+     * @param position The position of the body in meters
+     * @param shape The shape of the fixture, which jBox2D copies
+     * @param userData The user data of the fixture
+     * @return The new body
+     */
+    private static Body createSensorBody(World world, Vec2 position, Shape shape, Object userData) {
+        BodyDef bodyDef = new BodyDef();
+        bodyDef.type = BodyType.STATIC;
+        bodyDef.position.set(position);
+        Body body = world.createBody(bodyDef);
+        FixtureDef fixtureDef = new FixtureDef();
+        fixtureDef.shape = shape;
+        fixtureDef.isSensor = true;
+        fixtureDef.userData = userData;
+        body.createFixture(fixtureDef);
+        return body;
+    }
+    
+    /**
+     * Finds the region a new game object belongs to and grows its bounding box by the object.
+     *
+     * @param gameObject The game object, which has no body yet
+     * @return The region
+     */
+    private PhysicsRegion findRegion(GameObject gameObject) {
+        getBounds(gameObject, objectBounds);
+        return findRegion(objectBounds);
+    }
+    
+    /**
+     * Finds the region new bodies in an area belong to and grows its bounding box by the area.
+     * All regions the bodies could touch in the next step are merged into one. If there is none,
+     * the bodies start a new region, or join the closest one once there are {@link #MAX_REGIONS}.
+     *
+     * @param bounds The area of the new bodies in meters
+     * @return The region
+     */
+    private PhysicsRegion findRegion(AABB bounds) {
+        PhysicsRegion region = null;
+        for (int i = 0; i < regions.size(); i++) {
+            PhysicsRegion candidate = regions.get(i);
+            if (candidate.isNear(bounds, 2 * REGION_MARGIN)) {
+                nearRegions.add(candidate);
+                if (region == null || candidate.size() > region.size()) {
+                    region = candidate;
+                }
+            }
+        }
+        for (int i = 0; i < nearRegions.size(); i++) {
+            if (nearRegions.get(i) != region) {
+                mergeRegion(nearRegions.get(i), region);
+            }
+        }
+        nearRegions.clear();
+        
+        if (region == null && regions.size() < MAX_REGIONS) {
+            region = new PhysicsRegion(world.getGravity(), regionDispatcher);
+            regions.add(region);
+        } else if (region == null) {
+            region = regions.get(0);
+            for (int i = 1; i < regions.size(); i++) {
+                if (regions.get(i).distanceSquared(bounds) < region.distanceSquared(bounds)) {
+                    region = regions.get(i);
+                }
+            }
+        }
+        region.includeBounds(bounds);
+        return region;
+    }
+    
+    /**
+     * Merges regions whose bodies could touch in the next step.
+     * A body moves at most {@link #REGION_MARGIN} in a step, so regions are merged as soon as
+     * their bounding boxes are less than twice that apart.
+     */
+    private void mergeApproachingRegions() {
+        for (int i = 0; i < regions.size(); i++) {
+            for (int j = i + 1; j < regions.size(); j++) {
+                PhysicsRegion first = regions.get(i);
+                PhysicsRegion second = regions.get(j);
+                if (first.isNear(second.getBounds(), 2 * REGION_MARGIN)) {
+                    if (second.size() > first.size()) {
+                        mergeRegion(first, second);
+                    } else {
+                        mergeRegion(second, first);
+                    }
+                    // The merged region may now be close to regions that were already checked
+                    i = -1;
+                    break;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Moves all bodies of a region into another region and drops the emptied region.
+     *
+     * @param source The region to empty
+     * @param target The region to move the bodies to
+     */
+    private void mergeRegion(PhysicsRegion source, PhysicsRegion target) {
+        List<GameObject> objects = source.getGameObjects();
+        while (!objects.isEmpty()) {
+            moveToRegion(objects.get(objects.size() - 1), target);
+        }
+        List<Body> sensors = source.getSensorBodies();
+        while (!sensors.isEmpty()) {
+            moveSensor(sensors.get(sensors.size() - 1), source, target);
+        }
+        target.includeBounds(source.getBounds());
+        regions.remove(source);
+    }
+    
+    /**
+     * Moves the body of a game object into the jBox2D world of another region.
+     * The object creates a new body there, which takes over the pose, the velocities and the
+     * sleep state of the old one before the old body is destroyed.
+     *
+     * @param gameObject The game object
+     * @param target The region to move the object to
+     */
+    private void moveToRegion(GameObject gameObject, PhysicsRegion target) {
+        int id = gameObject.getTransformId();
+        PhysicsRegion source = regionOf[id];
+        swapRemove(source.getGameObjects(), regionIndex[id], regionIndex);
+        Body oldBody = gameObject.getPhysicsBody();
+        if (oldBody != null) {
+            gameObject.createPhysicsBody(target.getWorld());
+            Body body = gameObject.getPhysicsBody();
+            body.setUserData(gameObject);
+            body.setTransform(oldBody.getPosition(), oldBody.getAngle());
+            body.setLinearVelocity(oldBody.getLinearVelocity());
+            body.setAngularVelocity(oldBody.getAngularVelocity());
+            body.setAwake(oldBody.isAwake());
+            source.getWorld().destroyBody(oldBody);
+            if (syncedBodies[id] != null) {
+                syncedBodies[id] = body;
+            }
+        }
+        regionOf[id] = target;
+        regionIndex[id] = target.getGameObjects().size();
+        target.getGameObjects().add(gameObject);
+    }
+    
+    /**
+     * Moves a sensor body into the jBox2D world of another region.
+     *
+     * @param body The sensor body
+     * @param source The region of the sensor
+     * @param target The region to move the sensor to
+     */
+    private static void moveSensor(Body body, PhysicsRegion source, PhysicsRegion target) {
+        Fixture fixture = body.getFixtureList();
+        target.getSensorBodies().add(createSensorBody(target.getWorld(), body.getPosition(), fixture.getShape(), fixture.getUserData()));
+        source.getWorld().destroyBody(body);
+        source.getSensorBodies().remove(body);
+    }
+    
+    /**
+     * Splits the world into regions along the gaps between its bodies, e.g. after a level was loaded.
+     * The bodies are sorted by their left edges, and the world can be cut wherever the next body starts
+     * at least twice {@link #REGION_MARGIN} to the right of where all bodies before it end. The cuts are
+     * chosen so that there are at most {@link #MAX_REGIONS} regions with similar numbers of bodies.
+     * Each new region keeps the jBox2D world that most of its bodies are already in, so only the
+     * other bodies are moved.
+     */
+    private void splitRegions() {
+        splitPending = false;
+        List<Body> sensors = new ArrayList<>();
+        List<PhysicsRegion> sensorRegions = new ArrayList<>();
+        for (PhysicsRegion region : regions) {
+            for (Body sensor : region.getSensorBodies()) {
+                sensors.add(sensor);
+                sensorRegions.add(region);
+            }
+        }
+        int objectCount = gameObjects.size();
+        int count = objectCount + sensors.size();
+        if (count == 0) {
+            return;
+        }
+        
+        // Sort the bodies by their left edges, packing the edge and the index into one key
+        float[] minX = new float[count];
+        float[] maxX = new float[count];
+        long[] order = new long[count];
+        int[] oldRegion = new int[count];
+        for (int i = 0; i < count; i++) {
+            PhysicsRegion region;
+            if (i < objectCount) {
+                getBounds(gameObjects.get(i), objectBounds);
+                region = regionOf[gameObjects.get(i).getTransformId()];
+            } else {
+                objectBounds.set(sensors.get(i - objectCount).getFixtureList().getAABB(0));
+                region = sensorRegions.get(i - objectCount);
+            }
+            minX[i] = objectBounds.lowerBound.x;
+            maxX[i] = objectBounds.upperBound.x;
+            order[i] = (long) sortableBits(minX[i]) << 32 | i;
+            oldRegion[i] = regions.indexOf(region);
+        }
+        Arrays.sort(order);
+        
+        int[] newRegion = new int[count];
+        int regionCount = 1;
+        int regionSize = 0;
+        int targetSize = (count + MAX_REGIONS - 1) / MAX_REGIONS;
+        float right = -Float.MAX_VALUE;
+        for (int k = 0; k < count; k++) {
+            int i = (int) order[k];
+            if (regionSize >= targetSize && regionCount < MAX_REGIONS && minX[i] - right >= 2 * REGION_MARGIN) {
+                regionCount++;
+                regionSize = 0;
+            }
+            newRegion[i] = regionCount - 1;
+            regionSize++;
+            right = Math.max(right, maxX[i]);
+        }
+        
+        // Keep the world most bodies of a new region are in, unless an earlier region already kept it
+        int[][] votes = new int[regionCount][regions.size()];
+        for (int i = 0; i < count; i++) {
+            votes[newRegion[i]][oldRegion[i]]++;
+        }
+        boolean[] kept = new boolean[regions.size()];
+        PhysicsRegion[] targets = new PhysicsRegion[regionCount];
+        for (int r = 0; r < regionCount; r++) {
+            int best = -1;
+            for (int old = 0; old < regions.size(); old++) {
+                if (!kept[old] && votes[r][old] > 0 && (best < 0 || votes[r][old] > votes[r][best])) {
+                    best = old;
+                }
+            }
+            if (best >= 0) {
+                kept[best] = true;
+                targets[r] = regions.get(best);
+            } else {
+                targets[r] = new PhysicsRegion(world.getGravity(), regionDispatcher);
+            }
+        }
+        
+        for (int i = 0; i < count; i++) {
+            PhysicsRegion target = targets[newRegion[i]];
+            if (i < objectCount) {
+                GameObject gameObject = gameObjects.get(i);
+                if (regionOf[gameObject.getTransformId()] != target) {
+                    moveToRegion(gameObject, target);
+                }
+            } else if (sensorRegions.get(i - objectCount) != target) {
+                moveSensor(sensors.get(i - objectCount), sensorRegions.get(i - objectCount), target);
+            }
+        }
+        // Regions that were not kept have been emptied
+        regions.clear();
+        for (PhysicsRegion target : targets) {
+            target.updateBounds();
+            regions.add(target);
+        }
+    }
+    
+    /**
+     * Computes the bounding box of a game object from its bounding radius.
+     *
+     * @param gameObject The game object
+     * @param bounds The box to store the bounds in meters in
+     */
+    private static void getBounds(GameObject gameObject, AABB bounds) {
+        float radius = Units.toMeters(gameObject.getBoundingRadius());
+        Body body = gameObject.getPhysicsBody();
+        float x = body != null ? body.getPosition().x : Units.toMeters(gameObject.getX());
+        float y = body != null ? body.getPosition().y : Units.toMeters(gameObject.getY());
+        bounds.lowerBound.set(x - radius, y - radius);
+        bounds.upperBound.set(x + radius, y + radius);
+    }
+    
+    /**
+     * Converts a float into an int that sorts in the same order.
+     *
+     * @param value The float
+     * @return The int with the same order
+     */
+    private static int sortableBits(float value) {
+        int bits = Float.floatToIntBits(value);
+        return bits ^ ((bits >> 31) & 0x7fffffff);
     }
     
     /**
-     * Converts a point from screen coordinates to physics world coordinates.
+     * Converts a point from screen coordinates to the pixel coordinates of the game objects, using the camera.
      *
      * @param screenPoint The point in screen coordinates
-     * @return The point in physics world coordinates
+     * @return The point in the coordinates of the game objects
      */
     public Point2D screenToWorld(Point2D screenPoint) {
-        // This is a simple implementation. In a real game, you would need to account for camera position and zoom.
-        return screenPoint;
+        return camera.screenToWorld(screenPoint);
     }
     
     /**
-     * Converts a point from physics world coordinates to screen coordinates.
+     * Converts a point from the pixel coordinates of the game objects to screen coordinates, using the camera.
      *
-     * @param worldPoint The point in physics world coordinates
+     * @param worldPoint The point in the coordinates of the game objects
      * @return The point in screen coordinates
      */
     public Point2D worldToScreen(Point2D worldPoint) {
-        // This is a simple implementation. In a real game, you would need to account for camera position and zoom.
-        return worldPoint;
+        return camera.worldToScreen(worldPoint);
+    }
+    
+    /**
+     * Sets the camera that shows the physics world on the screen.
+     *
+     * @param camera The camera
+     */
+    public void setCamera(Camera camera) {
+        this.camera = camera;
+    }
+    
+    /**
+     * Gets the camera that shows the physics world on the screen.
+     * A new world has a camera at the origin without zoom.
+     *
+     * @return The camera
+     */
+    public Camera getCamera() {
+        return camera;
     }
     
     /**
      * Sets the gravity of the physics world.
      *
-     * @param x The x component of the gravity vector
-     * @param y The y component of the gravity vector
+     * @param x The x component of the gravity vector in meters per second squared
+     * @param y The y component of the gravity vector in meters per second squared
      */
     public void setGravity(float x, float y) {
         world.setGravity(new Vec2(x, y));
+        updateRegionGravity();
     }
     
     /**
      * Gets the gravity of the physics world.
      *
-     * @return The gravity vector
+     * @return The gravity vector in meters per second squared
      */
     public Vec2 getGravity() {
         return world.getGravity();
@@ -177,6 +1740,16 @@ public class PhysicsWorld {
         gravityScale = scale;
         Vec2 gravity = world.getGravity();
         world.setGravity(new Vec2(gravity.x * scale, gravity.y * scale));
+        updateRegionGravity();
+    }
+    
+    /**
+     * Copies the gravity of the physics world to the jBox2D worlds of all regions.
+     */
+    private void updateRegionGravity() {
+        for (int i = 0; i < regions.size(); i++) {
+            regions.get(i).getWorld().setGravity(world.getGravity());
+        }
     }
     
     /**
@@ -193,8 +1766,8 @@ public class PhysicsWorld {
      * Useful for simulating explosions or user interactions.
      *
      * @param gameObject The game object to apply the impulse to
-     * @param impulseX The x component of the impulse
-     * @param impulseY The y component of the impulse
+     * @param impulseX The x component of the impulse in newton seconds
+     * @param impulseY The y component of the impulse in newton seconds
      */
     public void applyImpulse(GameObject gameObject, float impulseX, float impulseY) {
         if (gameObject.getPhysicsBody() != null) {
@@ -204,4 +1777,101 @@ public class PhysicsWorld {
             );
         }
     }
+    
+    /**
+     * What an update does with the time it could not simulate because its step budget was used up.
+     */
+    public enum OverloadMode {
+        /**
+         * The time is dropped. The simulation stays in step with the frames, but simulated time
+         * falls behind wall-clock time. This keeps the game responsive under load.
+         */
+        DROP,
+        /**
+         * The time is kept and simulated in later updates, up to the maximum frame time of the profile.
+         * While the machine stays overloaded the simulation runs in slow motion, and it catches up
+         * with wall-clock time after short hitches.
+         */
+        SLOW_MOTION
+    }
+    
+    /**
+     * Collects the game objects of the fixtures found by an area query.
+     * A single instance is reused for all queries, so querying does not allocate.
+     */
+    private static class AreaQuery implements QueryCallback {
+        private final AABB bounds = new AABB();
+        private List<GameObject> result;
+        
+        @Override
+        public boolean reportFixture(Fixture fixture) {
+            // Sensors such as win areas have no game object
+            Object userData = fixture.getBody().getUserData();
+            if (userData instanceof GameObject) {
+                result.add((GameObject) userData);
+            }
+            return true;
+        }
+    }
+    
+    /**
+     * Steps the worlds of all regions at once. A single instance is reused for all steps.
+     */
+    private class RegionStep extends RecursiveAction {
+        @Override
+        protected void compute() {
+            invokeAll(regions);
+        }
+    }
+    
+    /**
+     * Forwards the contact events of the jBox2D world to all registered contact listeners.
+     */
+    private class ContactDispatcher implements ContactListener {
+        @Override
+        public void beginContact(Contact contact) {
+            for (int i = 0; i < contactListeners.size(); i++) {
+                contactListeners.get(i).beginContact(contact);
+            }
+        }
+        
+        @Override
+        public void endContact(Contact contact) {
+            for (int i = 0; i < contactListeners.size(); i++) {
+                contactListeners.get(i).endContact(contact);
+            }
+        }
+        
+        @Override
+        public void preSolve(Contact contact, Manifold oldManifold) {
+            for (int i = 0; i < contactListeners.size(); i++) {
+                contactListeners.get(i).preSolve(contact, oldManifold);
+            }
+        }
+        
+        @Override
+        public void postSolve(Contact contact, ContactImpulse impulse) {
+            for (int i = 0; i < contactListeners.size(); i++) {
+                contactListeners.get(i).postSolve(contact, impulse);
+            }
+        }
+    }
+    
+    /**
+     * Forwards the contact events of regions that are stepped in parallel.
+     * Contacts begin and end rarely, and listeners often collect them, so these events are delivered
+     * one at a time. Pre-solve and post-solve events happen for every touching contact in every step
+     * and are not serialized, so that the regions do not wait for each other.
+     */
+    private class SerialContactDispatcher extends ContactDispatcher {
+        @Override
+        public synchronized void beginContact(Contact contact) {
+            super.beginContact(contact);
+        }
+        
+        @Override
+        public synchronized void endContact(Contact contact) {
+            super.endContact(contact);
+        }
+    }
 }
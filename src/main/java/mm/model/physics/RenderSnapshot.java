@@ -0,0 +1,173 @@
+package mm.model.physics;
+
+import mm.model.objects.GameObject;
+import java.util.Arrays;
+
+/**
+ * The positions and rotations of the moving game objects of a physics world at one point in time.
+ * When the world is shown through a camera, only the objects in and around its visible area are captured.
+ *
+ * A render snapshot is a buffer that the simulation fills again and again instead of allocating
+ * a new one for every tick. It is handed from the thread that runs the simulation to the thread
+ * that draws the game and back (see {@link mm.controller.SimulationThread#takeSnapshot(RenderSnapshot)}),
+ * so only one thread uses a snapshot at a time and none of them needs to lock while reading or
+ * filling it. Static objects are not part of a snapshot, because they never move.
+ *
+ * A snapshot is therefore not immutable: once it has been given back it is filled again, and
+ * any code that still reads it sees the poses of a later tick. The poses are interpolated with the
+ * {@link PhysicsWorld#getInterpolationAlpha() interpolation alpha} of the world when they are
+ * captured, so they are drawn as they are and never interpolated again.
+ */
+public final class RenderSnapshot {
+    private PhysicsWorld physicsWorld;
+    private GameObject[] gameObjects;
+    private int[] transformIds;
+    private float[] x;
+    private float[] y;
+    private float[] rotation;
+    private int size;
+    private long changeCount;
+    private long timeNanos;
+
+    /**
+     * Creates a new, empty render snapshot.
+     */
+    RenderSnapshot() {
+        this.gameObjects = new GameObject[0];
+        this.transformIds = new int[0];
+        this.x = new float[0];
+        this.y = new float[0];
+        this.rotation = new float[0];
+    }
+
+    /**
+     * Starts filling the snapshot again, keeping its arrays if they are large enough.
+     *
+     * @param physicsWorld The physics world the snapshot is taken of
+     * @param capacity The largest number of game objects that will be added
+     * @param timeNanos The time at which the snapshot is taken, as returned by {@link System#nanoTime()}
+     */
+    void reset(PhysicsWorld physicsWorld, int capacity, long timeNanos) {
+        if (gameObjects.length < capacity) {
+            gameObjects = new GameObject[capacity];
+            transformIds = new int[capacity];
+            x = new float[capacity];
+            y = new float[capacity];
+            rotation = new float[capacity];
+        } else {
+            // Release the objects of the last fill, which may have been removed from the world
+            Arrays.fill(gameObjects, 0, size, null);
+        }
+        this.physicsWorld = physicsWorld;
+        this.size = 0;
+        this.changeCount = physicsWorld.getChangeCount();
+        this.timeNanos = timeNanos;
+    }
+
+    /**
+     * Adds a game object to the snapshot. Game objects must be added in the order of their transform ids.
+     *
+     * @param gameObject The game object
+     * @param transformId The transform id of the game object
+     * @param x The x coordinate of the game object
+     * @param y The y coordinate of the game object
+     * @param rotation The rotation of the game object in degrees
+     */
+    void add(GameObject gameObject, int transformId, float x, float y, float rotation) {
+        gameObjects[size] = gameObject;
+        transformIds[size] = transformId;
+        this.x[size] = x;
+        this.y[size] = y;
+        this.rotation[size] = rotation;
+        size++;
+    }
+
+    /**
+     * Gets the number of game objects in the snapshot.
+     *
+     * @return The number of game objects
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets a game object of the snapshot.
+     *
+     * @param index The index of the game object
+     * @return The game object
+     */
+    public GameObject getGameObject(int index) {
+        return gameObjects[index];
+    }
+
+    /**
+     * Gets the transform id of a game object. The game objects of a snapshot are sorted by their
+     * transform ids, so the same object can be found in two snapshots by walking through both in order,
+     * even if objects entered or left the visible area in between.
+     *
+     * @param index The index of the game object
+     * @return The transform id
+     */
+    public int getTransformId(int index) {
+        return transformIds[index];
+    }
+
+    /**
+     * Gets the x coordinate of a game object.
+     *
+     * @param index The index of the game object
+     * @return The x coordinate
+     */
+    public float getX(int index) {
+        return x[index];
+    }
+
+    /**
+     * Gets the y coordinate of a game object.
+     *
+     * @param index The index of the game object
+     * @return The y coordinate
+     */
+    public float getY(int index) {
+        return y[index];
+    }
+
+    /**
+     * Gets the rotation of a game object.
+     *
+     * @param index The index of the game object
+     * @return The rotation in degrees
+     */
+    public float getRotation(int index) {
+        return rotation[index];
+    }
+
+    /**
+     * Gets the physics world the snapshot was taken of.
+     *
+     * @return The physics world
+     */
+    public PhysicsWorld getPhysicsWorld() {
+        return physicsWorld;
+    }
+
+    /**
+     * Gets the change counter of the physics world at the time of the snapshot.
+     *
+     * @return The change counter
+     * @see PhysicsWorld#getChangeCount()
+     */
+    public long getChangeCount() {
+        return changeCount;
+    }
+
+    /**
+     * Gets the time at which the snapshot was taken.
+     *
+     * @return The time as returned by {@link System#nanoTime()}
+     */
+    public long getTimeNanos() {
+        return timeNanos;
+    }
+}
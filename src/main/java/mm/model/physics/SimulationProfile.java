@@ -0,0 +1,113 @@
+package mm.model.physics;
+
+/**
+ * A named set of simulation settings that trades accuracy for throughput.
+ *
+ * Each physics world uses one profile, which can be chosen per level with the "quality" entry of
+ * a level file. Simulations are only reproducible with the same profile, because the profile
+ * decides how far each fixed step advances and how precisely it is solved.
+ */
+public enum SimulationProfile {
+    /**
+     * Large steps and few solver iterations, for validating solutions on a server as fast as possible.
+     */
+    VALIDATION_FAST("validation-fast", 1.0f / 30.0f, 4, 2, 0.1f),
+    /**
+     * The default settings of the game.
+     */
+    INTERACTIVE("interactive", 1.0f / 60.0f, 8, 3, 0.05f),
+    /**
+     * Small steps and many solver iterations, for machines that depend on precise contacts.
+     */
+    HIGH_FIDELITY("high-fidelity", 1.0f / 120.0f, 10, 4, 0.05f);
+
+    private final String name;
+    private final float timeStep;
+    private final int velocityIterations;
+    private final int positionIterations;
+    private final float maxFrameTime;
+
+    /**
+     * Creates a new profile.
+     *
+     * @param name The name of the profile in level files
+     * @param timeStep The fixed time step in seconds
+     * @param velocityIterations The number of velocity iterations of the solver per step
+     * @param positionIterations The number of position iterations of the solver per step
+     * @param maxFrameTime The longest frame time that is simulated in one update, in seconds
+     */
+    SimulationProfile(String name, float timeStep, int velocityIterations, int positionIterations, float maxFrameTime) {
+        this.name = name;
+        this.timeStep = timeStep;
+        this.velocityIterations = velocityIterations;
+        this.positionIterations = positionIterations;
+        this.maxFrameTime = maxFrameTime;
+    }
+
+    /**
+     * Gets the profile with the given name.
+     *
+     * @param name The name of the profile, e.g. "validation-fast"
+     * @return The profile
+     * @throws IllegalArgumentException If there is no profile with the name
+     */
+    public static SimulationProfile forName(String name) {
+        for (SimulationProfile profile : values()) {
+            if (profile.name.equals(name)) {
+                return profile;
+            }
+        }
+        throw new IllegalArgumentException("Unknown simulation profile: " + name);
+    }
+
+    /**
+     * Gets the name of the profile in level files.
+     *
+     * @return The name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the fixed time step.
+     *
+     * @return The time step in seconds
+     */
+    public float getTimeStep() {
+        return timeStep;
+    }
+
+    /**
+     * Gets the number of velocity iterations of the solver per step.
+     *
+     * @return The number of velocity iterations
+     */
+    public int getVelocityIterations() {
+        return velocityIterations;
+    }
+
+    /**
+     * Gets the number of position iterations of the solver per step.
+     *
+     * @return The number of position iterations
+     */
+    public int getPositionIterations() {
+        return positionIterations;
+    }
+
+    /**
+     * Gets the longest frame time that is simulated in one update.
+     * Longer frames are cut to this time to prevent the simulation from falling further and further behind.
+     *
+     * @return The maximum frame time in seconds
+     */
+    public float getMaxFrameTime() {
+        return maxFrameTime;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,47 @@
+package mm.model.physics;
+
+/**
+ * Converts between the pixel units of the game objects and the meters of the jBox2D world.
+ *
+ * Game objects, levels and the GUI work in pixels. jBox2D is tuned for moving bodies between
+ * 0.1 and 10 meters: its contact tolerances, its speed limit and its sleep thresholds are fixed
+ * lengths in meters. A 15 pixel ball must therefore become a ball of 0.3 meters and not one of
+ * 15 meters, or it would never come to rest. All positions and sizes are converted when they
+ * cross into or out of the physics world. Forces, impulses and gravity are given in the SI units
+ * of the physics world, e.g. newtons, since the masses of the bodies are computed from their
+ * sizes in meters.
+ */
+public final class Units {
+    /**
+     * The number of pixels that make up one meter in the physics world.
+     */
+    public static final float PIXELS_PER_METER = 50.0f;
+
+    private static final float METERS_PER_PIXEL = 1.0f / PIXELS_PER_METER;
+
+    /**
+     * This class only has static methods.
+     */
+    private Units() {
+    }
+
+    /**
+     * Converts a length or coordinate from pixels to meters.
+     *
+     * @param pixels The value in pixels
+     * @return The value in meters
+     */
+    public static float toMeters(double pixels) {
+        return (float) pixels * METERS_PER_PIXEL;
+    }
+
+    /**
+     * Converts a length or coordinate from meters to pixels.
+     *
+     * @param meters The value in meters
+     * @return The value in pixels
+     */
+    public static float toPixels(float meters) {
+        return meters * PIXELS_PER_METER;
+    }
+}
@@ -0,0 +1,123 @@
+package mm.model.physics;
+
+import mm.model.objects.GameObject;
+import org.jbox2d.common.Vec2;
+import org.jbox2d.dynamics.Body;
+import java.util.List;
+
+/**
+ * The state of all bodies in a physics world at one point in time.
+ * A snapshot is created by {@link PhysicsWorld#createSnapshot()} and can be restored any number
+ * of times with {@link PhysicsWorld#restoreSnapshot(WorldSnapshot)}.
+ */
+public final class WorldSnapshot {
+    private final GameObject[] gameObjects;
+    private final float[] x;
+    private final float[] y;
+    private final float[] angle;
+    private final float[] velocityX;
+    private final float[] velocityY;
+    private final float[] angularVelocity;
+    private final boolean[] awake;
+    private final long stepCount;
+
+    /**
+     * Captures the state of the bodies of the given game objects.
+     *
+     * @param gameObjects The game objects of the world
+     * @param stepCount The number of steps the world has performed
+     */
+    WorldSnapshot(List<GameObject> gameObjects, long stepCount) {
+        int count = gameObjects.size();
+        this.gameObjects = gameObjects.toArray(new GameObject[0]);
+        this.x = new float[count];
+        this.y = new float[count];
+        this.angle = new float[count];
+        this.velocityX = new float[count];
+        this.velocityY = new float[count];
+        this.angularVelocity = new float[count];
+        this.awake = new boolean[count];
+        this.stepCount = stepCount;
+        for (int i = 0; i < count; i++) {
+            Body body = this.gameObjects[i].getPhysicsBody();
+            if (body != null) {
+                Vec2 position = body.getPosition();
+                Vec2 velocity = body.getLinearVelocity();
+                x[i] = position.x;
+                y[i] = position.y;
+                angle[i] = body.getAngle();
+                velocityX[i] = velocity.x;
+                velocityY[i] = velocity.y;
+                angularVelocity[i] = body.getAngularVelocity();
+                awake[i] = body.isAwake();
+            }
+        }
+    }
+
+    /**
+     * Checks whether a body is in exactly the captured state.
+     *
+     * @param index The index of the game object in the snapshot
+     * @param body The current body of the game object
+     * @return True if the position, angle, velocities and sleep state are unchanged
+     */
+    boolean matches(int index, Body body) {
+        Vec2 position = body.getPosition();
+        Vec2 velocity = body.getLinearVelocity();
+        return position.x == x[index] && position.y == y[index] && body.getAngle() == angle[index]
+                && velocity.x == velocityX[index] && velocity.y == velocityY[index]
+                && body.getAngularVelocity() == angularVelocity[index] && body.isAwake() == awake[index];
+    }
+
+    /**
+     * Puts a body back into the captured state.
+     * The body is deactivated first, which removes its contacts and broad-phase proxies, so it
+     * behaves exactly like a body that was just created at the captured position.
+     *
+     * @param index The index of the game object in the snapshot
+     * @param body The current body of the game object
+     * @param position A vector to reuse for the position
+     */
+    void restore(int index, Body body, Vec2 position) {
+        body.setActive(false);
+        position.set(x[index], y[index]);
+        body.setTransform(position, angle[index]);
+        // Putting the body to sleep clears its forces and sleep timer
+        body.setAwake(false);
+        body.setActive(true);
+        if (awake[index]) {
+            body.setAwake(true);
+            position.set(velocityX[index], velocityY[index]);
+            body.setLinearVelocity(position);
+            body.setAngularVelocity(angularVelocity[index]);
+        }
+    }
+
+    /**
+     * Gets the number of game objects in the snapshot.
+     *
+     * @return The number of game objects
+     */
+    public int size() {
+        return gameObjects.length;
+    }
+
+    /**
+     * Gets a game object of the snapshot.
+     *
+     * @param index The index of the game object
+     * @return The game object
+     */
+    public GameObject getGameObject(int index) {
+        return gameObjects[index];
+    }
+
+    /**
+     * Gets the number of steps the world had performed when the snapshot was created.
+     *
+     * @return The step count
+     */
+    public long getStepCount() {
+        return stepCount;
+    }
+}
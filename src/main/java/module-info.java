@@ -5,6 +5,7 @@ module mm {
     requires javafx.controls;
     requires transitive javafx.graphics;
     requires transitive jbox2d.library;
+    requires org.json;
     
     exports mm.gui;
     exports mm.controller;
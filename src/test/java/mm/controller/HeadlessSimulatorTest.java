@@ -0,0 +1,99 @@
+package mm.controller;
+
+import javafx.geometry.Point2D;
+import javafx.geometry.Rectangle2D;
+import mm.model.level.Level;
+import mm.model.level.RestrictionZone;
+import mm.model.level.WinCondition;
+import mm.model.objects.impl.Ball;
+import mm.model.objects.impl.Plank;
+import mm.model.physics.SimulationProfile;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the HeadlessSimulator class.
+ */
+public class HeadlessSimulatorTest {
+
+    /**
+     * Creates a level with a win area for balls and a restriction zone.
+     *
+     * @return The level
+     */
+    private Level createLevel() {
+        Level level = new Level("Test Level", "A test level");
+        level.addWinCondition(new WinCondition("Ball", new Rectangle2D(350, 350, 100, 100)));
+        level.addRestrictionZone(new RestrictionZone(new Rectangle2D(0, 0, 100, 100)));
+        level.addInventoryItem("Ball", 1);
+        return level;
+    }
+
+    /**
+     * Tests that a ball falling into the win area completes the level.
+     */
+    @Test
+    public void testBallFallsIntoWinArea() {
+        Level level = createLevel();
+        level.addDynamicObject(new Ball(new Point2D(400, 300), 10));
+
+        SimulationResult result = new HeadlessSimulator(level).run(600);
+
+        assertTrue(result.isCompleted(), "The ball should fall into the win area");
+        assertTrue(result.getSteps() > 1, "The ball should need some time to fall");
+        assertTrue(result.getSteps() < 600, "The simulation should stop once the level is completed");
+    }
+
+    /**
+     * Tests that the simulation stops after the step budget if the level is not completed.
+     */
+    @Test
+    public void testStepBudget() {
+        Level level = createLevel();
+        level.addDynamicObject(new Ball(new Point2D(100, 300), 10));
+
+        SimulationResult result = new HeadlessSimulator(level).run(100);
+
+        assertFalse(result.isCompleted(), "The ball should miss the win area");
+        assertEquals(100, result.getSteps(), "The whole step budget should be used");
+        assertEquals(100 / 60.0f, result.getSimulatedTime(), 0.001f, "The simulated time should match the steps");
+    }
+
+    /**
+     * Tests placing objects before the simulation.
+     */
+    @Test
+    public void testPlaceObject() {
+        HeadlessSimulator simulator = new HeadlessSimulator(createLevel());
+
+        assertFalse(simulator.placeObject("Ball", new Point2D(50, 50)), "Placing in a restriction zone should fail");
+        assertTrue(simulator.placeObject("Ball", new Point2D(400, 400)), "Placing a ball from the inventory should work");
+        assertFalse(simulator.placeObject("Ball", new Point2D(400, 200)), "The inventory should be empty");
+        assertTrue(simulator.step(), "The placed ball is inside the win area");
+    }
+
+    /**
+     * Tests that a level is only split into regions on a pool that is passed in.
+     */
+    @Test
+    public void testRegionPool() {
+        assertNull(new HeadlessSimulator(createLevel()).getPhysicsWorld().getRegionPool(), "Regions should be off by default");
+
+        Level level = createLevel();
+        level.addDynamicObject(new Ball(new Point2D(400, 300), 10));
+        level.addStaticObject(new Plank(new Point2D(3000, 400), 0, 300, 20));
+        ForkJoinPool regionPool = new ForkJoinPool(2);
+        try {
+            HeadlessSimulator simulator = new HeadlessSimulator(level, SimulationProfile.INTERACTIVE, regionPool);
+            assertSame(regionPool, simulator.getPhysicsWorld().getRegionPool(), "The given pool should step the regions");
+            SimulationResult result = simulator.run(600);
+            assertEquals(2, simulator.getPhysicsWorld().getRegionCount(), "The far plank should be in a region of its own");
+            assertTrue(result.isCompleted(), "The ball should fall into the win area");
+        } finally {
+            regionPool.shutdown();
+        }
+    }
+}
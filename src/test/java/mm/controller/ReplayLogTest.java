@@ -0,0 +1,138 @@
+package mm.controller;
+
+import javafx.geometry.Point2D;
+import mm.model.objects.GameObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the ReplayLog class.
+ */
+public class ReplayLogTest {
+
+    /**
+     * Simulates the game loop with uneven frame times.
+     *
+     * @param controller The game controller
+     * @param frames The number of frames to simulate
+     */
+    private void runFrames(GameController controller, int frames) {
+        controller.startSimulation();
+        for (int i = 0; i < frames; i++) {
+            controller.update(i % 3 == 0 ? 0.031f : 0.009f);
+        }
+        controller.stopSimulation();
+    }
+
+    /**
+     * Tests that playing back a recorded attempt reaches the recorded state bit for bit.
+     *
+     * @param directory A temporary directory for the replay file
+     * @throws IOException If the level or the replay file cannot be read
+     */
+    @Test
+    public void testReplayIsDeterministic(@TempDir Path directory) throws IOException {
+        GameController controller = new GameController();
+        controller.loadLevelByIndex(0);
+        assertTrue(controller.placeObject("Plank", new Point2D(320, 240)), "The plank should be placed");
+        runFrames(controller, 50);
+        assertTrue(controller.removeObject(new Point2D(320, 240)), "The plank should be removed");
+        assertTrue(controller.placeObject("Plank", new Point2D(260, 200)), "The plank should be placed again");
+        assertTrue(controller.placeObject("Ball", new Point2D(150, 60)), "The ball should be placed");
+        runFrames(controller, 80);
+        assertEquals(1, controller.getCurrentLevelNumber(), "The level should not have been completed");
+
+        ReplayLog recorded = controller.getReplay();
+        assertEquals(4, recorded.getActions().size(), "All actions should be recorded");
+        assertTrue(recorded.getSteps() > 0, "The simulated steps should be recorded");
+
+        String file = directory.resolve("attempt.replay").toString();
+        recorded.write(file);
+        ReplayLog loaded = ReplayLog.read(file);
+        assertEquals(recorded.getLevelFile(), loaded.getLevelFile(), "The level should be read back");
+        assertEquals(recorded.getSteps(), loaded.getSteps(), "The steps should be read back");
+        assertEquals(recorded.getStateHash(), loaded.getStateHash(), "The state hash should be read back");
+
+        HeadlessSimulator simulator = HeadlessSimulator.replay(loaded);
+        assertEquals(recorded.getSteps(), simulator.getPhysicsWorld().getStepCount(), "The replay should run all steps");
+        assertEquals(recorded.getStateHash(), ReplayLog.hashState(simulator.getPhysicsWorld()),
+                "The replay should end in the recorded state");
+
+        List<GameObject> original = controller.getPhysicsWorld().getGameObjects();
+        List<GameObject> replayed = simulator.getPhysicsWorld().getGameObjects();
+        assertEquals(original.size(), replayed.size(), "The replay should contain the same objects");
+        for (int i = 0; i < original.size(); i++) {
+            assertEquals(original.get(i).getX(), replayed.get(i).getX(), "The x coordinates should be identical");
+            assertEquals(original.get(i).getY(), replayed.get(i).getY(), "The y coordinates should be identical");
+            assertEquals(original.get(i).getRotation(), replayed.get(i).getRotation(), "The rotations should be identical");
+        }
+    }
+
+    /**
+     * Tests that replays covering several attempts with resets in between are reproduced exactly.
+     *
+     * @throws IOException If the level cannot be read
+     */
+    @Test
+    public void testReplayWithResets() throws IOException {
+        GameController controller = new GameController();
+        controller.loadLevelByIndex(0);
+        assertTrue(controller.placeObject("Plank", new Point2D(260, 200)), "The plank should be placed");
+        runFrames(controller, 60);
+        controller.resetLevel();
+        assertEquals(2, controller.getPhysicsWorld().getGameObjects().size(), "The placed plank should be removed");
+        assertTrue(controller.placeObject("Plank", new Point2D(120, 220)), "The plank should be placed again");
+        runFrames(controller, 70);
+
+        ReplayLog recorded = controller.getReplay();
+        assertEquals(ReplayLog.ActionType.RESET, recorded.getActions().get(1).getType(), "The reset should be recorded");
+
+        HeadlessSimulator simulator = HeadlessSimulator.replay(recorded);
+        assertEquals(recorded.getStateHash(), ReplayLog.hashState(simulator.getPhysicsWorld()),
+                "The replay should end in the recorded state");
+    }
+
+    /**
+     * Tests that a different attempt does not match the recorded state.
+     *
+     * @throws IOException If the level cannot be read
+     */
+    @Test
+    public void testDifferentAttemptDiffers() throws IOException {
+        GameController first = new GameController();
+        first.loadLevelByIndex(0);
+        runFrames(first, 40);
+
+        GameController second = new GameController();
+        second.loadLevelByIndex(0);
+        assertTrue(second.placeObject("Plank", new Point2D(100, 200)), "The plank should be placed");
+        runFrames(second, 40);
+
+        assertEquals(first.getReplay().getSteps(), second.getReplay().getSteps(), "Both attempts should run as long");
+        assertNotEquals(first.getReplay().getStateHash(), second.getReplay().getStateHash(),
+                "The plank should change the final state");
+    }
+
+    /**
+     * Tests that invalid replay files are rejected.
+     *
+     * @param directory A temporary directory for the replay file
+     * @throws IOException If the replay file cannot be written
+     */
+    @Test
+    public void testReadInvalidFile(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("broken.replay");
+        Files.writeString(file, "mm-replay 1\nlevel level1.json\nplace x Ball 1 2\n");
+        assertThrows(IOException.class, () -> ReplayLog.read(file.toString()), "Invalid steps should be rejected");
+
+        Files.writeString(file, "mm-replay 1\nlevel level1.json\n");
+        assertThrows(IOException.class, () -> ReplayLog.read(file.toString()), "A missing end should be rejected");
+    }
+}
@@ -0,0 +1,120 @@
+package mm.controller;
+
+import javafx.geometry.Point2D;
+import mm.model.physics.RenderSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the SimulationThread class.
+ */
+public class SimulationThreadTest {
+
+    /**
+     * Tests that snapshots are only published when something changed.
+     *
+     * @throws IOException If the level cannot be read
+     * @throws InterruptedException If the test is interrupted
+     */
+    @Test
+    public void testTickPublishesSnapshots() throws IOException, InterruptedException {
+        GameController controller = new GameController();
+        controller.loadLevelByIndex(0);
+        assertTrue(controller.placeObject("Ball", new Point2D(150, 60)), "The ball should be placed");
+        SimulationThread simulationThread = new SimulationThread(controller);
+        assertNull(simulationThread.takeSnapshot(null), "There should be no snapshot before the first tick");
+
+        simulationThread.tick();
+        RenderSnapshot first = simulationThread.takeSnapshot(null);
+        assertNotNull(first, "The first tick should publish a snapshot");
+        assertSame(controller.getPhysicsWorld(), first.getPhysicsWorld(), "The snapshot should be of the current world");
+        float startY = -1;
+        for (int i = 0; i < first.size(); i++) {
+            if (first.getGameObject(i).getKind().getName().equals("Ball") && first.getX(i) == 150) {
+                startY = first.getY(i);
+            }
+        }
+        assertEquals(60, startY, "The snapshot should contain the placed ball");
+        assertNull(simulationThread.takeSnapshot(null), "A snapshot can only be taken once");
+
+        simulationThread.tick();
+        assertNull(simulationThread.takeSnapshot(null), "Nothing moves in the editor, so no snapshot should be published");
+
+        controller.startSimulation();
+        Thread.sleep(50);
+        simulationThread.tick();
+        RenderSnapshot second = simulationThread.takeSnapshot(null);
+        assertNotNull(second, "The simulation should publish a new snapshot");
+        assertNotSame(first, second, "The taken snapshot must not be filled again");
+        assertTrue(second.getTimeNanos() > first.getTimeNanos(), "The new snapshot should be newer");
+        assertTrue(controller.getPhysicsWorld().getStepCount() > 0, "The tick should have stepped the physics");
+    }
+
+    /**
+     * Tests that snapshots given back by the drawing thread are filled again instead of new ones.
+     *
+     * @throws IOException If the level cannot be read
+     * @throws InterruptedException If the test is interrupted
+     */
+    @Test
+    public void testSnapshotsAreReused() throws IOException, InterruptedException {
+        GameController controller = new GameController();
+        controller.loadLevelByIndex(0);
+        assertTrue(controller.placeObject("Ball", new Point2D(150, 60)), "The ball should be placed");
+        controller.startSimulation();
+        SimulationThread simulationThread = new SimulationThread(controller);
+
+        Set<RenderSnapshot> snapshots = Collections.newSetFromMap(new IdentityHashMap<>());
+        RenderSnapshot previous = null;
+        RenderSnapshot current = null;
+        for (int i = 0; i < 20; i++) {
+            Thread.sleep(5);
+            simulationThread.tick();
+            RenderSnapshot latest = simulationThread.takeSnapshot(previous);
+            if (latest != null) {
+                assertNotSame(current, latest, "A snapshot held by the drawing thread must not be filled");
+                previous = current;
+                current = latest;
+                snapshots.add(latest);
+            }
+        }
+        assertTrue(snapshots.size() > 1, "The ball should have moved");
+        assertTrue(snapshots.size() <= 4, "Only a few snapshots should be filled in turn, but got " + snapshots.size());
+    }
+
+    /**
+     * Tests that the thread simulates the game on its own until it is stopped.
+     *
+     * @throws IOException If the level cannot be read
+     * @throws InterruptedException If the test is interrupted
+     */
+    @Test
+    public void testStartAndStop() throws IOException, InterruptedException {
+        GameController controller = new GameController();
+        controller.loadLevelByIndex(0);
+        controller.startSimulation();
+        SimulationThread simulationThread = new SimulationThread(controller);
+        simulationThread.start();
+        assertTrue(simulationThread.isRunning(), "The thread should be running");
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (controller.getPhysicsWorld().getStepCount() < 10 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        simulationThread.stop();
+        assertFalse(simulationThread.isRunning(), "The thread should be stopped");
+        long steps;
+        synchronized (controller) {
+            steps = controller.getPhysicsWorld().getStepCount();
+        }
+        assertTrue(steps >= 10, "The thread should have simulated the game");
+        Thread.sleep(50);
+        assertEquals(steps, controller.getPhysicsWorld().getStepCount(), "A stopped thread should not simulate");
+    }
+}
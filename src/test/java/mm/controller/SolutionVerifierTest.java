@@ -0,0 +1,84 @@
+package mm.controller;
+
+import javafx.geometry.Point2D;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the SolutionVerifier class.
+ */
+public class SolutionVerifierTest {
+
+    /**
+     * Tests that invalid placements are rejected without simulating.
+     */
+    @Test
+    public void testInvalidCandidate() throws Exception {
+        SolutionVerifier verifier = new SolutionVerifier("test.json", 60);
+
+        SimulationResult result = verifier.verifyCandidate(List.of(new Placement("Ball", new Point2D(50, 50))));
+
+        assertFalse(result.isValid(), "Placing in a restriction zone should be invalid");
+        assertFalse(result.isCompleted(), "An invalid candidate should not complete the level");
+        assertEquals(0, result.getSteps(), "An invalid candidate should not be simulated");
+    }
+
+    /**
+     * Tests that a candidate putting the objects into the win areas completes the level.
+     */
+    @Test
+    public void testCompletingCandidate() throws Exception {
+        SolutionVerifier verifier = new SolutionVerifier("test.json", 60);
+
+        SimulationResult result = verifier.verifyCandidate(List.of(
+                new Placement("Ball", new Point2D(400, 400)),
+                new Placement("Box", new Point2D(550, 400))));
+
+        assertTrue(result.isValid(), "The placements should be allowed");
+        assertTrue(result.isCompleted(), "Both win conditions should be satisfied");
+        assertEquals(1, result.getSteps(), "The level should be completed after the first step");
+    }
+
+    /**
+     * Tests that candidates simulated concurrently give the same results as sequential ones.
+     */
+    @Test
+    public void testConcurrentCandidates() throws Exception {
+        List<List<Placement>> candidates = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            if (i % 2 == 0) {
+                candidates.add(List.of(new Placement("Ball", new Point2D(300 + i * 10, 200))));
+            } else {
+                candidates.add(List.of(new Placement("Ball", new Point2D(50, 50))));
+            }
+        }
+
+        SolutionVerifier verifier = new SolutionVerifier("test.json", 120, new ForkJoinPool(4));
+        List<SimulationResult> results = verifier.verify(candidates);
+
+        assertEquals(candidates.size(), results.size(), "There should be one result per candidate");
+        for (int i = 0; i < candidates.size(); i++) {
+            SimulationResult expected = verifier.verifyCandidate(candidates.get(i));
+            assertEquals(expected.isValid(), results.get(i).isValid(), "Validity should not depend on concurrency");
+            assertEquals(expected.isCompleted(), results.get(i).isCompleted(), "Completion should not depend on concurrency");
+            assertEquals(expected.getSteps(), results.get(i).getSteps(), "Steps should not depend on concurrency");
+        }
+    }
+
+    /**
+     * Tests that a missing level file fails before any candidate is verified.
+     */
+    @Test
+    public void testMissingLevel() {
+        SolutionVerifier verifier = new SolutionVerifier("missing.json", 60, new ForkJoinPool(2));
+        List<List<Placement>> candidates = List.of(List.of(), List.of());
+
+        assertThrows(IOException.class, () -> verifier.verify(candidates), "Verifying a missing level should fail");
+    }
+}
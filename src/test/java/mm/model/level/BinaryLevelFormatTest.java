@@ -0,0 +1,85 @@
+package mm.model.level;
+
+import mm.model.objects.GameObject;
+import mm.model.objects.impl.Ball;
+import mm.model.objects.impl.Log;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the BinaryLevelFormat class.
+ */
+public class BinaryLevelFormatTest {
+
+    /**
+     * Tests converting a JSON level file and loading the binary level file.
+     */
+    @Test
+    public void testConvertAndLoad(@TempDir Path directory) throws IOException {
+        String binaryFile = directory.resolve("test" + BinaryLevelFormat.FILE_EXTENSION).toString();
+        BinaryLevelFormat.convert("test.json", binaryFile);
+
+        Level expected = LevelLoader.loadLevel("test.json");
+        Level actual = LevelLoader.loadLevel(binaryFile);
+
+        assertEquals(expected.getName(), actual.getName(), "Name should survive the conversion");
+        assertEquals(expected.getDescription(), actual.getDescription(), "Description should survive the conversion");
+        assertEquals(expected.getStaticObjects().size(), actual.getStaticObjects().size(), "Static objects should survive the conversion");
+        assertEquals(expected.getDynamicObjects().size(), actual.getDynamicObjects().size(), "Dynamic objects should survive the conversion");
+        for (int i = 0; i < expected.getDynamicObjects().size(); i++) {
+            GameObject expectedObject = expected.getDynamicObjects().get(i);
+            GameObject actualObject = actual.getDynamicObjects().get(i);
+            assertEquals(expectedObject.getClass(), actualObject.getClass(), "Object classes should survive the conversion");
+            assertEquals(expectedObject.getPosition(), actualObject.getPosition(), "Positions should survive the conversion");
+        }
+
+        Log log = (Log) actual.getStaticObjects().get(2);
+        assertEquals(150, log.getLength(), "Length should survive the conversion");
+        Ball bouncyBall = (Ball) actual.getDynamicObjects().get(1);
+        Ball expectedBall = (Ball) expected.getDynamicObjects().get(1);
+        assertEquals(expectedBall.getRestitution(), bouncyBall.getRestitution(), "Material should survive the conversion");
+        assertEquals(expectedBall.getColor(), bouncyBall.getColor(), "Color should survive the conversion");
+
+        assertEquals(expected.getWinConditions().get(1).getArea(), actual.getWinConditions().get(1).getArea(),
+                "Win areas should survive the conversion");
+        assertEquals(expected.getRestrictionZones().get(1).getArea(), actual.getRestrictionZones().get(1).getArea(),
+                "Restriction zones should survive the conversion");
+        assertEquals(expected.getInventory(), actual.getInventory(), "Inventory should survive the conversion");
+    }
+
+    /**
+     * Tests that saving with the binary extension writes a binary level file.
+     */
+    @Test
+    public void testSaveLevel(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("saved" + BinaryLevelFormat.FILE_EXTENSION);
+        LevelLoader.saveLevel(LevelLoader.loadLevel("level1.json"), file.toString());
+
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        assertEquals(0x4D4D4C56, buffer.getInt(), "The file should start with the magic number");
+        assertEquals(BinaryLevelFormat.VERSION, buffer.getInt(), "The file should contain the format version");
+        assertEquals("Level 1", LevelLoader.loadLevel(file.toString()).getName(), "The level should load again");
+    }
+
+    /**
+     * Tests that invalid binary level files are rejected.
+     */
+    @Test
+    public void testInvalidFiles() {
+        ByteBuffer wrongMagic = ByteBuffer.allocate(8).putInt(42).putInt(BinaryLevelFormat.VERSION);
+        assertThrows(IOException.class, () -> BinaryLevelFormat.read(wrongMagic.flip()), "Wrong magic should be rejected");
+
+        ByteBuffer wrongVersion = ByteBuffer.allocate(8).putInt(0x4D4D4C56).putInt(BinaryLevelFormat.VERSION + 1);
+        assertThrows(IOException.class, () -> BinaryLevelFormat.read(wrongVersion.flip()), "Unknown versions should be rejected");
+
+        ByteBuffer truncated = ByteBuffer.allocate(12).putInt(0x4D4D4C56).putInt(BinaryLevelFormat.VERSION).putInt(100);
+        assertThrows(IOException.class, () -> BinaryLevelFormat.read(truncated.flip()), "Truncated files should be rejected");
+    }
+}
@@ -0,0 +1,136 @@
+package mm.model.level;
+
+import javafx.geometry.Point2D;
+import javafx.geometry.Rectangle2D;
+import mm.model.objects.GameObject;
+import mm.model.objects.ObjectKind;
+import mm.model.objects.impl.Ball;
+import mm.model.objects.impl.Box;
+import mm.model.objects.impl.Log;
+import mm.model.objects.impl.Plank;
+import mm.model.physics.SimulationProfile;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the LevelLoader class.
+ */
+public class LevelLoaderTest {
+
+    /**
+     * Tests loading a level file.
+     */
+    @Test
+    public void testLoadLevel() throws IOException {
+        Level level = LevelLoader.loadLevel("test.json");
+
+        assertEquals("Test Level", level.getName(), "Name should be read from the file");
+        assertEquals(3, level.getStaticObjects().size(), "There should be three static objects");
+        assertEquals(5, level.getDynamicObjects().size(), "There should be five dynamic objects");
+        assertEquals(2, level.getWinConditions().size(), "There should be two win conditions");
+        assertEquals(2, level.getRestrictionZones().size(), "There should be two restriction zones");
+        assertEquals(5, level.getInventory().get("Ball"), "Ball count should be read from the file");
+
+        Log log = (Log) level.getStaticObjects().get(2);
+        assertEquals(new Point2D(600, 300), log.getPosition(), "Position should be read from the file");
+        assertEquals(150, log.getLength(), "Length should be read from the file");
+
+        Ball bouncyBall = (Ball) level.getDynamicObjects().get(1);
+        assertTrue(bouncyBall.getRestitution() > 0.8f, "Bouncy ball should have high restitution");
+    }
+
+    /**
+     * Tests that the template is cached but every loaded level gets its own objects.
+     */
+    @Test
+    public void testTemplateCache() throws IOException {
+        LevelTemplate template = LevelLoader.loadTemplate("test.json");
+
+        assertSame(template, LevelLoader.loadTemplate("./test.json"), "The template should be cached per file");
+        Level first = template.createLevel();
+        Level second = template.createLevel();
+        assertNotSame(first.getDynamicObjects().get(0), second.getDynamicObjects().get(0),
+                "Levels created from a template should not share objects");
+        assertNotSame(first.getWinConditions().get(0), second.getWinConditions().get(0),
+                "Levels created from a template should not share win conditions");
+    }
+
+    /**
+     * Tests that objects without a size get the default size of their kind.
+     */
+    @Test
+    public void testDefaultSizes() {
+        JSONObject json = new JSONObject().put("type", "HeavyBall").put("x", 100).put("y", 50);
+        Ball placed = (Ball) ObjectKind.HEAVY_BALL.create(new Point2D(100, 50));
+
+        Ball fromTemplate = (Ball) ObjectTemplate.fromJson(json).create();
+        assertEquals(placed.getRadius(), fromTemplate.getRadius(), "A template should use the radius of the kind");
+        assertEquals(placed.getDensity(), fromTemplate.getDensity(), "A template should use the material of the kind");
+        assertSame(ObjectKind.HEAVY_BALL, fromTemplate.getKind(), "A template should keep the kind");
+        Ball streamed = (Ball) ObjectTemplate.createObject(json);
+        assertEquals(placed.getRadius(), streamed.getRadius(), "A streamed object should use the radius of the kind");
+        assertSame(ObjectKind.HEAVY_BALL, streamed.getKind(), "A streamed object should keep the kind");
+
+        Ball resized = (Ball) ObjectTemplate.fromJson(json.put("radius", 25)).create();
+        assertEquals(25, resized.getRadius(), "A given radius should replace the default");
+        assertEquals(placed.getDensity(), resized.getDensity(), "A resized object should keep the material of the kind");
+    }
+
+    /**
+     * Tests that loading a missing file fails.
+     */
+    @Test
+    public void testMissingFile() {
+        assertThrows(IOException.class, () -> LevelLoader.loadLevel("missing.json"),
+                "Loading a missing file should fail");
+    }
+
+    /**
+     * Tests saving a level and loading it again.
+     */
+    @Test
+    public void testSaveAndLoad(@TempDir Path directory) throws IOException {
+        Level level = new Level("Saved Level", "A saved level");
+        level.addStaticObject(new Plank(new Point2D(200, 300), 30, 200, 20));
+        level.addDynamicObject(Box.createHeavyBox(new Point2D(100, 100), 40, 20));
+        level.addWinCondition(new WinCondition("Box", new Rectangle2D(350, 350, 100, 100)));
+        level.addRestrictionZone(new RestrictionZone(new Rectangle2D(0, 0, 100, 100)));
+        level.addInventoryItem("Ball", 2);
+        level.removeInventoryItem("Ball", 1);
+
+        String file = directory.resolve("saved.json").toString();
+        LevelLoader.saveLevel(level, file);
+        assertTrue(Files.exists(Path.of(file)), "The level file should have been written");
+        Level loaded = LevelLoader.loadLevel(file);
+
+        assertEquals("Saved Level", loaded.getName(), "Name should survive saving");
+        Plank plank = (Plank) loaded.getStaticObjects().get(0);
+        assertEquals(30, plank.getRotation(), "Rotation should survive saving");
+        assertEquals(200, plank.getWidth(), "Width should survive saving");
+        GameObject box = loaded.getDynamicObjects().get(0);
+        assertEquals(5.0f, ((Box) box).getDensity(), "The material of the heavy box should survive saving");
+        assertEquals(40, ((Box) box).getWidth(), "Width should survive saving");
+        assertEquals(new Rectangle2D(350, 350, 100, 100), loaded.getWinConditions().get(0).getArea(),
+                "Win area should survive saving");
+        assertEquals(2, loaded.getInventory().get("Ball"), "The original inventory should be saved");
+        assertNull(loaded.getSimulationProfile(), "A level without quality should use the default profile");
+
+        level.setSimulationProfile(SimulationProfile.HIGH_FIDELITY);
+        for (String name : new String[] {"quality.json", "quality" + BinaryLevelFormat.FILE_EXTENSION}) {
+            String qualityFile = directory.resolve(name).toString();
+            LevelLoader.saveLevel(level, qualityFile);
+            assertEquals(SimulationProfile.HIGH_FIDELITY, LevelLoader.loadLevel(qualityFile).getSimulationProfile(),
+                    "The simulation profile should survive saving as " + name);
+        }
+        assertEquals(SimulationProfile.HIGH_FIDELITY,
+                LevelLoader.streamLevel(directory.resolve("quality.json").toString()).getSimulationProfile(),
+                "The simulation profile should be streamed");
+    }
+}
@@ -0,0 +1,122 @@
+package mm.model.level;
+
+import mm.model.objects.GameObject;
+import mm.model.objects.impl.Ball;
+import mm.model.objects.impl.Plank;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the LevelReader class.
+ */
+public class LevelReaderTest {
+
+    /**
+     * Tests that streaming a level file gives the same level as loading it.
+     */
+    @Test
+    public void testStreamLevel() throws IOException {
+        Level streamed = LevelLoader.streamLevel("test.json");
+        Level loaded = LevelLoader.loadLevel("test.json");
+
+        assertEquals(loaded.getName(), streamed.getName(), "Name should match");
+        assertEquals(loaded.getStaticObjects().size(), streamed.getStaticObjects().size(), "Static objects should match");
+        assertEquals(loaded.getDynamicObjects().size(), streamed.getDynamicObjects().size(), "Dynamic objects should match");
+        assertEquals(loaded.getWinConditions().size(), streamed.getWinConditions().size(), "Win conditions should match");
+        assertEquals(loaded.getRestrictionZones().size(), streamed.getRestrictionZones().size(), "Restriction zones should match");
+        assertEquals(loaded.getInventory(), streamed.getInventory(), "Inventory should match");
+    }
+
+    /**
+     * Tests pulling objects one at a time, with the name after the objects.
+     */
+    @Test
+    public void testNextObject() throws IOException {
+        String json = "{\"dynamicObjects\": [{\"type\": \"Ball\", \"x\": 1, \"y\": 2, \"radius\": 5}],"
+                + " \"staticObjects\": [],"
+                + " \"staticObjects\": [{\"type\": \"Plank\", \"x\": 3, \"y\": 4, \"width\": 10, \"height\": 2}],"
+                + " \"name\": \"Late Name\"}";
+        try (LevelReader reader = new LevelReader(new StringReader(json))) {
+            GameObject first = reader.nextObject();
+            assertTrue(first instanceof Ball, "The first object should be the ball");
+            assertFalse(reader.isLastObjectStatic(), "The ball is a dynamic object");
+
+            GameObject second = reader.nextObject();
+            assertTrue(second instanceof Plank, "The second object should be the plank");
+            assertTrue(reader.isLastObjectStatic(), "The plank is a static object");
+
+            assertNull(reader.nextObject(), "There should be no more objects");
+            assertEquals("Late Name", reader.readLevel().getName(), "The name should be read after the objects");
+        }
+    }
+
+    /**
+     * Tests streaming a large generated level.
+     */
+    @Test
+    public void testLargeLevel() throws IOException {
+        StringBuilder json = new StringBuilder("{\"name\": \"Large\", \"dynamicObjects\": [");
+        for (int i = 0; i < 10000; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"type\": \"Box\", \"x\": ").append(i).append(", \"y\": 0, \"width\": 5, \"height\": 5}");
+        }
+        json.append("]}");
+
+        Level level = new LevelReader(new StringReader(json.toString())).readLevel();
+
+        assertEquals(10000, level.getDynamicObjects().size(), "All objects should be read");
+        assertEquals(9999, level.getDynamicObjects().get(9999).getPosition().getX(), "Objects should keep their order");
+    }
+
+    /**
+     * Tests that malformed level files are rejected.
+     */
+    @Test
+    public void testMalformedLevel() {
+        assertThrows(IOException.class, () -> new LevelReader(new StringReader("[]")).readLevel(),
+                "A level must be an object");
+        assertThrows(IOException.class, () -> new LevelReader(new StringReader("{\"staticObjects\": [1]}")).readLevel(),
+                "Objects must be JSON objects");
+        assertThrows(IOException.class,
+                () -> new LevelReader(new StringReader("{\"staticObjects\": [{\"type\": \"Rocket\", \"x\": 0, \"y\": 0}]}")).readLevel(),
+                "Unknown object types must be rejected");
+        assertThrows(IOException.class,
+                () -> new LevelReader(new StringReader("{\"dynamicObjects\": [{\"type\": \"Ball\", \"x\": 0, \"y\": 0}"
+                        + " {\"type\": \"Ball\", \"x\": 1, \"y\": 0}]}")).readLevel(),
+                "Array elements must be separated by commas");
+        assertThrows(IOException.class, () -> new LevelReader(new StringReader("{\"name\": \"A\" \"description\": \"B\"}")).readLevel(),
+                "Entries must be separated by commas");
+        assertThrows(IOException.class, () -> new LevelReader(new StringReader("{\"winConditions\": 5}")).readLevel(),
+                "Entries of the wrong type must be rejected");
+    }
+
+    /**
+     * Tests that streamed objects are the same as the objects created by templates.
+     */
+    @Test
+    public void testObjectsMatchTemplates() throws IOException {
+        String[] objects = {
+            "{\"type\": \"Ball\", \"x\": 1, \"y\": 2}",
+            "{\"type\": \"BouncyBall\", \"x\": 1, \"y\": 2, \"radius\": 7, \"rotation\": 30}",
+            "{\"type\": \"HeavyBox\", \"x\": 1, \"y\": 2, \"width\": 12, \"friction\": 0.9}",
+            "{\"type\": \"Plank\", \"x\": 1, \"y\": 2, \"rotation\": 15}",
+            "{\"type\": \"Balloon\", \"x\": 1, \"y\": 2, \"color\": \"#00ff00\"}"
+        };
+        for (String object : objects) {
+            JSONObject json = new JSONObject(object);
+            GameObject streamed = new LevelReader(new StringReader("{\"dynamicObjects\": [" + object + "]}")).nextObject();
+            GameObject created = ObjectTemplate.fromJson(json).create();
+
+            assertSame(created.getKind(), streamed.getKind(), "The kind should match for " + object);
+            assertTrue(ObjectTemplate.toJson(created).similar(ObjectTemplate.toJson(streamed)),
+                    "The properties should match for " + object);
+        }
+    }
+}
@@ -125,4 +125,49 @@ public class LevelTest {
         assertTrue(level.isInRestrictionZone(new Point2D(50, 50)), "Point inside the zone should return true");
         assertFalse(level.isInRestrictionZone(new Point2D(150, 150)), "Point outside the zone should return false");
     }
+    
+    /**
+     * Tests restriction zones that span several grid cells, negative coordinates and huge zones.
+     */
+    @Test
+    public void testIsInRestrictionZoneLargeLevel() {
+        Level level = new Level("Test Level", "A test level");
+        for (int i = 0; i < 1000; i++) {
+            level.addRestrictionZone(new RestrictionZone(new Rectangle2D(i * 300, 0, 150, 250)));
+        }
+        level.addRestrictionZone(new RestrictionZone(new Rectangle2D(-50, -50, 40, 40)));
+        level.addRestrictionZone(new RestrictionZone(new Rectangle2D(0, 10000, 1000000, 10000)));
+        
+        assertTrue(level.isInRestrictionZone(new Point2D(300 * 500 + 149, 249)), "Point in a zone spanning cells should return true");
+        assertFalse(level.isInRestrictionZone(new Point2D(300 * 500 + 151, 100)), "Point between zones should return false");
+        assertTrue(level.isInRestrictionZone(new Point2D(-30, -30)), "Point in a zone with negative coordinates should return true");
+        assertTrue(level.isInRestrictionZone(new Point2D(999999, 15000)), "Point in a huge zone should return true");
+        assertFalse(level.isInRestrictionZone(new Point2D(-30, 15000)), "Point next to a huge zone should return false");
+    }
+    
+    /**
+     * Tests that inventory listeners are notified about every change of the inventory.
+     */
+    @Test
+    public void testInventoryListener() {
+        Level level = new Level("Test Level", "A test level");
+        level.addInventoryItem("Ball", 2);
+        int[] notifications = {0};
+        Runnable listener = () -> notifications[0]++;
+        level.addInventoryListener(listener);
+
+        assertTrue(level.removeInventoryItem("Ball", 1), "The ball should be taken from the inventory");
+        assertEquals(1, notifications[0], "Taking an item should notify the listener");
+        assertFalse(level.removeInventoryItem("Plank", 1), "There is no plank in the inventory");
+        assertEquals(1, notifications[0], "A failed removal should not notify the listener");
+        level.returnInventoryItem("Ball", 1);
+        level.resetInventory();
+        assertEquals(3, notifications[0], "Returning items and resetting should notify the listener");
+        assertEquals(2, level.getInventoryView().get("Ball"), "The view should show the current inventory");
+
+        level.removeInventoryListener(listener);
+        level.removeInventoryItem("Ball", 1);
+        assertEquals(3, notifications[0], "A removed listener should not be notified");
+        assertEquals(1, level.getInventoryView().get("Ball"), "The view should reflect later changes");
+    }
 }
@@ -0,0 +1,139 @@
+package mm.model.level;
+
+import javafx.geometry.Point2D;
+import javafx.geometry.Rectangle2D;
+import mm.model.objects.impl.Ball;
+import mm.model.objects.impl.Box;
+import mm.model.objects.impl.Plank;
+import mm.model.physics.PhysicsWorld;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the WinAreaSensors class.
+ */
+public class WinAreaSensorsTest {
+
+    /**
+     * Creates a level with a win area for balls.
+     *
+     * @return The level
+     */
+    private Level createLevel() {
+        Level level = new Level("Test Level", "A test level");
+        level.addWinCondition(new WinCondition("Ball", new Rectangle2D(350, 350, 100, 100)));
+        return level;
+    }
+
+    /**
+     * Tests that an object entering and leaving the area updates the win condition.
+     */
+    @Test
+    public void testEnterAndLeave() {
+        Level level = createLevel();
+        PhysicsWorld physicsWorld = new PhysicsWorld();
+        Ball ball = new Ball(new Point2D(400, 400), 10);
+        physicsWorld.addGameObject(ball);
+        level.attachWinSensors(physicsWorld);
+
+        assertFalse(level.areWinConditionsSatisfied(), "Contacts are only found when the world is stepped");
+        physicsWorld.step();
+        assertTrue(level.areWinConditionsSatisfied(), "The ball is in the win area");
+
+        physicsWorld.removeGameObject(ball);
+        assertFalse(level.areWinConditionsSatisfied(), "The ball was removed from the win area");
+    }
+
+    /**
+     * Tests that objects of other types do not satisfy the win condition.
+     */
+    @Test
+    public void testWrongType() {
+        Level level = createLevel();
+        PhysicsWorld physicsWorld = new PhysicsWorld();
+        physicsWorld.addGameObject(new Box(new Point2D(400, 400), 30, 30));
+        level.attachWinSensors(physicsWorld);
+
+        physicsWorld.step();
+        assertFalse(level.areWinConditionsSatisfied(), "A box should not satisfy a ball win condition");
+    }
+
+    /**
+     * Tests that an object only satisfies the win condition once its center is inside the area.
+     */
+    @Test
+    public void testCenterOutsideArea() {
+        Level level = createLevel();
+        PhysicsWorld physicsWorld = new PhysicsWorld();
+        physicsWorld.addGameObject(new Ball(new Point2D(345, 400), 10));
+        level.attachWinSensors(physicsWorld);
+
+        physicsWorld.step();
+        assertFalse(level.areWinConditionsSatisfied(), "A ball that only touches the area should not satisfy it");
+    }
+
+    /**
+     * Tests that an object is counted once, no matter how many of its fixtures overlap the area.
+     */
+    @Test
+    public void testDistinctObjects() {
+        WinCondition winCondition = new WinCondition("Ball", new Rectangle2D(350, 350, 100, 100));
+        Ball ball = new Ball(new Point2D(400, 400), 10);
+
+        winCondition.objectEntered(ball);
+        winCondition.objectEntered(ball);
+        winCondition.updateObjectsInArea();
+        assertTrue(winCondition.isSatisfied(), "The ball is in the area");
+
+        winCondition.objectLeft(ball);
+        assertTrue(winCondition.isSatisfied(), "One fixture of the ball still overlaps the area");
+        winCondition.objectLeft(ball);
+        assertFalse(winCondition.isSatisfied(), "The ball left the area");
+    }
+
+    /**
+     * Tests that detaching the sensors removes them from the physics world.
+     */
+    @Test
+    public void testDetach() {
+        Level level = createLevel();
+        PhysicsWorld physicsWorld = new PhysicsWorld();
+        physicsWorld.addGameObject(new Ball(new Point2D(400, 400), 10));
+        int bodies = physicsWorld.getBodyCount();
+        level.attachWinSensors(physicsWorld);
+        physicsWorld.step();
+
+        assertEquals(bodies + 1, physicsWorld.getBodyCount(), "There should be one sensor body");
+        level.detachWinSensors();
+        assertEquals(bodies, physicsWorld.getBodyCount(), "The sensor body should be removed");
+        assertFalse(level.getWinConditions().get(0).isSatisfied(), "Detached win conditions are not satisfied");
+        physicsWorld.step();
+        assertFalse(level.areWinConditionsSatisfied(), "Detached win conditions are no longer updated");
+    }
+
+    /**
+     * Tests that the sensors work in a world that is split into regions.
+     */
+    @Test
+    public void testRegions() {
+        Level level = createLevel();
+        PhysicsWorld physicsWorld = new PhysicsWorld();
+        physicsWorld.setRegionPool(ForkJoinPool.commonPool());
+        Ball ball = new Ball(new Point2D(400, 400), 10);
+        physicsWorld.addGameObject(ball);
+        physicsWorld.addGameObject(new Plank(new Point2D(3000, 400), 0, 300, 20));
+        level.attachWinSensors(physicsWorld);
+
+        physicsWorld.step();
+        assertEquals(2, physicsWorld.getRegionCount(), "The win area should be in the region of the ball");
+        assertTrue(level.areWinConditionsSatisfied(), "The ball is in the win area");
+
+        physicsWorld.removeGameObject(ball);
+        assertFalse(level.areWinConditionsSatisfied(), "The ball was removed from the win area");
+        level.detachWinSensors();
+        assertEquals(1, physicsWorld.getRegionCount(), "The empty region of the win area should be dropped");
+    }
+}
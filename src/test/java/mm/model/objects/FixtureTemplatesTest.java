@@ -0,0 +1,73 @@
+package mm.model.objects;
+
+import javafx.geometry.Point2D;
+import mm.model.objects.impl.Ball;
+import mm.model.objects.impl.Box;
+import mm.model.physics.PhysicsWorld;
+import mm.model.physics.Units;
+import org.jbox2d.common.Vec2;
+import org.jbox2d.dynamics.BodyDef;
+import org.jbox2d.dynamics.Fixture;
+import org.jbox2d.dynamics.World;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the FixtureTemplates class.
+ */
+public class FixtureTemplatesTest {
+
+    /**
+     * Tests that fixture templates are shared by equal shapes and materials only.
+     */
+    @Test
+    public void testSharing() {
+        FixtureTemplate circle = FixtureTemplates.circle(0.2f, 1.0f, 0.3f, 0.5f);
+        assertSame(circle, FixtureTemplates.circle(0.2f, 1.0f, 0.3f, 0.5f), "Equal circles should share a template");
+        assertNotSame(circle, FixtureTemplates.circle(0.2f, 0.8f, 0.3f, 0.5f), "Other materials should not share it");
+        assertNotSame(circle, FixtureTemplates.box(0.2f, 0.2f, 1.0f, 0.3f, 0.5f), "A box should not share it");
+        assertEquals(1.0f, circle.getDensity(), "The template should have the density");
+
+        Fixture fixture = circle.createFixture(new World(new Vec2()).createBody(new BodyDef()));
+        assertEquals(0.2f, fixture.getShape().getRadius(), 0.0001f, "The fixture should have the radius");
+        assertEquals(0.3f, fixture.getFriction(), 0.0001f, "The fixture should have the friction");
+    }
+
+    /**
+     * Tests that the cache is emptied instead of growing beyond its limit.
+     */
+    @Test
+    public void testBoundedCache() {
+        for (int i = 0; i < FixtureTemplates.MAX_TEMPLATES + 10; i++) {
+            FixtureTemplates.circle(1 + i * 0.001f, 1.0f, 0.3f, 0.5f);
+        }
+        assertTrue(FixtureTemplates.size() <= FixtureTemplates.MAX_TEMPLATES, "The cache should stay within its limit");
+
+        FixtureTemplates.clear();
+        assertEquals(0, FixtureTemplates.size(), "Clearing should remove all templates");
+    }
+
+    /**
+     * Tests that identical objects share a template but still get bodies with their own fixtures.
+     */
+    @Test
+    public void testIdenticalObjects() {
+        PhysicsWorld physicsWorld = new PhysicsWorld();
+        Ball first = new Ball(new Point2D(100, 100), 10);
+        Ball second = new Ball(new Point2D(200, 100), 10);
+        physicsWorld.addGameObject(first);
+        int templates = FixtureTemplates.size();
+        physicsWorld.addGameObject(second);
+        physicsWorld.addGameObject(new Box(new Point2D(300, 100), 30, 30));
+        physicsWorld.addGameObject(new Box(new Point2D(400, 100), 30, 30));
+        assertTrue(FixtureTemplates.size() <= templates + 1, "Identical objects should not add templates");
+
+        Fixture firstFixture = first.getPhysicsBody().getFixtureList();
+        Fixture secondFixture = second.getPhysicsBody().getFixtureList();
+        assertNotSame(firstFixture.getShape(), secondFixture.getShape(), "Every fixture should have its own shape");
+        assertEquals(Units.toMeters(10), secondFixture.getShape().getRadius(), 0.0001f, "The shape should have the radius");
+        assertEquals(Units.toMeters(200), second.getPhysicsBody().getPosition().x, 0.0001f,
+                "The reused body definition should not keep old positions");
+    }
+}
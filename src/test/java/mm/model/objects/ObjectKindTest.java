@@ -0,0 +1,77 @@
+package mm.model.objects;
+
+import javafx.geometry.Point2D;
+import javafx.geometry.Rectangle2D;
+import mm.model.level.WinCondition;
+import mm.model.objects.impl.Ball;
+import mm.model.objects.impl.Box;
+import mm.model.physics.PhysicsWorld;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the ObjectKind class.
+ */
+public class ObjectKindTest {
+
+    /**
+     * Tests looking up kinds and creating objects of them.
+     */
+    @Test
+    public void testCreate() {
+        assertSame(ObjectKind.BOUNCY_BALL, ObjectKind.forName("BouncyBall"), "The kind should be found by its name");
+        assertNull(ObjectKind.forName("Unicorn"), "Unknown names should have no kind");
+
+        GameObject bouncyBall = ObjectKind.BOUNCY_BALL.create(new Point2D(0, 0));
+        assertTrue(bouncyBall instanceof Ball, "A bouncy ball should be a ball");
+        assertSame(ObjectKind.BOUNCY_BALL, bouncyBall.getKind(), "The created object should have the variant kind");
+        assertTrue(bouncyBall.getKind().isA(ObjectKind.BALL), "A bouncy ball should count as a ball");
+        assertFalse(ObjectKind.BALL.isA(ObjectKind.BOUNCY_BALL), "A ball should not count as a bouncy ball");
+        assertSame(ObjectKind.BOX, new Box(new Point2D(0, 0), 10, 10).getKind(),
+                "Objects created directly should have the base kind of their class");
+        assertThrows(IllegalArgumentException.class, () -> ObjectKind.BOX.assign(new Ball(new Point2D(0, 0), 5)),
+                "A ball cannot be of a box kind");
+    }
+
+    /**
+     * Tests that new variants can be registered and used by name.
+     */
+    @Test
+    public void testRegisterVariant() {
+        ObjectKind tinyBall = ObjectKind.registerVariant("TestTinyBall", ObjectKind.BALL,
+                position -> new Ball(position, 2));
+        assertSame(tinyBall, ObjectKind.forName("TestTinyBall"), "The new kind should be found by its name");
+        assertEquals(2, ((Ball) tinyBall.create(new Point2D(0, 0))).getRadius(), 0.001,
+                "The factory of the new kind should be used");
+        assertThrows(IllegalArgumentException.class,
+                () -> ObjectKind.registerVariant("TestTinyBall", ObjectKind.BALL, position -> new Ball(position, 2)),
+                "A name can only be registered once");
+    }
+
+    /**
+     * Tests that the physics world keeps the objects of each kind in separate lists.
+     */
+    @Test
+    public void testPhysicsWorldKindLists() {
+        PhysicsWorld physicsWorld = new PhysicsWorld();
+        GameObject ball = ObjectKind.BALL.create(new Point2D(100, 100));
+        GameObject heavyBall = ObjectKind.HEAVY_BALL.create(new Point2D(200, 100));
+        GameObject box = ObjectKind.BOX.create(new Point2D(300, 100));
+        physicsWorld.addGameObject(ball);
+        physicsWorld.addGameObject(heavyBall);
+        physicsWorld.addGameObject(box);
+
+        assertEquals(2, physicsWorld.getGameObjects(ObjectKind.BALL).size(), "Both balls should be found");
+        assertEquals(1, physicsWorld.getGameObjects(ObjectKind.HEAVY_BALL).size(), "Only the heavy ball should be found");
+        assertTrue(physicsWorld.getGameObjects(ObjectKind.BALLOON).isEmpty(), "There should be no balloons");
+
+        WinCondition winCondition = new WinCondition("HeavyBall", new Rectangle2D(150, 50, 100, 100));
+        assertTrue(winCondition.checkSatisfied(physicsWorld), "The heavy ball is inside the area");
+        assertFalse(winCondition.matches(ball), "A normal ball should not match a heavy ball condition");
+
+        physicsWorld.removeGameObject(heavyBall);
+        assertEquals(1, physicsWorld.getGameObjects(ObjectKind.BALL).size(), "The removed ball should be gone");
+        assertFalse(winCondition.checkSatisfied(physicsWorld), "No heavy ball is left");
+    }
+}
@@ -0,0 +1,95 @@
+package mm.model.objects;
+
+import javafx.geometry.Point2D;
+import mm.model.objects.impl.Ball;
+import mm.model.objects.impl.Box;
+import mm.model.physics.PhysicsWorld;
+import mm.model.physics.Units;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the TransformStore class.
+ */
+public class TransformStoreTest {
+
+    /**
+     * Tests that objects read their transform from the store while they are part of it.
+     */
+    @Test
+    public void testAddAndRemove() {
+        TransformStore store = new TransformStore(1);
+        Ball ball = new Ball(new Point2D(10, 20), 5);
+        Box box = new Box(new Point2D(30, 40), 10, 10);
+
+        int ballId = store.add(ball);
+        int boxId = store.add(box);
+        assertNotEquals(ballId, boxId, "Each object should get its own id");
+        assertEquals(2, store.size(), "The store should contain both objects");
+        assertEquals(10, store.getX(ballId), 0.001, "The position should be copied into the store");
+        assertThrows(IllegalArgumentException.class, () -> store.add(ball), "An object can only be added once");
+
+        store.set(ballId, 50, 60, 90);
+        assertEquals(50, ball.getX(), 0.001, "The object should read its x coordinate from the store");
+        assertEquals(60, ball.getY(), 0.001, "The object should read its y coordinate from the store");
+        assertEquals(90, ball.getRotation(), 0.001, "The object should read its rotation from the store");
+
+        box.setPosition(new Point2D(70, 80));
+        assertEquals(70, store.getX(boxId), 0.001, "Setting the position should write to the store");
+
+        assertEquals(ballId, store.remove(ball), "Removing should return the id of the object");
+        assertNull(ball.getTransformStore(), "The removed object should no longer use the store");
+        assertEquals(50, ball.getX(), 0.001, "The removed object should keep its last position");
+        assertEquals(-1, store.remove(ball), "Removing an object twice should do nothing");
+
+        Ball other = new Ball(new Point2D(0, 0), 5);
+        assertEquals(ballId, store.add(other), "The id of the removed object should be reused");
+        assertEquals(2, store.size(), "The store should contain two objects again");
+    }
+
+    /**
+     * Tests that the physics world writes the transforms of its objects into its store.
+     */
+    @Test
+    public void testPhysicsWorldSync() {
+        PhysicsWorld physicsWorld = new PhysicsWorld();
+        Ball ball = new Ball(new Point2D(100, 100), 10);
+        physicsWorld.addGameObject(ball);
+        assertSame(physicsWorld.getTransformStore(), ball.getTransformStore(), "The ball should use the store of the world");
+
+        for (int i = 0; i < 30; i++) {
+            physicsWorld.step();
+        }
+        assertTrue(ball.getY() > 100, "The falling ball should have moved down");
+        assertEquals(Units.toPixels(ball.getPhysicsBody().getPosition().y), ball.getY(), 0.001,
+                "The store should match the body in pixels");
+
+        physicsWorld.clear();
+        assertNull(ball.getTransformStore(), "Clearing the world should detach its objects");
+        assertTrue(ball.getY() > 100, "The detached ball should keep its last position");
+        assertEquals(0, physicsWorld.getTransformStore().size(), "The store should be empty after clearing");
+    }
+
+    /**
+     * Tests interpolating between the previous and the current transform.
+     */
+    @Test
+    public void testInterpolation() {
+        TransformStore store = new TransformStore();
+        Box box = new Box(new Point2D(10, 20), 5, 5);
+        int id = store.add(box);
+        assertEquals(10, store.getInterpolatedX(id, 0.5f), 0.0001, "A new object should not be interpolated");
+
+        store.set(id, 20, 40, 90);
+        assertEquals(15, store.getInterpolatedX(id, 0.5f), 0.0001, "The x coordinate should be halfway");
+        assertEquals(30, store.getInterpolatedY(id, 0.5f), 0.0001, "The y coordinate should be halfway");
+        assertEquals(45, store.getInterpolatedRotation(id, 0.5f), 0.0001, "The rotation should be halfway");
+        assertEquals(20, store.getInterpolatedX(id, 1), 0.0001, "An alpha of 1 should give the current position");
+
+        box.setPosition(new Point2D(100, 100));
+        assertEquals(100, store.getInterpolatedX(id, 0.5f), 0.0001, "Moving an object should not interpolate");
+        store.storePrevious(id);
+        assertEquals(90, store.getInterpolatedRotation(id, 0), 0.0001, "The previous rotation should be the current one");
+    }
+}
@@ -0,0 +1,54 @@
+package mm.model.physics;
+
+import javafx.geometry.Point2D;
+import javafx.geometry.Rectangle2D;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the Camera class.
+ */
+public class CameraTest {
+
+    /**
+     * Tests that panning and zooming change the conversion between screen and level coordinates.
+     */
+    @Test
+    public void testPanAndZoom() {
+        Camera camera = new Camera(800, 600);
+        assertEquals(new Point2D(120, 80), camera.screenToWorld(new Point2D(120, 80)), "A new camera should not transform");
+
+        camera.pan(-100, -50);
+        assertEquals(new Point2D(220, 130), camera.screenToWorld(new Point2D(120, 80)),
+                "Dragging to the left should show the level further right");
+
+        Point2D below = camera.screenToWorld(new Point2D(400, 300));
+        camera.zoomAt(400, 300, 2);
+        assertEquals(2, camera.getZoom(), 0.0001, "The zoom should be doubled");
+        assertEquals(below, camera.screenToWorld(new Point2D(400, 300)), "The point below the cursor should stay in place");
+        assertEquals(new Point2D(400, 300), camera.worldToScreen(below), "Converting back should give the screen point");
+        assertEquals(new Rectangle2D(300, 200, 400, 300), camera.getVisibleArea(), "Zooming in should show less of the level");
+
+        camera.zoomAt(0, 0, 100);
+        assertEquals(Camera.MAX_ZOOM, camera.getZoom(), 0.0001, "The zoom should be limited");
+    }
+
+    /**
+     * Tests the visibility check used for culling and the change counter.
+     */
+    @Test
+    public void testVisibility() {
+        Camera camera = new Camera(800, 600);
+        assertTrue(camera.isVisible(400, 300, 10), "A circle in the viewport should be visible");
+        assertTrue(camera.isVisible(-5, 300, 10), "A circle on the border should be visible");
+        assertFalse(camera.isVisible(900, 300, 10), "A circle right of the viewport should not be visible");
+
+        long changeCount = camera.getChangeCount();
+        camera.pan(0, 0);
+        assertEquals(changeCount, camera.getChangeCount(), "Panning by nothing should not change the camera");
+        camera.pan(-200, 0);
+        assertNotEquals(changeCount, camera.getChangeCount(), "Panning should change the camera");
+        assertTrue(camera.isVisible(900, 300, 10), "The circle should be visible after panning");
+    }
+}
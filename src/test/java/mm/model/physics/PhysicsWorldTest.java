@@ -0,0 +1,655 @@
+package mm.model.physics;
+
+import javafx.geometry.Point2D;
+import javafx.geometry.Rectangle2D;
+import mm.model.objects.GameObject;
+import mm.model.objects.ObjectKind;
+import mm.model.objects.TransformStore;
+import mm.model.objects.impl.Ball;
+import mm.model.objects.impl.Balloon;
+import mm.model.objects.impl.Box;
+import mm.model.objects.impl.Plank;
+import org.jbox2d.callbacks.ContactImpulse;
+import org.jbox2d.callbacks.ContactListener;
+import org.jbox2d.collision.AABB;
+import org.jbox2d.collision.Manifold;
+import org.jbox2d.common.Vec2;
+import org.jbox2d.dynamics.Body;
+import org.jbox2d.dynamics.contacts.Contact;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tests for the PhysicsWorld class.
+ */
+public class PhysicsWorldTest {
+
+    /**
+     * Tests picking objects by their shapes.
+     */
+    @Test
+    public void testGetGameObjectAt() {
+        PhysicsWorld physicsWorld = new PhysicsWorld();
+        Plank plank = new Plank(new Point2D(400, 200), 45, 200, 20);
+        Ball ball = new Ball(new Point2D(100, 100), 30);
+        physicsWorld.addGameObject(plank);
+        physicsWorld.addGameObject(ball);
+
+        assertSame(plank, physicsWorld.getGameObjectAt(new Point2D(460, 260)),
+                "A point on the rotated plank far from its center should hit the plank");
+        assertNull(physicsWorld.getGameObjectAt(new Point2D(460, 200)),
+                "A point next to the rotated plank should not hit it");
+        assertSame(ball, physicsWorld.getGameObjectAt(new Point2D(125, 100)),
+                "A point inside the ball should hit the ball");
+        assertNull(physicsWorld.getGameObjectAt(new Point2D(125, 125)),
+                "A point inside the bounding box but outside the circle should not hit the ball");
+    }
+
+    /**
+     * Tests that overlapping objects are picked by the closest center.
+     */
+    @Test
+    public void testGetGameObjectAtOverlapping() {
+        PhysicsWorld physicsWorld = new PhysicsWorld();
+        Box large = new Box(new Point2D(100, 100), 100, 100);
+        Box small = new Box(new Point2D(130, 100), 20, 20);
+        physicsWorld.addGameObject(large);
+        physicsWorld.addGameObject(small);
+
+        assertSame(small, physicsWorld.getGameObjectAt(new Point2D(130, 100)), "The closer object should be picked");
+        assertSame(large, physicsWorld.getGameObjectAt(new Point2D(80, 100)), "Only the large box contains the point");
+
+        physicsWorld.removeGameObject(small);
+        assertSame(large, physicsWorld.getGameObjectAt(new Point2D(130, 100)), "Removed objects should not be picked");
+    }
+
+    /**
+     * Tests that updating a world in a steady state does not allocate memory.
+     * The objects move apart without touching, because jBox2D itself allocates when sorting
+     * large numbers of new contact pairs. Their bodies are more than a meter apart, so even
+     * the enlarged bounding boxes of fast bodies do not overlap.
+     */
+    @Test
+    public void testUpdateDoesNotAllocate() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+                "Measuring allocated memory is not supported by this JVM");
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported(), "Measuring allocated memory is not supported");
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+
+        PhysicsWorld physicsWorld = new PhysicsWorld(new Vec2(0, 0));
+        for (int i = 0; i < 50; i++) {
+            Ball ball = new Ball(new Point2D(i * 200, 0), 10);
+            Box box = new Box(new Point2D(i * 200 + 60, 0), 20, 20);
+            physicsWorld.addGameObject(ball);
+            physicsWorld.addGameObject(box);
+            physicsWorld.addGameObject(new Balloon(new Point2D(i * 200 + 120, 0), 12));
+            physicsWorld.addGameObject(new Plank(new Point2D(-1000 - i * 200, 0), 0, 40, 10));
+            // Keep the dynamic objects awake by letting them drift downwards
+            physicsWorld.applyImpulse(ball, 0, 50);
+            physicsWorld.applyImpulse(box, 0, 50);
+        }
+
+        // Warm up so that the code is compiled and all lazily created state exists
+        for (int i = 0; i < 2000; i++) {
+            physicsWorld.update(1.0f / 60.0f);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 1000; i++) {
+            physicsWorld.update(1.0f / 60.0f);
+        }
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+        // A single allocation per object and frame would already be several hundred kilobytes
+        assertTrue(allocated < 1024, "Updating the world allocated " + allocated + " bytes");
+        assertEquals(200, physicsWorld.getGameObjects().size(), "No objects should have been added or removed");
+    }
+
+    /**
+     * Tests that restoring a snapshot again and again does not allocate memory, as when a level is reset.
+     */
+    @Test
+    public void testRestoreSnapshotDoesNotAllocate() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+                "Measuring allocated memory is not supported by this JVM");
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported(), "Measuring allocated memory is not supported");
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+
+        PhysicsWorld physicsWorld = new PhysicsWorld(new Vec2(0, 0));
+        List<Ball> balls = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Ball ball = new Ball(new Point2D(i * 200, 0), 10);
+            balls.add(ball);
+            physicsWorld.addGameObject(ball);
+            physicsWorld.addGameObject(new Plank(new Point2D(-1000 - i * 200, 0), 0, 40, 10));
+        }
+        WorldSnapshot snapshot = physicsWorld.createSnapshot();
+
+        // Warm up so that the code is compiled and the map of the world has grown to its size
+        for (int i = 0; i < 200; i++) {
+            moveAndRestore(physicsWorld, balls, snapshot);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 100; i++) {
+            moveAndRestore(physicsWorld, balls, snapshot);
+        }
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue(allocated < 1024, "Restoring the snapshot allocated " + allocated + " bytes");
+        assertEquals(0, balls.get(0).getRotation(), 0.01, "The balls should be back in their start pose");
+    }
+
+    /**
+     * Turns every ball a bit and restores a snapshot, so that all balls have to be restored.
+     *
+     * @param physicsWorld The physics world
+     * @param balls The balls to turn
+     * @param snapshot The snapshot to restore
+     */
+    private static void moveAndRestore(PhysicsWorld physicsWorld, List<Ball> balls, WorldSnapshot snapshot) {
+        for (int i = 0; i < balls.size(); i++) {
+            Body body = balls.get(i).getPhysicsBody();
+            body.setTransform(body.getPosition(), body.getAngle() + 0.1f);
+        }
+        assertEquals(balls.size(), physicsWorld.restoreSnapshot(snapshot), "Every turned ball should be restored");
+    }
+
+    /**
+     * Tests that objects are only synchronized and reported as moved while their bodies are awake.
+     */
+    @Test
+    public void testSleepingObjectsAreNotMoved() {
+        PhysicsWorld physicsWorld = new PhysicsWorld();
+        Plank plank = new Plank(new Point2D(200, 300), 0, 300, 20);
+        Ball ball = new Ball(new Point2D(200, 250), 15);
+        physicsWorld.addGameObject(plank);
+        physicsWorld.addGameObject(ball);
+
+        physicsWorld.step();
+        assertEquals(1, physicsWorld.getMovedObjects().size(), "Only the falling ball should have moved");
+        assertSame(ball, physicsWorld.getMovedObjects().get(0), "The falling ball should have moved");
+
+        for (int i = 0; i < 3000 && !physicsWorld.isSettled(); i++) {
+            physicsWorld.step();
+        }
+        assertTrue(physicsWorld.isSettled(), "The ball should fall asleep on the plank");
+        assertEquals(0, physicsWorld.getAwakeCount(), "No body should be awake");
+
+        physicsWorld.step();
+        long changeCount = physicsWorld.getChangeCount();
+        double restingY = ball.getY();
+        for (int i = 0; i < 10; i++) {
+            physicsWorld.step();
+        }
+        assertTrue(physicsWorld.getMovedObjects().isEmpty(), "Sleeping objects should not be reported as moved");
+        assertEquals(changeCount, physicsWorld.getChangeCount(), "Nothing should have changed while the ball sleeps");
+        assertEquals(restingY, ball.getY(), "The sleeping ball should not move");
+
+        physicsWorld.applyImpulse(ball, 0, -5000);
+        physicsWorld.step();
+        assertEquals(1, physicsWorld.getMovedObjects().size(), "The woken ball should be reported as moved");
+        assertNotEquals(changeCount, physicsWorld.getChangeCount(), "The moving ball should change the world");
+        assertTrue(ball.getY() < restingY, "The ball should have been pushed upwards");
+    }
+
+    /**
+     * Tests that the static change counter only changes when static objects are added or removed.
+     */
+    @Test
+    public void testStaticChangeCount() {
+        PhysicsWorld physicsWorld = new PhysicsWorld();
+        Plank plank = new Plank(new Point2D(200, 300), 0, 300, 20);
+        physicsWorld.addGameObject(plank);
+        long staticChangeCount = physicsWorld.getStaticChangeCount();
+
+        Ball ball = new Ball(new Point2D(200, 100), 15);
+        physicsWorld.addGameObject(ball);
+        for (int i = 0; i < 30; i++) {
+            physicsWorld.step();
+        }
+        physicsWorld.removeGameObject(ball);
+        assertEquals(staticChangeCount, physicsWorld.getStaticChangeCount(), "Dynamic objects should not change the static objects");
+
+        physicsWorld.removeGameObject(plank);
+        assertNotEquals(staticChangeCount, physicsWorld.getStaticChangeCount(), "Removing the plank should change the static objects");
+    }
+
+    /**
+     * Tests that the interpolation alpha reflects the time left over after the last fixed step.
+     */
+    @Test
+    public void testInterpolationAlpha() {
+        PhysicsWorld physicsWorld = new PhysicsWorld();
+        Ball ball = new Ball(new Point2D(200, 100), 15);
+        physicsWorld.addGameObject(ball);
+        for (int i = 0; i < 30; i++) {
+            physicsWorld.step();
+        }
+        assertEquals(0, physicsWorld.getInterpolationAlpha(), 0.0001, "Single steps should leave no time over");
+
+        double before = ball.getY();
+        physicsWorld.update(physicsWorld.getTimeStep() * 1.5f);
+        assertEquals(0.5, physicsWorld.getInterpolationAlpha(), 0.01, "Half a step should be left over");
+        TransformStore transforms = physicsWorld.getTransformStore();
+        int id = ball.getTransformId();
+        assertEquals(before, transforms.getInterpolatedY(id, 0), 0.0001, "The previous pose should be the pose before the step");
+        float halfway = transforms.getInterpolatedY(id, physicsWorld.getInterpolationAlpha());
+        assertTrue(halfway > before && halfway < ball.getY(), "The interpolated pose should be between both poses");
+
+        RenderSnapshot snapshot = physicsWorld.createRenderSnapshot(0);
+        assertEquals(halfway, snapshot.getY(0), 0.0001, "Snapshots should contain the interpolated pose");
+    }
+
+    /**
+     * Tests that updates simulate at most the step budget and count the time they give up.
+     */
+    @Test
+    public void testStepBudget() {
+        PhysicsWorld physicsWorld = new PhysicsWorld();
+        float timeStep = physicsWorld.getTimeStep();
+        assertEquals(3, physicsWorld.getMaxSubSteps(), "The default budget should fit the maximum frame time");
+
+        physicsWorld.update(0.2f);
+        assertTrue(physicsWorld.getLastSubSteps() >= 2 && physicsWorld.getLastSubSteps() <= 3,
+                "A long frame should be simulated up to the maximum frame time");
+        assertEquals(0.15, physicsWorld.getDroppedTime(), 0.001, "The time beyond the maximum frame time should be dropped");
+        assertTrue(physicsWorld.getLastStepNanos() > 0, "The step time should be measured");
+
+        physicsWorld.resetMetrics();
+        assertEquals(0, physicsWorld.getDroppedTime(), "Resetting the metrics should reset the dropped time");
+        physicsWorld = new PhysicsWorld();
+        physicsWorld.setMaxSubSteps(1);
+        physicsWorld.update(timeStep * 2.5f);
+        assertEquals(1, physicsWorld.getLastSubSteps(), "Only one step should be simulated");
+        assertEquals(1, physicsWorld.getOverloadedUpdates(), "The update should be counted as overloaded");
+        assertEquals(timeStep, physicsWorld.getDroppedTime(), 0.0001, "The whole step left over should be dropped");
+        assertEquals(0.5, physicsWorld.getInterpolationAlpha(), 0.01, "The partial step should be kept");
+
+        physicsWorld = new PhysicsWorld();
+        physicsWorld.setMaxSubSteps(1);
+        physicsWorld.setOverloadMode(PhysicsWorld.OverloadMode.SLOW_MOTION);
+        physicsWorld.update(timeStep * 2.5f);
+        assertEquals(0, physicsWorld.getDroppedTime(), 0.0001, "Slow motion should keep the time left over");
+        physicsWorld.update(0);
+        physicsWorld.update(0);
+        assertEquals(2, physicsWorld.getStepCount(), "The kept time should be simulated in later updates");
+        assertEquals(0, physicsWorld.getLastSubSteps(), "There should be nothing left to catch up");
+    }
+
+    /**
+     * Tests that the bodies are created in meters while the game objects stay in pixels.
+     */
+    @Test
+    public void testBodiesUseMeters() {
+        PhysicsWorld physicsWorld = new PhysicsWorld();
+        Ball ball = new Ball(new Point2D(100, 50), 15);
+        Balloon balloon = new Balloon(new Point2D(300, 300), 15);
+        physicsWorld.addGameObject(ball);
+        physicsWorld.addGameObject(balloon);
+
+        assertEquals(Units.toMeters(100), ball.getPhysicsBody().getPosition().x, 0.0001f,
+                "The body should be positioned in meters");
+        assertEquals(Units.toMeters(15), ball.getPhysicsBody().getFixtureList().getShape().getRadius(), 0.0001f,
+                "The shape should be sized in meters");
+        assertSame(ball, physicsWorld.getGameObjectAt(new Point2D(110, 50)), "Points should be found in pixels");
+
+        physicsWorld.step();
+        assertEquals(Units.toPixels(ball.getPhysicsBody().getPosition().y), ball.getY(), 0.001,
+                "The object should be moved in pixels");
+        for (int i = 0; i < 30; i++) {
+            physicsWorld.step();
+        }
+        assertTrue(ball.getY() > 50, "The ball should fall");
+        assertTrue(balloon.getY() < 300, "The balloon should rise");
+    }
+
+    /**
+     * Tests that a balloon rises with half of the acceleration of gravity by default.
+     */
+    @Test
+    public void testBalloonRiseRate() {
+        PhysicsWorld physicsWorld = new PhysicsWorld();
+        Balloon balloon = new Balloon(new Point2D(300, 300), 15);
+        physicsWorld.addGameObject(balloon);
+        assertEquals(Balloon.DEFAULT_LIFT * balloon.getPhysicsBody().getMass() * PhysicsWorld.DEFAULT_GRAVITY,
+                balloon.getBuoyancyForce(), 0.0001f, "The default buoyancy should follow from the mass of the balloon");
+
+        for (int i = 0; i < 60; i++) {
+            physicsWorld.step();
+        }
+        // s = a * t^2 / 2 with a net acceleration of half of gravity after one second
+        float expectedRise = Units.toPixels(0.5f * (Balloon.DEFAULT_LIFT - 1) * PhysicsWorld.DEFAULT_GRAVITY);
+        assertEquals(expectedRise, 300 - balloon.getY(), 5, "The balloon should rise with half of the acceleration of gravity");
+        assertEquals(-(Balloon.DEFAULT_LIFT - 1) * PhysicsWorld.DEFAULT_GRAVITY, balloon.getPhysicsBody().getLinearVelocity().y, 0.1f,
+                "The balloon should be one second into its rise");
+    }
+
+    /**
+     * Tests that the objects in an area are found through the broad-phase tree.
+     */
+    @Test
+    public void testQueryGameObjects() {
+        PhysicsWorld physicsWorld = new PhysicsWorld();
+        Ball near = new Ball(new Point2D(100, 100), 15);
+        Plank plank = new Plank(new Point2D(400, 500), 0, 300, 20);
+        Ball far = new Ball(new Point2D(3000, 100), 15);
+        physicsWorld.addGameObject(near);
+        physicsWorld.addGameObject(plank);
+        physicsWorld.addGameObject(far);
+
+        List<GameObject> visible = new ArrayList<>();
+        physicsWorld.queryGameObjects(new Rectangle2D(0, 0, 800, 600), visible);
+        assertEquals(2, visible.size(), "Only the objects in the area should be found");
+        assertTrue(visible.contains(near) && visible.contains(plank), "The objects in the area should be found");
+
+        visible.clear();
+        physicsWorld.getCamera().setViewportSize(800, 600);
+        physicsWorld.getCamera().setPosition(2600, 0);
+        physicsWorld.queryGameObjects(physicsWorld.getCamera().getVisibleArea(), visible);
+        assertEquals(List.of(far), visible, "Moving the camera should find the far ball");
+        assertEquals(new Point2D(3000, 100), physicsWorld.screenToWorld(new Point2D(400, 100)),
+                "Screen points should be converted through the camera");
+    }
+
+    /**
+     * Tests that render snapshots only capture the moving objects around the visible area, sorted by transform id.
+     */
+    @Test
+    public void testRenderSnapshotCulling() {
+        PhysicsWorld physicsWorld = new PhysicsWorld();
+        Ball far = new Ball(new Point2D(3000, 100), 15);
+        physicsWorld.addGameObject(far);
+        physicsWorld.addGameObject(new Plank(new Point2D(400, 500), 0, 300, 20));
+        for (int i = 0; i < 5; i++) {
+            physicsWorld.addGameObject(new Ball(new Point2D(100 + i * 100, 100), 15));
+        }
+        assertEquals(6, physicsWorld.createRenderSnapshot(0).size(), "Without a viewport all moving objects are captured");
+
+        physicsWorld.getCamera().setViewportSize(800, 600);
+        RenderSnapshot snapshot = physicsWorld.createRenderSnapshot(0);
+        assertEquals(5, snapshot.size(), "Only the balls around the visible area should be captured");
+        for (int i = 1; i < snapshot.size(); i++) {
+            assertTrue(snapshot.getTransformId(i - 1) < snapshot.getTransformId(i), "The objects should be sorted by id");
+        }
+
+        physicsWorld.getCamera().setPosition(2600, 0);
+        snapshot = physicsWorld.createRenderSnapshot(0, snapshot);
+        assertEquals(1, snapshot.size(), "Moving the camera should capture the far ball");
+        assertSame(far, snapshot.getGameObject(0), "The far ball should be captured");
+    }
+
+    /**
+     * Tests adding and removing many objects at once.
+     */
+    @Test
+    public void testBulkAddAndRemove() {
+        PhysicsWorld physicsWorld = new PhysicsWorld();
+        List<GameObject> balls = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            balls.add(new Ball(new Point2D(i * 40, 0), 10));
+        }
+        Plank plank = new Plank(new Point2D(0, 500), 0, 300, 20);
+        long staticChangeCount = physicsWorld.getStaticChangeCount();
+        physicsWorld.addGameObjects(balls);
+        physicsWorld.addGameObject(plank);
+        assertEquals(1001, physicsWorld.getGameObjects().size(), "All objects should be added");
+        assertEquals(1000, physicsWorld.getGameObjects(ObjectKind.BALL).size(), "All balls should be found by kind");
+        assertNotEquals(staticChangeCount, physicsWorld.getStaticChangeCount(), "The plank should change the static objects");
+
+        int lastId = balls.get(999).getTransformId();
+        List<GameObject> removed = new ArrayList<>();
+        for (int i = 0; i < 1000; i += 2) {
+            removed.add(balls.get(i));
+        }
+        staticChangeCount = physicsWorld.getStaticChangeCount();
+        physicsWorld.removeGameObjects(removed);
+        assertEquals(501, physicsWorld.getGameObjects().size(), "Every second ball should be removed");
+        assertEquals(500, physicsWorld.getGameObjects(ObjectKind.BALL).size(), "The balls should be removed from their kind");
+        assertEquals(500, physicsWorld.getBodyCount() - 1, "The bodies should be destroyed");
+        assertEquals(staticChangeCount, physicsWorld.getStaticChangeCount(), "No static object should have changed");
+        assertEquals(lastId, balls.get(999).getTransformId(), "The remaining objects should keep their ids");
+        for (int i = 1; i < 1000; i += 2) {
+            assertTrue(physicsWorld.getGameObjects().contains(balls.get(i)), "The other balls should remain");
+        }
+        assertSame(balls.get(999), physicsWorld.getGameObjectAt(new Point2D(999 * 40, 0)), "Moved objects should still be found");
+
+        physicsWorld.removeGameObject(plank);
+        physicsWorld.removeGameObject(plank);
+        assertEquals(500, physicsWorld.getGameObjects().size(), "Removing an object twice should do nothing");
+    }
+
+    /**
+     * Tests that objects added or removed during a step are changed after the step.
+     */
+    @Test
+    public void testChangesDuringStepAreDeferred() {
+        PhysicsWorld physicsWorld = new PhysicsWorld();
+        Plank plank = new Plank(new Point2D(200, 300), 0, 300, 20);
+        Ball ball = new Ball(new Point2D(200, 270), 10);
+        Ball spawned = new Ball(new Point2D(600, 0), 10);
+        physicsWorld.addGameObject(plank);
+        physicsWorld.addGameObject(ball);
+        physicsWorld.addContactListener(new ContactListener() {
+            @Override
+            public void beginContact(Contact contact) {
+                // jBox2D cannot create or destroy bodies while it is stepping
+                physicsWorld.removeGameObject(ball);
+                physicsWorld.addGameObject(spawned);
+                assertTrue(physicsWorld.getGameObjects().contains(ball), "The ball should stay until the step ended");
+            }
+
+            @Override
+            public void endContact(Contact contact) {
+            }
+
+            @Override
+            public void preSolve(Contact contact, Manifold oldManifold) {
+            }
+
+            @Override
+            public void postSolve(Contact contact, ContactImpulse impulse) {
+            }
+        });
+
+        for (int i = 0; i < 120 && physicsWorld.getGameObjects().contains(ball); i++) {
+            physicsWorld.step();
+        }
+        assertFalse(physicsWorld.getGameObjects().contains(ball), "The ball should be removed after the step");
+        assertTrue(physicsWorld.getGameObjects().contains(spawned), "The new ball should be added after the step");
+        assertNotNull(spawned.getPhysicsBody(), "The new ball should have a body");
+    }
+
+    /**
+     * Tests that adding an object that is already added or queued does not give it a second body.
+     */
+    @Test
+    public void testDuplicateAddsAreIgnored() {
+        PhysicsWorld physicsWorld = new PhysicsWorld();
+        Plank plank = new Plank(new Point2D(200, 300), 0, 300, 20);
+        Ball ball = new Ball(new Point2D(200, 270), 10);
+        Ball spawned = new Ball(new Point2D(600, 0), 10);
+        physicsWorld.addGameObject(plank);
+        physicsWorld.addGameObject(ball);
+        physicsWorld.addGameObjects(List.of(ball, plank));
+        assertEquals(2, physicsWorld.getGameObjects().size(), "Objects should not be added twice");
+        assertEquals(2, physicsWorld.getBodyCount(), "Objects should not get a second body");
+
+        physicsWorld.addContactListener(new ContactListener() {
+            @Override
+            public void beginContact(Contact contact) {
+                physicsWorld.addGameObject(spawned);
+                physicsWorld.addGameObjects(List.of(spawned, ball));
+            }
+
+            @Override
+            public void endContact(Contact contact) {
+            }
+
+            @Override
+            public void preSolve(Contact contact, Manifold oldManifold) {
+            }
+
+            @Override
+            public void postSolve(Contact contact, ContactImpulse impulse) {
+            }
+        });
+        for (int i = 0; i < 120 && !physicsWorld.getGameObjects().contains(spawned); i++) {
+            physicsWorld.step();
+        }
+        physicsWorld.step();
+        assertEquals(3, physicsWorld.getGameObjects().size(), "Objects added during a step should be added once");
+        assertEquals(3, physicsWorld.getBodyCount(), "Objects added during a step should get one body");
+    }
+
+    /**
+     * Creates groups of balls above planks that are far apart from each other.
+     *
+     * @param groups The number of groups
+     * @return The objects of all groups
+     */
+    private static List<GameObject> createSeparatedGroups(int groups) {
+        List<GameObject> objects = new ArrayList<>();
+        for (int group = 0; group < groups; group++) {
+            double x = group * 2000;
+            objects.add(new Plank(new Point2D(x, 500), 0, 300, 20));
+            for (int i = 0; i < 5; i++) {
+                objects.add(new Ball(new Point2D(x - 100 + i * 50, 300), 10));
+            }
+        }
+        return objects;
+    }
+
+    /**
+     * Tests that a world is split into regions at the gaps between groups of objects,
+     * and that the regions are simulated like a single world.
+     */
+    @Test
+    public void testRegionsSplitAtGaps() {
+        PhysicsWorld single = new PhysicsWorld();
+        List<GameObject> singleObjects = createSeparatedGroups(3);
+        single.addGameObjects(singleObjects);
+        PhysicsWorld split = new PhysicsWorld();
+        split.setRegionPool(ForkJoinPool.commonPool());
+        List<GameObject> splitObjects = createSeparatedGroups(3);
+        split.addGameObjects(splitObjects);
+
+        assertThrows(IllegalStateException.class, () -> split.setRegionPool(null),
+                "Regions cannot be disabled once the world holds objects");
+        assertThrows(IllegalStateException.class, split::getWorld, "A split world has no single jBox2D world");
+        for (int i = 0; i < 60; i++) {
+            single.step();
+            split.step();
+        }
+        assertEquals(1, single.getRegionCount(), "A world without a region pool is not split");
+        assertEquals(3, split.getRegionCount(), "Each group should be simulated in a region of its own");
+        for (int i = 0; i < singleObjects.size(); i++) {
+            assertEquals(singleObjects.get(i).getX(), splitObjects.get(i).getX(), 0.01, "The regions should move objects like a single world");
+            assertEquals(singleObjects.get(i).getY(), splitObjects.get(i).getY(), 0.01, "The regions should move objects like a single world");
+        }
+        assertSame(splitObjects.get(7), split.getGameObjectAt(new Point2D(splitObjects.get(7).getX(), splitObjects.get(7).getY())),
+                "Objects in any region should be found");
+        assertEquals(single.getBodyCount(), split.getBodyCount(), "The bodies of all regions should be counted");
+        List<Object> found = new ArrayList<>();
+        split.queryAABB(fixture -> found.add(fixture.getBody().getUserData()), new AABB(new Vec2(-1000, -1000), new Vec2(1000, 1000)));
+        assertTrue(found.containsAll(splitObjects), "Querying should report the fixtures of all regions");
+    }
+
+    /**
+     * Tests that regions are merged before their bodies can meet, so fast objects still collide,
+     * and that restoring a snapshot splits them again.
+     */
+    @Test
+    public void testRegionsMergeBeforeBodiesMeet() {
+        PhysicsWorld physicsWorld = new PhysicsWorld(new Vec2(0, 0));
+        physicsWorld.setRegionPool(ForkJoinPool.commonPool());
+        Ball ball = new Ball(new Point2D(0, 300), 10);
+        Plank wall = new Plank(new Point2D(1500, 300), 90, 300, 20);
+        physicsWorld.addGameObjects(List.of(ball, wall));
+        WorldSnapshot snapshot = physicsWorld.createSnapshot();
+        physicsWorld.step();
+        assertEquals(2, physicsWorld.getRegionCount(), "The ball and the wall should start in separate regions");
+
+        // Almost as fast as jBox2D allows, so the ball moves most of the margin in every step
+        ball.getPhysicsBody().setLinearVelocity(new Vec2(100, 0));
+        for (int i = 0; i < 60; i++) {
+            physicsWorld.step();
+        }
+        assertEquals(1, physicsWorld.getRegionCount(), "The regions should be merged when the ball approaches the wall");
+        assertTrue(ball.getX() < wall.getX(), "The ball should bounce off the wall instead of passing through it");
+
+        physicsWorld.restoreSnapshot(snapshot);
+        physicsWorld.step();
+        assertEquals(2, physicsWorld.getRegionCount(), "Restoring the snapshot should split the regions again");
+        assertEquals(0, ball.getX(), 0.01, "The ball should be back at its start");
+    }
+
+    /**
+     * Creates a group of balls above a plank and, far to the right of it, a smaller group of a ball on a plank.
+     *
+     * @return The objects of both groups
+     */
+    private static List<GameObject> createUnevenGroups() {
+        List<GameObject> objects = createSeparatedGroups(1);
+        objects.add(new Plank(new Point2D(2500, 500), 0, 100, 20));
+        objects.add(new Ball(new Point2D(2500, 480), 10));
+        return objects;
+    }
+
+    /**
+     * Tests that a world whose regions were merged moves its bodies almost like a single world.
+     * The bodies of the smaller region lose their contacts when they are moved into the larger one,
+     * so the solver starts those contacts again without warm-starting and the results are not identical.
+     */
+    @Test
+    public void testMergedRegionsMatchSingleWorld() {
+        PhysicsWorld single = new PhysicsWorld();
+        List<GameObject> singleObjects = createUnevenGroups();
+        single.addGameObjects(singleObjects);
+        PhysicsWorld split = new PhysicsWorld();
+        split.setRegionPool(ForkJoinPool.commonPool());
+        List<GameObject> splitObjects = createUnevenGroups();
+        split.addGameObjects(splitObjects);
+
+        for (int i = 0; i < 180; i++) {
+            if (i == 60) {
+                // Once everything rests, a ball is thrown from the smaller group at the larger one
+                assertEquals(2, split.getRegionCount(), "The groups should be simulated in separate regions");
+                singleObjects.add(throwBall(single));
+                splitObjects.add(throwBall(split));
+            }
+            single.step();
+            split.step();
+        }
+        assertEquals(1, split.getRegionCount(), "The regions should be merged when the ball approaches the larger group");
+        assertTrue(splitObjects.get(splitObjects.size() - 1).getX() > 300, "The thrown ball should bounce off the larger group");
+        for (int i = 0; i < singleObjects.size(); i++) {
+            assertEquals(singleObjects.get(i).getX(), splitObjects.get(i).getX(), 0.5, "The merged world should move objects like a single world");
+            assertEquals(singleObjects.get(i).getY(), splitObjects.get(i).getY(), 0.5, "The merged world should move objects like a single world");
+        }
+    }
+
+    /**
+     * Adds a ball to a world and throws it to the left.
+     *
+     * @param physicsWorld The physics world
+     * @return The thrown ball
+     */
+    private static Ball throwBall(PhysicsWorld physicsWorld) {
+        Ball ball = new Ball(new Point2D(2400, 300), 10);
+        physicsWorld.addGameObject(ball);
+        ball.getPhysicsBody().setLinearVelocity(new Vec2(-40, -2));
+        return ball;
+    }
+}
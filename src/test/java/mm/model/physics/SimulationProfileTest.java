@@ -0,0 +1,69 @@
+package mm.model.physics;
+
+import javafx.geometry.Point2D;
+import mm.model.objects.impl.Ball;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the SimulationProfile class.
+ */
+public class SimulationProfileTest {
+
+    /**
+     * Tests looking up profiles by their names in level files.
+     */
+    @Test
+    public void testForName() {
+        assertSame(SimulationProfile.VALIDATION_FAST, SimulationProfile.forName("validation-fast"),
+                "The profile should be found by its name");
+        assertEquals("high-fidelity", SimulationProfile.HIGH_FIDELITY.getName(), "The name should be the one in level files");
+        assertThrows(IllegalArgumentException.class, () -> SimulationProfile.forName("ultra"),
+                "Unknown profiles should be rejected");
+    }
+
+    /**
+     * Tests that a physics world steps with the time step of its profile.
+     */
+    @Test
+    public void testProfileTimeStep() {
+        PhysicsWorld fast = new PhysicsWorld(SimulationProfile.VALIDATION_FAST);
+        PhysicsWorld precise = new PhysicsWorld(SimulationProfile.HIGH_FIDELITY);
+        for (int i = 0; i < 10; i++) {
+            fast.update(1.0f / 30.0f);
+            precise.update(1.0f / 30.0f);
+        }
+        assertEquals(10, fast.getStepCount(), "The fast profile should step once per 1/30 s");
+        assertEquals(40, precise.getStepCount(), 1, "The precise profile should step four times per 1/30 s");
+        assertEquals(SimulationProfile.HIGH_FIDELITY.getVelocityIterations(), precise.getVelocityIterations(),
+                "The world should use the iterations of its profile");
+
+        precise.setProfile(SimulationProfile.INTERACTIVE);
+        assertEquals(1.0f / 60.0f, precise.getTimeStep(), "Changing the profile should change the time step");
+    }
+
+    /**
+     * Tests that the adaptive mode lowers the iterations when steps are over budget and restores them afterwards.
+     */
+    @Test
+    public void testAdaptiveIterations() {
+        PhysicsWorld physicsWorld = new PhysicsWorld(SimulationProfile.INTERACTIVE);
+        for (int i = 0; i < 20; i++) {
+            physicsWorld.addGameObject(new Ball(new Point2D(i * 40, 0), 15));
+        }
+        // No step can be simulated within a single nanosecond
+        physicsWorld.setStepTimeBudget(1);
+        for (int i = 0; i < 600; i++) {
+            physicsWorld.step();
+        }
+        assertEquals(2, physicsWorld.getVelocityIterations(), "The velocity iterations should be lowered to the minimum");
+        assertEquals(1, physicsWorld.getPositionIterations(), "The position iterations should be lowered to the minimum");
+
+        physicsWorld.setStepTimeBudget(0);
+        assertEquals(SimulationProfile.INTERACTIVE.getVelocityIterations(), physicsWorld.getVelocityIterations(),
+                "Disabling the adaptive mode should restore the iterations of the profile");
+        assertEquals(SimulationProfile.INTERACTIVE.getPositionIterations(), physicsWorld.getPositionIterations(),
+                "Disabling the adaptive mode should restore the iterations of the profile");
+    }
+}
@@ -0,0 +1,75 @@
+package mm.model.physics;
+
+import javafx.geometry.Point2D;
+import mm.model.objects.impl.Ball;
+import mm.model.objects.impl.Box;
+import mm.model.objects.impl.Plank;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the WorldSnapshot class.
+ */
+public class WorldSnapshotTest {
+
+    /**
+     * Tests that restoring a snapshot puts all bodies back and undoes added and removed objects.
+     */
+    @Test
+    public void testRestore() {
+        PhysicsWorld physicsWorld = new PhysicsWorld();
+        Plank plank = new Plank(new Point2D(200, 300), 0, 400, 20);
+        Ball ball = new Ball(new Point2D(100, 100), 10);
+        Box box = new Box(new Point2D(300, 100), 20, 20);
+        physicsWorld.addGameObject(plank);
+        physicsWorld.addGameObject(ball);
+        physicsWorld.addGameObject(box);
+        WorldSnapshot snapshot = physicsWorld.createSnapshot();
+
+        assertEquals(0, physicsWorld.restoreSnapshot(snapshot), "Nothing has changed yet");
+
+        Ball placed = new Ball(new Point2D(200, 50), 10);
+        physicsWorld.addGameObject(placed);
+        physicsWorld.removeGameObject(box);
+        for (int i = 0; i < 60; i++) {
+            physicsWorld.step();
+        }
+        assertTrue(ball.getY() > 100, "The ball should have fallen");
+
+        assertEquals(2, physicsWorld.restoreSnapshot(snapshot), "The ball and the removed box should be restored");
+        assertEquals(3, physicsWorld.getGameObjects().size(), "The world should contain the captured objects");
+        assertFalse(physicsWorld.getGameObjects().contains(placed), "The placed ball should be removed");
+        assertTrue(physicsWorld.getGameObjects().contains(box), "The removed box should be added again");
+        assertEquals(0, physicsWorld.getStepCount(), "The step count should be restored");
+        assertEquals(100, ball.getY(), 0.001, "The ball should be back at its start");
+        assertEquals(0, ball.getPhysicsBody().getLinearVelocity().y, 0.001, "The ball should not move anymore");
+        assertEquals(100, box.getY(), 0.001, "The box should be at its captured position");
+        assertNull(physicsWorld.getGameObjectAt(new Point2D(200, 50)), "The placed ball should be gone from the world");
+        assertSame(ball, physicsWorld.getGameObjectAt(new Point2D(100, 100)), "The ball should be found at its start");
+    }
+
+    /**
+     * Tests that a restored world can be simulated again.
+     */
+    @Test
+    public void testSimulateAfterRestore() {
+        PhysicsWorld physicsWorld = new PhysicsWorld();
+        physicsWorld.addGameObject(new Plank(new Point2D(200, 300), 0, 400, 20));
+        Ball ball = new Ball(new Point2D(200, 100), 10);
+        physicsWorld.addGameObject(ball);
+        WorldSnapshot snapshot = physicsWorld.createSnapshot();
+
+        for (int i = 0; i < 1800; i++) {
+            physicsWorld.step();
+        }
+        double restingY = ball.getY();
+        assertEquals(280, restingY, 1, "The ball should rest on the plank");
+
+        physicsWorld.restoreSnapshot(snapshot);
+        for (int i = 0; i < 1800; i++) {
+            physicsWorld.step();
+        }
+        assertEquals(restingY, ball.getY(), 0.01, "The ball should land on the plank again");
+    }
+}